@@ -0,0 +1,65 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import util.DynamicArray;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks DynamicArray appends, removals from the front and middle, and
+ * worst-case contains lookups.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DynamicArrayBenchmark {
+
+    @Param({"1000", "100000"})
+    int size;
+
+    DynamicArray<Integer> filled;
+    Integer missing;
+
+    @Setup(Level.Invocation)
+    public void fill() {
+        filled = new DynamicArray<>();
+        for (int i = 0; i < size; i++) {
+            filled.add(i);
+        }
+        missing = -1;
+    }
+
+    @Benchmark
+    public DynamicArray<Integer> add() {
+        DynamicArray<Integer> array = new DynamicArray<>();
+        for (int i = 0; i < size; i++) {
+            array.add(i);
+        }
+        return array;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public void removeAtFront(Blackhole bh) {
+        for (int i = 0; i < 100; i++) {
+            bh.consume(filled.removeAt(0));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public void removeAtMiddle(Blackhole bh) {
+        for (int i = 0; i < 100; i++) {
+            bh.consume(filled.removeAt(filled.size() / 2));
+        }
+    }
+
+    @Benchmark
+    public boolean containsMissing() {
+        return filled.contains(missing);
+    }
+}
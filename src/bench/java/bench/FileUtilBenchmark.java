@@ -0,0 +1,86 @@
+package bench;
+
+import entities.Ticket;
+import org.openjdk.jmh.annotations.*;
+import util.DynamicArray;
+import util.MappedTicketReader;
+import util.fileUtil;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks reading and writing tickets.txt files generated at startup,
+ * through the array reader, the streaming loader and the mapped loader.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileUtilBenchmark {
+
+    @Param({"10000", "1000000"})
+    int size;
+
+    Path dir;
+    String readFile;
+    String writeFile;
+    Ticket[] tickets;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("ticket-bench");
+        readFile = dir.resolve("tickets.txt").toString();
+        writeFile = dir.resolve("tickets-out.txt").toString();
+
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        tickets = new Ticket[size];
+        for (int i = 0; i < size; i++) {
+            tickets[i] = new Ticket(UUID.randomUUID().toString(), "Generated issue number " + i, i % 5 + 1,
+                    start.plusNanos(i * 1_000_123L), "user" + (i % 1000), i % 3 == 0 ? null : "AG00" + (i % 9),
+                    "Pending");
+        }
+        fileUtil.saveTickets(readFile, tickets);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(dir.resolve("tickets.txt"));
+        Files.deleteIfExists(dir.resolve("tickets-out.txt"));
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public Ticket[] readTickets() {
+        return fileUtil.readTickets(readFile);
+    }
+
+    @Benchmark
+    public int loadTickets() {
+        DynamicArray<Ticket> target = new DynamicArray<>();
+        return fileUtil.loadTickets(readFile, target::add);
+    }
+
+    @Benchmark
+    public int readTicketsMapped() {
+        DynamicArray<Ticket> target = new DynamicArray<>();
+        return MappedTicketReader.readTickets(readFile, target);
+    }
+
+    @Benchmark
+    public void saveTickets() {
+        fileUtil.saveTickets(writeFile, tickets);
+    }
+
+    @Benchmark
+    public Ticket[] roundTrip() {
+        fileUtil.saveTickets(writeFile, tickets);
+        return fileUtil.readTickets(writeFile);
+    }
+}
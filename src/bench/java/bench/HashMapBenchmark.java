@@ -0,0 +1,73 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+import util.HashMap;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks HashMap inserts and lookups with username-like String keys at
+ * 1k, 100k and 1M entries.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HashMapBenchmark {
+
+    private static final int LOOKUPS = 1024;
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    String[] keys;
+    String[] lookups;
+    HashMap<String, Integer> filled;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new String[size];
+        filled = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            keys[i] = "user" + i;
+            filled.put(keys[i], i);
+        }
+        Random random = new Random(42);
+        lookups = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookups[i] = keys[random.nextInt(size)];
+        }
+    }
+
+    @Benchmark
+    public HashMap<String, Integer> putAll() {
+        HashMap<String, Integer> map = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], i);
+        }
+        return map;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int get() {
+        int sum = 0;
+        for (String key : lookups) {
+            sum += filled.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int getMissing() {
+        int found = 0;
+        for (String key : lookups) {
+            if (filled.containsKey(key + "x")) found++;
+        }
+        return found;
+    }
+}
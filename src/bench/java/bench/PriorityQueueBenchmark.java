@@ -0,0 +1,65 @@
+package bench;
+
+import entities.Ticket;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import util.PriorityQueue;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks filling and draining the ticket PriorityQueue. "random" spreads
+ * priorities evenly over 1-5; "skewed" puts nine in ten tickets on priority
+ * 1, the shape a real backlog tends to have.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PriorityQueueBenchmark {
+
+    @Param({"1000", "10000"})
+    int size;
+
+    @Param({"random", "skewed"})
+    String priorities;
+
+    Ticket[] tickets;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        tickets = new Ticket[size];
+        for (int i = 0; i < size; i++) {
+            int priority = priorities.equals("skewed")
+                    ? (random.nextInt(10) == 0 ? random.nextInt(4) + 2 : 1)
+                    : random.nextInt(5) + 1;
+            tickets[i] = new Ticket("T" + i, "Issue " + i, priority, start.plusSeconds(i), "user", null, "Pending");
+        }
+    }
+
+    @Benchmark
+    public PriorityQueue add() {
+        PriorityQueue queue = new PriorityQueue();
+        for (Ticket t : tickets) {
+            queue.add(t);
+        }
+        return queue;
+    }
+
+    @Benchmark
+    public void addThenRemoveAll(Blackhole bh) {
+        PriorityQueue queue = new PriorityQueue();
+        for (Ticket t : tickets) {
+            queue.add(t);
+        }
+        while (!queue.isEmpty()) {
+            bh.consume(queue.remove());
+        }
+    }
+}
@@ -2,9 +2,12 @@ package CLI;
 
 import entities.Ticket;
 import entities.Agent;
-import util.DynamicArray;
+import entities.TicketStatus;
+import util.LinkedTicketSet;
+import util.Page;
+import util.TicketArchive;
+import util.TicketStore;
 
-import java.util.Scanner;
 
 /**
  * Provides the user interface for agents in the Ticket Support System.
@@ -12,25 +15,27 @@ import java.util.Scanner;
  */
 public class AgentMenu {
 
-    private static final Scanner keyboard = new Scanner(System.in);
-
     /**
      * Displays the main menu for agents and handles their interactions.
      *
      * @param agentUsername the username of the logged-in agent
      */
     public static void show(String agentUsername) {
-        Agent agent = MainMenu.getAgents().get(agentUsername);
+        Agent agent = MainMenu.findAgent(agentUsername);
+        // Pick up tickets assigned in earlier sessions, and any waiting ones
+        int pushed = TicketActions.signIn(agent, agentUsername);
+        if (pushed > 0) {
+            Console.out.println("📥 " + pushed + " waiting ticket(s) assigned to you.");
+        }
 
         while (true) {
-            System.out.println("\n🛠️ Agent Menu for " + agentUsername);
-            System.out.println("1. View assigned (open) tickets");
-            System.out.println("2. Close a ticket");
-            System.out.println("3. View closed tickets");
-            System.out.println("4. Auto-assign highest priority ticket");
-            System.out.println("0. Logout");
-            System.out.print("Select an option: ");
-            String option = keyboard.nextLine();
+            Console.out.println("\n🛠️ Agent Menu for " + agentUsername);
+            Console.out.println("1. View assigned (open) tickets");
+            Console.out.println("2. Close a ticket");
+            Console.out.println("3. View closed tickets");
+            Console.out.println("4. Auto-assign highest priority ticket");
+            Console.out.println("0. Logout");
+            String option = Console.prompt("Select an option: ");
 
             switch (option) {
                 case "1":
@@ -40,15 +45,16 @@ public class AgentMenu {
                     closeTicket(agent);
                     break;
                 case "3":
-                    viewClosedTickets(agent);
+                    viewClosedTickets(agentUsername);
                     break;
                 case "4":
                     autoAssignTicket(agent, agentUsername);
                     break;
                 case "0":
+                    TicketActions.signOut(agentUsername);
                     return;
                 default:
-                    System.out.println("Invalid option. Try again.");
+                    Console.out.println("Invalid option. Try again.");
             }
         }
     }
@@ -60,17 +66,24 @@ public class AgentMenu {
      * @param agent the agent whose tickets to display
      */
     private static void viewAssignedTickets(Agent agent) {
-        DynamicArray<Ticket> open = agent.getOpenTickets();
-        if (open.size() == 0) {
-            System.out.println("📭 No assigned tickets.");
+        LinkedTicketSet open = agent.getOpenTickets();
+        boolean empty;
+        synchronized (agent) {
+            empty = open.isEmpty();
+        }
+        if (empty) {
+            Console.out.println("📭 No assigned tickets.");
             return;
         }
 
-        System.out.println("📋 Open Tickets:");
-        for (int i = 0; i < open.size(); i++) {
-            Ticket t = open.get(i);
-            System.out.println("- [" + t.getTicketId() + "] " + t.getIssueDescription() + " (Status: " + t.getStatus() + ")");
-        }
+        Console.out.println("📋 Open Tickets:");
+        // Other threads hand tickets to and from the agent, so each page is
+        // read under the agent's lock, as TicketActions does when changing it
+        TicketPager.show((size, token) -> {
+            synchronized (agent) {
+                return open.page(size, token);
+            }
+        }, t -> row(t).append(" (Status: ").append(t.getStatus()).append(')'));
     }
 
     /**
@@ -80,40 +93,45 @@ public class AgentMenu {
      * @param agent the agent closing the ticket
      */
     private static void closeTicket(Agent agent) {
-        System.out.print("Enter the ticket ID to close: ");
-        String id = keyboard.nextLine();
+        String id = Console.prompt("Enter the ticket ID to close: ");
 
-        DynamicArray<Ticket> open = agent.getOpenTickets();
-
-        for (int i = 0; i < open.size(); i++) {
-            Ticket t = open.get(i);
-            if (t.getTicketId().equals(id)) {
-                agent.closeTicket(t);
-                System.out.println("✅ Ticket " + id + " closed.");
-                return;
-            }
+        if (TicketActions.close(agent, id) != null) {
+            Console.out.println("✅ Ticket " + id + " closed.");
+            return;
         }
 
-        System.out.println("❌ Ticket not found in your assigned open tickets.");
+        Console.out.println("❌ Ticket not found in your assigned open tickets.");
     }
 
     /**
-     * Displays all tickets that have been closed by the agent.
+     * Displays all tickets that have been closed by the agent, including
+     * archived ones, which are read from disk page by page.
      * Shows ticket ID and description.
      *
-     * @param agent the agent whose closed tickets to display
+     * @param agentUsername the username of the agent whose closed tickets to display
      */
-    private static void viewClosedTickets(Agent agent) {
-        DynamicArray<Ticket> closed = agent.getClosedTickets();
-        if (closed.size() == 0) {
-            System.out.println("📭 No closed tickets.");
+    private static void viewClosedTickets(String agentUsername) {
+        TicketStore store = MainMenu.getTickets();
+        TicketArchive archive = MainMenu.getArchive();
+
+        Page<Ticket> first = store.pageByAgent(agentUsername, TicketStatus.CLOSED, TicketPager.PAGE_SIZE, null);
+        int archived = archive.countByAgent(agentUsername);
+        if (first.isEmpty() && archived == 0) {
+            Console.out.println("📭 No closed tickets.");
             return;
         }
 
-        System.out.println("📁 Closed Tickets:");
-        for (int i = 0; i < closed.size(); i++) {
-            Ticket t = closed.get(i);
-            System.out.println("- [" + t.getTicketId() + "] " + t.getIssueDescription());
+        Console.out.println("📁 Closed Tickets:");
+        if (!first.isEmpty()) {
+            int shown = TicketPager.show((size, token) -> token == null ? first
+                    : store.pageByAgent(agentUsername, TicketStatus.CLOSED, size, token), AgentMenu::row);
+            if (shown < 0) {
+                return;
+            }
+        }
+        if (archived > 0) {
+            TicketPager.show((size, token) -> archive.pageByAgent(agentUsername, size, token),
+                    t -> row(t).append(" (archived)"));
         }
     }
 
@@ -125,25 +143,19 @@ public class AgentMenu {
      * @param agentUsername the username of the agent
      */
     private static void autoAssignTicket(Agent agent, String agentUsername) {
-        DynamicArray<Ticket> all = MainMenu.getTickets();
-        Ticket topTicket = null;
-
-        for (int i = 0; i < all.size(); i++) {
-            Ticket t = all.get(i);
-            if (t.getAllocatedAgentId() == null || t.getAllocatedAgentId().isEmpty()) {
-                if (topTicket == null || t.compareTo(topTicket) > 0) {
-                    topTicket = t;
-                }
-            }
-        }
+        Ticket topTicket = TicketActions.autoAssign(agent, agentUsername);
 
         if (topTicket != null) {
-            topTicket.setAllocatedAgentId(agentUsername);
-            topTicket.setStatus("In progress");
-            agent.addTicket(topTicket);
-            System.out.println("✅ Ticket " + topTicket.getTicketId() + " auto-assigned to you.");
+            Console.out.println("✅ Ticket " + topTicket.getTicketId() + " auto-assigned to you.");
         } else {
-            System.out.println("❌ No unassigned tickets available.");
+            Console.out.println("❌ No unassigned tickets available.");
         }
     }
+
+    /**
+     * Starts a listing row with the ticket ID and description.
+     */
+    private static StringBuilder row(Ticket t) {
+        return Console.row().append("- [").append(t.getTicketId()).append("] ").append(t.getIssueDescription());
+    }
 }
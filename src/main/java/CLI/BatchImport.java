@@ -0,0 +1,130 @@
+package CLI;
+
+import entities.Ticket;
+import util.DynamicArray;
+import util.TicketArchive;
+import util.TicketImporter;
+import util.TicketStore;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+
+/**
+ * Non-interactive entry point that imports tickets in bulk, e.g. the nightly
+ * export of an email gateway. Tickets are read from a CSV or JSON lines file,
+ * or from standard input, and added to the store and the journal a batch at a
+ * time. Run with:
+ *
+ *   java -cp ... CLI.BatchImport [--format csv|jsonl] (file | -)
+ */
+public class BatchImport {
+
+    // Tickets added to the store and journaled together
+    private static final int BATCH_SIZE = 10_000;
+
+    // Skipped records listed in the summary; the rest are only counted
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    /**
+     * Imports the tickets named on the command line.
+     *
+     * @param args an optional --format option, then a file name or - for standard input
+     */
+    public static void main(String[] args) {
+        TicketImporter.Format format = null;
+        String source = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--format") && i + 1 < args.length) {
+                format = parseFormat(args[++i]);
+            } else if (source == null) {
+                source = args[i];
+            } else {
+                source = null; // more than one source
+                break;
+            }
+        }
+        if (source == null) {
+            System.err.println("Usage: BatchImport [--format csv|jsonl] (file | -)");
+            System.exit(2);
+        }
+        if (format == null) {
+            // Standard input defaults to CSV
+            format = TicketImporter.Format.forFile(source);
+        }
+
+        MainMenu.loadData();
+        int status = 0;
+        try (Reader in = source.equals("-")
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(Paths.get(source), StandardCharsets.UTF_8)) {
+            importTickets(in, format);
+        } catch (IOException | IllegalArgumentException e) {
+            Console.out.println("❌ Import failed: " + e.getMessage());
+            status = 1;
+        }
+        MainMenu.saveData();
+        Console.flush();
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    private static void importTickets(Reader in, TicketImporter.Format format) throws IOException {
+        TicketStore store = MainMenu.getTickets();
+        TicketArchive archive = MainMenu.getArchive();
+        TicketImporter importer = new TicketImporter(format, LocalDateTime.now());
+        DynamicArray<Ticket> batch = new DynamicArray<>(BATCH_SIZE);
+        int[] added = new int[1];
+
+        int read = importer.read(in, t -> {
+            batch.add(t);
+            if (batch.size() == BATCH_SIZE) {
+                added[0] += insert(store, archive, batch);
+            }
+        });
+        added[0] += insert(store, archive, batch);
+
+        DynamicArray<String> errors = importer.getErrors();
+        Console.out.println("✅ Imported " + added[0] + " of " + read + " tickets read ("
+                + (read - added[0]) + " already known, " + errors.size() + " rejected).");
+        for (int i = 0; i < Math.min(errors.size(), MAX_REPORTED_ERRORS); i++) {
+            Console.out.println("  " + errors.get(i));
+        }
+        if (errors.size() > MAX_REPORTED_ERRORS) {
+            Console.out.println("  ... and " + (errors.size() - MAX_REPORTED_ERRORS) + " more.");
+        }
+    }
+
+    /**
+     * Adds one batch to the store and journals the tickets that were new,
+     * then empties the batch.
+     *
+     * @return the number of tickets added
+     */
+    private static int insert(TicketStore store, TicketArchive archive, DynamicArray<Ticket> batch) {
+        batch.removeIf(t -> archive.contains(t.getTicketId()));
+        DynamicArray<Ticket> added = store.addAll(batch);
+        MainMenu.getJournal().ticketsCreated(added);
+        batch.clear();
+        return added.size();
+    }
+
+    private static TicketImporter.Format parseFormat(String name) {
+        switch (name.toLowerCase()) {
+            case "csv":
+                return TicketImporter.Format.CSV;
+            case "json":
+            case "jsonl":
+                return TicketImporter.Format.JSON_LINES;
+            default:
+                System.err.println("Unknown format: " + name);
+                System.exit(2);
+                return null;
+        }
+    }
+}
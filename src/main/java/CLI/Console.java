@@ -0,0 +1,87 @@
+package CLI;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.NoSuchElementException;
+
+/**
+ * Console input and output shared by every menu. All menus read from one
+ * buffered reader, so lines piped into the program are never swallowed by
+ * another menu's read-ahead buffer. Output is buffered and only flushed when
+ * the program waits for input or exits, so long listings are written in a
+ * few large writes instead of one per line.
+ */
+final class Console {
+
+    private static final int BUFFER_SIZE = 1 << 13;
+
+    /**
+     * The buffered console output. Anything printed is shown no later than
+     * the next {@link #readLine()}.
+     */
+    static final PrintWriter out = new PrintWriter(new BufferedWriter(
+            new OutputStreamWriter(System.out, System.out.charset()), BUFFER_SIZE), false);
+
+    private static final BufferedReader in = new BufferedReader(new InputStreamReader(System.in), BUFFER_SIZE);
+
+    // Reused by row() so formatting a listing does not allocate a builder per row
+    private static final StringBuilder row = new StringBuilder(128);
+
+    private Console() {
+    }
+
+    /**
+     * Flushes pending output, then reads one line of input.
+     *
+     * @return the line, without its line terminator
+     * @throws NoSuchElementException if the input has ended
+     */
+    static String readLine() {
+        out.flush();
+        try {
+            String line = in.readLine();
+            if (line == null) {
+                throw new NoSuchElementException("No more console input.");
+            }
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Prints a prompt and reads the answer.
+     *
+     * @param prompt the text to show before the cursor
+     * @return the line entered
+     * @throws NoSuchElementException if the input has ended
+     */
+    static String prompt(String prompt) {
+        out.print(prompt);
+        return readLine();
+    }
+
+    /**
+     * Returns the shared row builder, emptied. The builder is only valid
+     * until the next call, so a row must be printed before the next one is
+     * formatted.
+     *
+     * @return an empty StringBuilder
+     */
+    static StringBuilder row() {
+        row.setLength(0);
+        return row;
+    }
+
+    /**
+     * Writes out anything still buffered.
+     */
+    static void flush() {
+        out.flush();
+    }
+}
@@ -3,11 +3,35 @@ package CLI;
 import entities.User;
 import entities.Agent;
 import entities.Ticket;
+import entities.TicketStatus;
+import util.AgentBalancer;
+import util.AgingPolicy;
 import util.HashMap;
 import util.DynamicArray;
+import util.Journal;
+import util.MappedTicketReader;
+import util.SlaPolicy;
+import util.SlaScheduler;
+import util.TicketArchive;
+import util.TicketStore;
 import util.fileUtil;
 
-import java.util.Scanner;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Main menu class for the Ticket Support System.
@@ -15,11 +39,33 @@ import java.util.Scanner;
  */
 public class MainMenu {
 
-    private static final Scanner keyboard = new Scanner(System.in);
+    // Ticket files at least this large are memory-mapped and parsed in parallel
+    private static final long MAPPED_LOAD_THRESHOLD = 8L << 20;
+
+    // Journal entries after which the journal is folded into new snapshot files
+    private static final long COMPACTION_THRESHOLD = 10_000;
+
+    // Days a ticket stays closed in the live store before it moves to the archive
+    private static final long DEFAULT_ARCHIVE_AFTER_DAYS = 30;
+
+    // Open tickets the dispatcher gives one agent before passing them over
+    private static final int DEFAULT_AGENT_CAPACITY = 10;
+
+    // How often the SLA clock moves, and so how finely deadlines are timed
+    private static final Duration SLA_TICK = Duration.ofSeconds(1);
 
     private static HashMap<String, User> users;
     private static HashMap<String, Agent> agents;
-    private static DynamicArray<Ticket> tickets;
+    // util.HashMap is not thread-safe, and the server's logins read the
+    // account maps while registrations and journal replay write them
+    private static final ReentrantReadWriteLock accounts = new ReentrantReadWriteLock();
+    private static TicketStore tickets;
+    private static Journal journal;
+    private static TicketArchive archive;
+    private static AgentBalancer balancer;
+    private static SlaScheduler sla;
+    private static ScheduledExecutorService slaClock;
+    private static Path dataDir;
 
     /**
      * Main entry point for the Ticket Support System.
@@ -29,39 +75,54 @@ public class MainMenu {
      */
     public static void main(String[] args) {
         loadData();
+        startSlaClock();
 
-        System.out.println("Welcome to the Ticket Support System");
+        Console.out.println("Welcome to the Ticket Support System");
 
-        String username = handleLogin();
-        if (username == null) {
-            saveData();
-            System.out.println("👋 Exiting. Goodbye!");
-            return;
-        }
-
-        if (agents.containsKey(username)) {
-            System.out.println("\n🛠️ Welcome, " + username + " (Agent)");
-            AgentMenu.show(username);
-        } else {
-            System.out.println("\n👤 Welcome, " + username + " (User)");
-            UserMenu.show(username);
+        try {
+            String username = handleLogin();
+            if (username != null) {
+                if (findAgent(username) != null) {
+                    Console.out.println("\n🛠️ Welcome, " + username + " (Agent)");
+                    AgentMenu.show(username);
+                } else {
+                    Console.out.println("\n👤 Welcome, " + username + " (User)");
+                    UserMenu.show(username);
+                }
+            }
+        } catch (NoSuchElementException e) {
+            // Input ran out, e.g. at the end of a piped script: leave as on exit
         }
 
         saveData();
-        System.out.println("👋 Exiting. Goodbye!");
+        Console.out.println("👋 Exiting. Goodbye!");
+        Console.flush();
     }
 
     /**
-     * Returns the collection of all tickets in the system.
+     * Returns the store that owns all tickets in the system.
      *
-     * @return the DynamicArray containing all tickets
+     * @return the TicketStore containing all tickets
      */
-    public static DynamicArray<Ticket> getTickets() {
+    public static TicketStore getTickets() {
         return tickets;
     }
 
     /**
-     * Returns the map of all agents in the system.
+     * Returns the map of all regular users in the system. The map is not
+     * guarded; code that may run alongside registrations uses
+     * {@link #findUser(String)} instead.
+     *
+     * @return the HashMap containing all users
+     */
+    public static HashMap<String, User> getUsers() {
+        return users;
+    }
+
+    /**
+     * Returns the map of all agents in the system. The map is not guarded;
+     * code that may run alongside registrations uses
+     * {@link #findAgent(String)} instead.
      *
      * @return the HashMap containing all agents
      */
@@ -69,6 +130,91 @@ public class MainMenu {
         return agents;
     }
 
+    /**
+     * Looks up a regular user. Safe to call from any thread.
+     *
+     * @param username the username
+     * @return the user, or null if there is none
+     */
+    public static User findUser(String username) {
+        accounts.readLock().lock();
+        try {
+            return users.get(username);
+        } finally {
+            accounts.readLock().unlock();
+        }
+    }
+
+    /**
+     * Looks up an agent by username. Safe to call from any thread.
+     *
+     * @param username the agent's username
+     * @return the agent, or null if there is none
+     */
+    public static Agent findAgent(String username) {
+        accounts.readLock().lock();
+        try {
+            return agents.get(username);
+        } finally {
+            accounts.readLock().unlock();
+        }
+    }
+
+    private static void addUser(User user) {
+        accounts.writeLock().lock();
+        try {
+            users.put(user.getUsername(), user);
+        } finally {
+            accounts.writeLock().unlock();
+        }
+    }
+
+    private static void addAgent(Agent agent) {
+        accounts.writeLock().lock();
+        try {
+            agents.put(agent.getUsername(), agent);
+        } finally {
+            accounts.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the archive of tickets that were closed long ago.
+     *
+     * @return the on-disk ticket archive
+     */
+    public static TicketArchive getArchive() {
+        return archive;
+    }
+
+    /**
+     * Returns the balancer that spreads unassigned tickets over the agents
+     * that are signed in.
+     *
+     * @return the agent balancer
+     */
+    public static AgentBalancer getBalancer() {
+        return balancer;
+    }
+
+    /**
+     * Returns the scheduler that watches the SLA deadlines of open tickets.
+     *
+     * @return the SLA scheduler
+     */
+    public static SlaScheduler getSla() {
+        return sla;
+    }
+
+    /**
+     * Returns the journal that records every change made in this session.
+     *
+     * @return the write-ahead journal
+     */
+    public static Journal getJournal() {
+        return journal;
+    }
+
     /**
      * Handles the login and registration process.
      * Provides options for login, registration, and exit.
@@ -77,110 +223,323 @@ public class MainMenu {
      */
     private static String handleLogin() {
         while (true) {
-            System.out.println("\n1. Login");
-            System.out.println("2. Register");
-            System.out.println("0. Exit");
-            System.out.print("Select an option: ");
-            String option = keyboard.nextLine();
+            Console.out.println("\n1. Login");
+            Console.out.println("2. Register");
+            Console.out.println("0. Exit");
+            String option = Console.prompt("Select an option: ");
 
             switch (option) {
                 case "1":
-                    System.out.print("Enter username: ");
-                    String username = keyboard.nextLine();
-                    System.out.print("Enter password: ");
-                    String password = keyboard.nextLine();
+                    String username = Console.prompt("Enter username: ");
+                    String password = Console.prompt("Enter password: ");
 
-                    if (agents.containsKey(username)) {
-                        Agent a = agents.get(username);
+                    Agent a = findAgent(username);
+                    if (a != null) {
                         if (a.getPassword().equals(password)) return username;
-                    } else if (users.containsKey(username)) {
-                        User u = users.get(username);
-                        if (u.getPassword().equals(password)) return username;
+                    } else {
+                        User u = findUser(username);
+                        if (u != null && u.getPassword().equals(password)) return username;
                     }
 
-                    System.out.println("❌ Login failed. Please try again.");
+                    Console.out.println("❌ Login failed. Please try again.");
                     break;
 
                 case "2":
-                    System.out.print("Choose a username: ");
-                    String newUsername = keyboard.nextLine();
-                    System.out.print("Choose a password: ");
-                    String newPassword = keyboard.nextLine();
-                    System.out.print("Are you registering as a user or agent? ");
-                    String role = keyboard.nextLine().toLowerCase();
+                    String newUsername = Console.prompt("Choose a username: ");
+                    String newPassword = Console.prompt("Choose a password: ");
+                    String role = Console.prompt("Are you registering as a user or agent? ").toLowerCase();
 
                     if (role.equals("agent")) {
-                        System.out.print("Enter agent ID: ");
-                        String agentId = keyboard.nextLine();
-                        System.out.print("Enter agent name: ");
-                        String agentName = keyboard.nextLine();
-                        agents.put(newUsername, new Agent(newUsername, newPassword, agentId, agentName));
+                        String agentId = Console.prompt("Enter agent ID: ");
+                        String agentName = Console.prompt("Enter agent name: ");
+                        Agent agent = new Agent(newUsername, newPassword, agentId, agentName);
+                        addAgent(agent);
+                        journal.agentRegistered(agent);
                     } else {
-                        users.put(newUsername, new User(newUsername, newPassword));
+                        User user = new User(newUsername, newPassword);
+                        addUser(user);
+                        journal.userRegistered(user);
                     }
 
-                    System.out.println("✅ Registered successfully. Please login.");
+                    Console.out.println("✅ Registered successfully. Please login.");
                     break;
 
                 case "0":
                     return null;
 
                 default:
-                    System.out.println("Invalid option. Try again.");
+                    Console.out.println("Invalid option. Try again.");
             }
         }
     }
 
     /**
-     * Loads user, agent, and ticket data from text files.
+     * Loads user, agent, and ticket data from text files, then replays the
+     * journal of changes made since those files were written.
      * Initializes the system's data structures with the loaded data.
      */
-    private static void loadData() {
-        users = new HashMap<>();
-        for (User u : fileUtil.readUsers("users.txt")) {
-            users.put(u.getUsername(), u);
+    static void loadData() {
+        // tickets.dataDir moves every data file, e.g. for tests; the default is the working directory
+        dataDir = Paths.get(System.getProperty("tickets.dataDir", ""));
+
+        users = new HashMap<>(fileUtil.estimateRecords(dataFile("users.txt")));
+        fileUtil.loadUsers(dataFile("users.txt"), u -> users.put(u.getUsername(), u));
+
+        agents = new HashMap<>(fileUtil.estimateRecords(dataFile("agents.txt")));
+        fileUtil.loadAgents(dataFile("agents.txt"), a -> agents.put(a.getUsername(), a));
+
+        try {
+            archive = new TicketArchive(dataFile("archive.txt"));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open archive.txt", e);
         }
 
-        agents = new HashMap<>();
-        for (Agent a : fileUtil.readAgents("agents.txt")) {
-            agents.put(a.getUsername(), a);
+        // Tickets archived after the last snapshot may still be in tickets.txt
+        tickets = new TicketStore(fileUtil.estimateRecords(dataFile("tickets.txt")), agingPolicy());
+        if (useMappedTicketLoad(dataFile("tickets.txt"))) {
+            DynamicArray<Ticket> loaded = new DynamicArray<>();
+            MappedTicketReader.readTickets(dataFile("tickets.txt"), loaded);
+            for (int i = 0; i < loaded.size(); i++) {
+                addLive(loaded.get(i));
+            }
+        } else {
+            fileUtil.loadTickets(dataFile("tickets.txt"), MainMenu::addLive);
         }
+        fileUtil.loadMissedDeadlines(dataFile("sla.txt"), (ticketId, missed) -> {
+            Ticket t = tickets.get(ticketId);
+            if (t != null) t.setMissedDeadlines(missed);
+        });
 
-        tickets = new DynamicArray<>();
-        for (Ticket t : fileUtil.readTickets("tickets.txt")) {
-            tickets.add(t);
+        try {
+            journal = new Journal(dataFile("journal.txt"));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open journal.txt", e);
         }
+        int replayed = journal.replay(new JournalReplay());
+        journal.enableCompaction(COMPACTION_THRESHOLD, MainMenu::captureSnapshot, replayed);
+        archiveOldTickets();
 
-        System.out.println("✅ Data loaded from text files.");
+        // tickets.dispatch picks the policy: least-loaded or power-of-two-choices
+        balancer = new AgentBalancer(
+                AgentBalancer.Policy.parse(System.getProperty("tickets.dispatch", "least-loaded")),
+                Integer.getInteger("tickets.agentCapacity", DEFAULT_AGENT_CAPACITY));
+
+        sla = new SlaScheduler(SlaPolicy.DEFAULT, SLA_TICK, LocalDateTime.now(), TicketActions::escalate);
+
+        Console.out.println("✅ Data loaded from text files.");
     }
 
     /**
-     * Saves the current state of user, agent, and ticket data to text files.
-     * Ensures data persistence between program sessions.
+     * Starts watching the SLA deadlines of every open ticket, on a single
+     * background thread that moves the scheduler's clock once per tick.
+     * Deadlines missed while the system was down fall due straight away.
      */
-    private static void saveData() {
-        Object[] userObjs = users.getValues();
+    static void startSlaClock() {
+        for (Ticket t : tickets.getAll()) {
+            sla.track(t);
+        }
+        slaClock = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sla-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        slaClock.scheduleAtFixedRate(() -> {
+            try {
+                sla.tick(LocalDateTime.now());
+            } catch (RuntimeException e) {
+                // An uncaught exception would stop the clock for good
+                Logger.getLogger(MainMenu.class.getName()).log(Level.SEVERE, null, e);
+            }
+        }, 0, SLA_TICK.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static void addLive(Ticket ticket) {
+        if (!archive.contains(ticket.getTicketId())) {
+            tickets.add(ticket);
+        }
+    }
+
+    /**
+     * Moves tickets closed longer than the archive period out of the live
+     * store, then compacts the journal so tickets.txt no longer holds them.
+     * The tickets.archiveAfterDays system property sets the period.
+     */
+    private static void archiveOldTickets() {
+        long days = Long.getLong("tickets.archiveAfterDays", DEFAULT_ARCHIVE_AFTER_DAYS);
+        try {
+            if (tickets.archiveClosed(archive, LocalDateTime.now().minusDays(days)) > 0) {
+                journal.compact();
+            }
+        } catch (IOException e) {
+            Logger.getLogger(MainMenu.class.getName()).log(Level.SEVERE, "Could not archive closed tickets", e);
+        }
+    }
+
+    /**
+     * Reads the aging policy from the tickets.agingMinutes system property:
+     * the minutes of waiting worth one priority level. Without it the
+     * default policy is used, and 0 gives strict priority order.
+     *
+     * @return the aging policy for the dispatch queue
+     */
+    private static AgingPolicy agingPolicy() {
+        Integer minutes = Integer.getInteger("tickets.agingMinutes");
+        if (minutes == null) {
+            return AgingPolicy.DEFAULT;
+        }
+        return minutes == 0 ? AgingPolicy.NONE : AgingPolicy.linear(Duration.ofMinutes(minutes));
+    }
+
+    /**
+     * Decides whether the ticket file should be loaded through the parallel
+     * memory-mapped reader. The tickets.load system property forces a mode
+     * ("mapped" or "stream"); otherwise large files are mapped.
+     *
+     * @param filename the ticket file to load
+     * @return true if the mapped reader should be used
+     */
+    private static boolean useMappedTicketLoad(String filename) {
+        String mode = System.getProperty("tickets.load", "");
+        if (mode.equalsIgnoreCase("mapped")) return true;
+        if (mode.equalsIgnoreCase("stream")) return false;
+        return new File(filename).length() >= MAPPED_LOAD_THRESHOLD;
+    }
+
+    /**
+     * Makes sure every change of this session is on disk. Changes are already
+     * journaled as they happen, so this only waits for the journal (and any
+     * running compaction) to finish.
+     */
+    static void saveData() {
+        if (slaClock != null) {
+            // Let a running escalation finish its journal entries first
+            slaClock.shutdown();
+            try {
+                slaClock.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            journal.close();
+            archive.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close journal.txt and archive.txt", e);
+        }
+
+        Console.out.println("💾 Data saved to text files.");
+    }
+
+    /**
+     * Copies the current users, agents, and tickets for a journal compaction.
+     * The copies are written to the text files on the compaction thread.
+     *
+     * @return the snapshot to write
+     */
+    private static Journal.Snapshot captureSnapshot() {
+        Object[] userObjs;
+        Object[] agentObjs;
+        accounts.readLock().lock();
+        try {
+            userObjs = users.getValues();
+            agentObjs = agents.getValues();
+        } finally {
+            accounts.readLock().unlock();
+        }
         User[] userArr = new User[userObjs.length];
         for (int i = 0; i < userArr.length; i++) {
             userArr[i] = (User) userObjs[i];
         }
 
-        Object[] agentObjs = agents.getValues();
         Agent[] agentArr = new Agent[agentObjs.length];
         for (int i = 0; i < agentArr.length; i++) {
             agentArr[i] = (Agent) agentObjs[i];
         }
 
-        Object[] ticketObjs = tickets.getValues();
-        Ticket[] ticketArr = new Ticket[ticketObjs.length];
+        // Tickets keep changing while the snapshot is written, so copy their
+        // fields first. A change that races the copy is also in the new
+        // journal, which is replayed over the snapshot on the next start.
+        // Users and agents never change once registered
+        DynamicArray<Ticket> all = tickets.getAll();
+        Ticket[] ticketArr = new Ticket[all.size()];
         for (int i = 0; i < ticketArr.length; i++) {
-            ticketArr[i] = (Ticket) ticketObjs[i];
+            ticketArr[i] = all.get(i).copy();
         }
 
-        fileUtil.saveUsers("users.txt", userArr);
-        fileUtil.saveAgents("agents.txt", agentArr);
-        fileUtil.saveTickets("tickets.txt", ticketArr);
+        return () -> {
+            fileUtil.saveUsers(dataFile("users.txt.tmp"), userArr);
+            fileUtil.saveAgents(dataFile("agents.txt.tmp"), agentArr);
+            fileUtil.saveTickets(dataFile("tickets.txt.tmp"), ticketArr);
+            fileUtil.saveMissedDeadlines(dataFile("sla.txt.tmp"), ticketArr);
+            replaceFile("users.txt");
+            replaceFile("agents.txt");
+            replaceFile("tickets.txt");
+            replaceFile("sla.txt");
+        };
+    }
+
+    private static void replaceFile(String filename) throws IOException {
+        Files.move(dataDir.resolve(filename + ".tmp"), dataDir.resolve(filename),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String dataFile(String filename) {
+        return dataDir.resolve(filename).toString();
+    }
+
+    /**
+     * Applies replayed journal entries to the loaded data. Entries that are
+     * already reflected in the text files are applied again harmlessly.
+     */
+    private static class JournalReplay implements Journal.Listener {
+
+        @Override
+        public void ticketCreated(Ticket ticket) {
+            addLive(ticket);
+        }
 
-        System.out.println("💾 Data saved to text files.");
+        @Override
+        public void ticketAssigned(String ticketId, String agentId) {
+            Ticket t = tickets.get(ticketId);
+            if (t != null) tickets.setAllocatedAgentId(t, agentId);
+        }
+
+        @Override
+        public void statusChanged(String ticketId, String status) {
+            Ticket t = tickets.get(ticketId);
+            if (t != null) tickets.setStatus(t, status);
+        }
+
+        @Override
+        public void ticketClosed(String ticketId, LocalDateTime closedAt) {
+            Ticket t = tickets.get(ticketId);
+            if (t == null) return;
+            if (t.getTicketStatus() != TicketStatus.CLOSED) {
+                t.setClosedDate(closedAt);
+            }
+            tickets.setStatus(t, TicketStatus.CLOSED);
+        }
+
+        @Override
+        public void priorityChanged(String ticketId, int priorityLevel) {
+            Ticket t = tickets.get(ticketId);
+            if (t != null && priorityLevel >= 1 && priorityLevel <= 5) tickets.setPriority(t, priorityLevel);
+        }
+
+        @Override
+        public void deadlinesMissed(String ticketId, int missedDeadlines) {
+            Ticket t = tickets.get(ticketId);
+            if (t != null) t.setMissedDeadlines(t.getMissedDeadlines() | missedDeadlines);
+        }
+
+        @Override
+        public void userRegistered(User user) {
+            addUser(user);
+        }
+
+        @Override
+        public void agentRegistered(Agent agent) {
+            addAgent(agent);
+        }
     }
 }
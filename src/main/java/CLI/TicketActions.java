@@ -0,0 +1,260 @@
+package CLI;
+
+import entities.Agent;
+import entities.Ticket;
+import entities.TicketStatus;
+import util.AgentBalancer;
+import util.SlaScheduler;
+import util.TicketStore;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * The ticket operations behind the menus and the HTTP service. Each one
+ * updates the shared store and journals the change. Work on one agent's
+ * tickets is done while holding that agent, so an agent can use several
+ * sessions at once.
+ *
+ * Unassigned tickets are pushed to signed-in agents whenever there may be
+ * work to hand out: when a ticket is created, when an agent signs in and
+ * when an agent closes a ticket. The {@link AgentBalancer} decides who gets
+ * each one.
+ *
+ * Open tickets are watched by the {@link SlaScheduler}, which calls
+ * {@link #escalate} when a deadline comes near or passes.
+ */
+final class TicketActions {
+
+    private TicketActions() {
+    }
+
+    /**
+     * Creates a pending ticket for a user.
+     *
+     * @param username the reporting user
+     * @param description the issue description
+     * @param priority the priority level, 1 to 5
+     * @return the new ticket
+     * @throws IllegalArgumentException if the ticket is not valid
+     */
+    static Ticket createTicket(String username, String description, int priority) {
+        Ticket t = new Ticket(UUID.randomUUID().toString(), description, priority, LocalDateTime.now(),
+                username, null, TicketStatus.PENDING.getLabel());
+        MainMenu.getTickets().add(t);
+        MainMenu.getJournal().ticketCreated(t);
+        MainMenu.getSla().track(t);
+        dispatch();
+        return t;
+    }
+
+    /**
+     * Finds a ticket in the store, or in the archive if it was closed long ago.
+     *
+     * @param ticketId the ticket id
+     * @return the ticket, or null if there is none
+     */
+    static Ticket find(String ticketId) {
+        Ticket t = MainMenu.getTickets().get(ticketId);
+        // Long-closed tickets are only on disk
+        return t != null ? t : MainMenu.getArchive().read(ticketId);
+    }
+
+    /**
+     * Makes an agent available for tickets: gives them the open tickets
+     * assigned to them in earlier sessions, then pushes waiting tickets to
+     * them up to their capacity.
+     *
+     * @param agent the agent
+     * @param agentUsername the agent's username
+     * @return the number of waiting tickets handed out
+     */
+    static int signIn(Agent agent, String agentUsername) {
+        int open;
+        synchronized (agent) {
+            for (Ticket t : MainMenu.getTickets().getByAgent(agentUsername)) {
+                if (t.getTicketStatus() != TicketStatus.CLOSED) {
+                    agent.addTicket(t);
+                }
+            }
+            open = agent.getWorkQueue().openCount();
+        }
+        MainMenu.getBalancer().register(agentUsername, open);
+        return dispatch();
+    }
+
+    /**
+     * Stops pushing tickets to an agent. Their open tickets stay theirs.
+     *
+     * @param agentUsername the agent's username
+     */
+    static void signOut(String agentUsername) {
+        MainMenu.getBalancer().unregister(agentUsername);
+    }
+
+    /**
+     * Assigns the highest priority unassigned ticket to an agent, whatever
+     * their current load.
+     *
+     * @param agent the agent
+     * @param agentUsername the agent's username
+     * @return the assigned ticket, or null if no ticket is waiting
+     */
+    static Ticket autoAssign(Agent agent, String agentUsername) {
+        Ticket t = MainMenu.getTickets().claimNext(agentUsername);
+        if (t != null) {
+            MainMenu.getBalancer().increment(agentUsername);
+            handOver(agent, agentUsername, t);
+        }
+        return t;
+    }
+
+    /**
+     * Pushes unassigned tickets, highest priority first, to the signed-in
+     * agents the balancer picks, until no ticket is waiting or every agent
+     * is at capacity.
+     *
+     * @return the number of tickets handed out
+     */
+    static int dispatch() {
+        TicketStore store = MainMenu.getTickets();
+        AgentBalancer balancer = MainMenu.getBalancer();
+        int dispatched = 0;
+        while (store.unassignedCount() > 0) {
+            String agentUsername = balancer.reserve();
+            if (agentUsername == null) {
+                break;
+            }
+            Ticket t = store.claimNext(agentUsername);
+            if (t == null) {
+                // Someone else took the last ticket
+                balancer.decrement(agentUsername);
+                break;
+            }
+            handOver(MainMenu.findAgent(agentUsername), agentUsername, t);
+            dispatched++;
+        }
+        return dispatched;
+    }
+
+    /**
+     * Puts a claimed ticket in progress on the agent's work queue.
+     */
+    private static void handOver(Agent agent, String agentUsername, Ticket t) {
+        MainMenu.getTickets().setStatus(t, TicketStatus.IN_PROGRESS);
+        synchronized (agent) {
+            agent.addTicket(t);
+        }
+        MainMenu.getJournal().ticketAssigned(t.getTicketId(), agentUsername);
+        MainMenu.getJournal().statusChanged(t.getTicketId(), TicketStatus.IN_PROGRESS.getLabel());
+        MainMenu.getSla().assigned(t.getTicketId());
+    }
+
+    /**
+     * Closes one of an agent's open tickets.
+     *
+     * @param agent the agent
+     * @param ticketId the id of the ticket to close
+     * @return the closed ticket, or null if the agent has no open ticket with that id
+     */
+    static Ticket close(Agent agent, String ticketId) {
+        Ticket t;
+        synchronized (agent) {
+            t = agent.getOpenTickets().get(ticketId);
+            if (t == null) {
+                return null;
+            }
+            MainMenu.getTickets().setStatus(t, TicketStatus.CLOSED);
+            agent.closeTicket(t);
+        }
+        MainMenu.getJournal().ticketClosed(ticketId, t.getClosedDate());
+        MainMenu.getSla().cancel(ticketId);
+        MainMenu.getBalancer().decrement(agent.getUsername());
+        dispatch();
+        return t;
+    }
+
+    /**
+     * Acts on an SLA deadline that has come near or passed. A near breach is
+     * only logged. A breach raises the ticket's priority by one level, and a
+     * missed resolution deadline on a ticket whose agent has signed out moves
+     * the ticket to the signed-in agent the balancer picks, if any has room.
+     * Each deadline is escalated at most once: the miss is recorded on the
+     * ticket and journaled, so a breach reported again, e.g. after a
+     * restart, changes nothing.
+     *
+     * @param event the deadline event
+     */
+    static void escalate(SlaScheduler.Event event) {
+        Ticket t = MainMenu.getTickets().get(event.ticketId());
+        if (t == null || t.getTicketStatus() == TicketStatus.SOLVED || t.getTicketStatus() == TicketStatus.CLOSED) {
+            return;
+        }
+        if (!event.kind().isBreach()) {
+            Logger.getLogger(TicketActions.class.getName()).fine(() -> "Ticket " + t.getTicketId()
+                    + " is near its " + event.kind() + " deadline of " + event.deadline());
+            return;
+        }
+        int missed;
+        synchronized (t) {
+            int bit = event.kind().deadlineBit();
+            if ((t.getMissedDeadlines() & bit) != 0) {
+                return;
+            }
+            missed = t.getMissedDeadlines() | bit;
+            t.setMissedDeadlines(missed);
+        }
+        MainMenu.getJournal().deadlinesMissed(t.getTicketId(), missed);
+        Logger.getLogger(TicketActions.class.getName()).fine(() -> "Ticket " + t.getTicketId()
+                + " missed its " + event.kind() + " deadline of " + event.deadline());
+        raisePriority(t);
+        Agent holder = holderOf(t);
+        if (event.kind() == SlaScheduler.Kind.RESOLUTION_BREACH && holder != null
+                && MainMenu.getBalancer().load(holder.getUsername()) < 0) {
+            String other = MainMenu.getBalancer().reserve();
+            if (other != null) {
+                reassign(t, holder, other);
+            }
+        }
+        dispatch();
+    }
+
+    /**
+     * Raises a ticket's priority by one level, wherever it is queued.
+     */
+    private static void raisePriority(Ticket t) {
+        int level = t.getPriorityLevel();
+        if (level >= 5) {
+            return;
+        }
+        Agent agent = holderOf(t);
+        if (agent != null) {
+            synchronized (agent) {
+                agent.getWorkQueue().updatePriority(t.getTicketId(), level + 1);
+            }
+        }
+        MainMenu.getTickets().setPriority(t, level + 1);
+        MainMenu.getJournal().priorityChanged(t.getTicketId(), level + 1);
+    }
+
+    /**
+     * Moves an open ticket from one agent's work queue to another's.
+     */
+    private static void reassign(Ticket t, Agent from, String toUsername) {
+        synchronized (from) {
+            from.getWorkQueue().remove(t.getTicketId());
+        }
+        MainMenu.getTickets().setAllocatedAgentId(t, toUsername);
+        Agent to = MainMenu.findAgent(toUsername);
+        synchronized (to) {
+            to.addTicket(t);
+        }
+        MainMenu.getJournal().ticketAssigned(t.getTicketId(), toUsername);
+    }
+
+    private static Agent holderOf(Ticket t) {
+        String holder = t.getAllocatedAgentId();
+        return holder == null || holder.isEmpty() ? null : MainMenu.findAgent(holder);
+    }
+}
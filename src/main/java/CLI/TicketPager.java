@@ -0,0 +1,52 @@
+package CLI;
+
+import entities.Ticket;
+import util.Page;
+
+import java.util.function.Function;
+
+/**
+ * Shows ticket listings one page at a time. Each page is formatted into the
+ * buffered console output and flushed once, and the next page is only
+ * fetched if the user asks for it.
+ */
+final class TicketPager {
+
+    static final int PAGE_SIZE = 20;
+
+    /**
+     * Fetches one page of a listing.
+     */
+    interface Source {
+        Page<Ticket> page(int pageSize, String token);
+    }
+
+    private TicketPager() {
+    }
+
+    /**
+     * Prints a listing page by page, asking before each further page.
+     *
+     * @param source fetches the pages
+     * @param format formats one ticket as a row, usually into {@link Console#row()}
+     * @return the number of tickets shown, or -1 if the user stopped early
+     */
+    static int show(Source source, Function<Ticket, CharSequence> format) {
+        int shown = 0;
+        String token = null;
+        do {
+            Page<Ticket> page = source.page(PAGE_SIZE, token);
+            for (Ticket t : page) {
+                Console.out.append(format.apply(t)).println();
+            }
+            shown += page.size();
+            token = page.getNextToken();
+        } while (token != null && morePages(shown));
+        return token == null ? shown : -1;
+    }
+
+    private static boolean morePages(int shown) {
+        return !Console.prompt("-- " + shown + " shown. Press Enter for more, or q to stop: ")
+                .trim().equalsIgnoreCase("q");
+    }
+}
@@ -0,0 +1,411 @@
+package CLI;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import entities.Agent;
+import entities.Ticket;
+import entities.User;
+import util.DynamicArray;
+import util.Page;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Serves the ticket system as a JSON API over HTTP, so many users and agents
+ * share one in-memory store. Every request runs on its own virtual thread.
+ * Run with:
+ *
+ *   java -cp ... CLI.TicketServer [port]
+ *
+ * Endpoints (all but login need an "Authorization: Bearer token" header):
+ *
+ *   POST /login                 {"username", "password"} -> {"token", "role"}
+ *   POST /logout
+ *   GET  /tickets?page=&size=   a user's own tickets, or an agent's open tickets
+ *   POST /tickets               {"description", "priority"} (users)
+ *   GET  /tickets/{id}
+ *   POST /tickets/assign        assigns the next unassigned ticket (agents)
+ *   POST /tickets/{id}/close    (agents)
+ */
+public class TicketServer {
+
+    private static final int DEFAULT_PORT = 8080;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private static final Gson gson = new Gson();
+
+    /**
+     * A logged-in user or agent. The agent is null for regular users.
+     */
+    private record Session(String username, Agent agent) {
+    }
+
+    private static class LoginRequest {
+        String username;
+        String password;
+    }
+
+    private static class CreateRequest {
+        String description;
+        Integer priority;
+    }
+
+    /**
+     * A ticket as sent to clients. Dates are sent as ISO-8601 text.
+     */
+    private static class TicketView {
+        final String id;
+        final String description;
+        final int priority;
+        final String created;
+        final String reporter;
+        final String agent;
+        final String status;
+        final String closed;
+
+        TicketView(Ticket t) {
+            id = t.getTicketId();
+            description = t.getIssueDescription();
+            priority = t.getPriorityLevel();
+            created = String.valueOf(t.getCreationDate());
+            reporter = t.getReportingUsername();
+            agent = t.getAllocatedAgentId();
+            status = t.getStatus();
+            closed = t.getClosedDate() == null ? null : t.getClosedDate().toString();
+        }
+    }
+
+    private record LoginResponse(String token, String role) {
+    }
+
+    private record TicketList(TicketView[] tickets, String nextPage) {
+    }
+
+    private record ErrorResponse(String error) {
+    }
+
+    /**
+     * Ends a request with an error status and message.
+     */
+    private static class HttpError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private final HttpServer server;
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Creates a server on the given port. The data must already be loaded.
+     *
+     * @param port the port to listen on, or 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    TicketServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/login", handler(this::login));
+        server.createContext("/logout", handler(this::logout));
+        server.createContext("/tickets", handler(this::tickets));
+    }
+
+    /**
+     * Loads the data and serves requests until the process is stopped.
+     *
+     * @param args an optional port number
+     * @throws IOException if the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : Integer.getInteger("tickets.port", DEFAULT_PORT);
+        MainMenu.loadData();
+        MainMenu.startSlaClock();
+        TicketServer service = new TicketServer(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            service.stop();
+            MainMenu.saveData();
+            Console.flush();
+        }));
+        service.start();
+        Console.out.println("🌐 Serving tickets on port " + service.getPort());
+        Console.flush();
+    }
+
+    void start() {
+        server.start();
+    }
+
+    void stop() {
+        server.stop(1);
+    }
+
+    int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void login(HttpExchange exchange) throws IOException {
+        requireMethod(exchange, "POST");
+        LoginRequest request = readJson(exchange, LoginRequest.class);
+        if (request.username == null || request.password == null) {
+            throw new HttpError(400, "username and password are required.");
+        }
+
+        Session session = null;
+        Agent agent = MainMenu.findAgent(request.username);
+        if (agent != null) {
+            if (agent.getPassword().equals(request.password)) {
+                session = new Session(request.username, agent);
+                TicketActions.signIn(agent, request.username);
+            }
+        } else {
+            User user = MainMenu.findUser(request.username);
+            if (user != null && user.getPassword().equals(request.password)) {
+                session = new Session(request.username, null);
+            }
+        }
+        if (session == null) {
+            throw new HttpError(401, "Login failed.");
+        }
+
+        byte[] bytes = new byte[24];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, session);
+        send(exchange, 200, new LoginResponse(token, session.agent() == null ? "user" : "agent"));
+    }
+
+    private void logout(HttpExchange exchange) throws IOException {
+        requireMethod(exchange, "POST");
+        Session session = session(exchange);
+        sessions.remove(bearerToken(exchange));
+        if (session.agent() != null && !sessions.containsValue(session)) {
+            // The agent's last session ended
+            TicketActions.signOut(session.username());
+        }
+        send(exchange, 204, null);
+    }
+
+    /**
+     * Routes everything under /tickets.
+     */
+    private void tickets(HttpExchange exchange) throws IOException {
+        Session session = session(exchange);
+        String rest = exchange.getRequestURI().getPath().substring("/tickets".length());
+        if (!rest.isEmpty() && !rest.startsWith("/")) {
+            throw new HttpError(404, "No such endpoint.");
+        }
+        String[] path = rest.length() <= 1 ? new String[0] : rest.substring(1).split("/");
+
+        if (path.length == 0) {
+            if (exchange.getRequestMethod().equals("GET")) {
+                listTickets(exchange, session);
+            } else {
+                requireMethod(exchange, "POST");
+                createTicket(exchange, session);
+            }
+        } else if (path.length == 1 && path[0].equals("assign")) {
+            requireMethod(exchange, "POST");
+            autoAssign(exchange, session);
+        } else if (path.length == 1) {
+            requireMethod(exchange, "GET");
+            getTicket(exchange, session, path[0]);
+        } else if (path.length == 2 && path[1].equals("close")) {
+            requireMethod(exchange, "POST");
+            closeTicket(exchange, session, path[0]);
+        } else {
+            throw new HttpError(404, "No such endpoint.");
+        }
+    }
+
+    private void listTickets(HttpExchange exchange, Session session) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        String token = queryParam(query, "page");
+        String size = queryParam(query, "size");
+        int pageSize;
+        try {
+            pageSize = size == null ? TicketPager.PAGE_SIZE : Math.min(Integer.parseInt(size), MAX_PAGE_SIZE);
+        } catch (NumberFormatException e) {
+            throw new HttpError(400, "size must be a number.");
+        }
+
+        Page<Ticket> page;
+        try {
+            if (session.agent() == null) {
+                page = MainMenu.getTickets().pageByReporter(session.username(), pageSize, token);
+            } else {
+                synchronized (session.agent()) {
+                    page = session.agent().getOpenTickets().page(pageSize, token);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            throw new HttpError(400, e.getMessage());
+        }
+        send(exchange, 200, new TicketList(views(page.getItems()), page.getNextToken()));
+    }
+
+    private void createTicket(HttpExchange exchange, Session session) throws IOException {
+        if (session.agent() != null) {
+            throw new HttpError(403, "Only users can create tickets.");
+        }
+        CreateRequest request = readJson(exchange, CreateRequest.class);
+        if (request.description == null || request.description.isBlank() || request.priority == null) {
+            throw new HttpError(400, "description and priority are required.");
+        }
+        try {
+            Ticket t = TicketActions.createTicket(session.username(), request.description, request.priority);
+            send(exchange, 201, new TicketView(t));
+        } catch (IllegalArgumentException e) {
+            throw new HttpError(400, e.getMessage());
+        }
+    }
+
+    private void getTicket(HttpExchange exchange, Session session, String ticketId) throws IOException {
+        Ticket t = TicketActions.find(ticketId);
+        boolean visible = t != null && (session.agent() == null
+                ? session.username().equals(t.getReportingUsername())
+                : session.username().equals(t.getAllocatedAgentId()));
+        if (!visible) {
+            throw new HttpError(404, "Ticket not found or does not belong to you.");
+        }
+        send(exchange, 200, new TicketView(t));
+    }
+
+    private void autoAssign(HttpExchange exchange, Session session) throws IOException {
+        Agent agent = requireAgent(session);
+        Ticket t = TicketActions.autoAssign(agent, session.username());
+        if (t == null) {
+            send(exchange, 204, null);
+        } else {
+            send(exchange, 200, new TicketView(t));
+        }
+    }
+
+    private void closeTicket(HttpExchange exchange, Session session, String ticketId) throws IOException {
+        Agent agent = requireAgent(session);
+        Ticket t = TicketActions.close(agent, ticketId);
+        if (t == null) {
+            throw new HttpError(404, "Ticket not found in your assigned open tickets.");
+        }
+        send(exchange, 200, new TicketView(t));
+    }
+
+    private static TicketView[] views(DynamicArray<Ticket> tickets) {
+        TicketView[] views = new TicketView[tickets.size()];
+        for (int i = 0; i < views.length; i++) {
+            views[i] = new TicketView(tickets.get(i));
+        }
+        return views;
+    }
+
+    private Session session(HttpExchange exchange) {
+        String token = bearerToken(exchange);
+        Session session = token == null ? null : sessions.get(token);
+        if (session == null) {
+            throw new HttpError(401, "Log in first.");
+        }
+        return session;
+    }
+
+    private static String bearerToken(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        return header != null && header.startsWith("Bearer ") ? header.substring(7).trim() : null;
+    }
+
+    private static Agent requireAgent(Session session) {
+        if (session.agent() == null) {
+            throw new HttpError(403, "Only agents can do this.");
+        }
+        return session.agent();
+    }
+
+    private static void requireMethod(HttpExchange exchange, String method) {
+        if (!exchange.getRequestMethod().equals(method)) {
+            throw new HttpError(405, "Use " + method + ".");
+        }
+    }
+
+    private static <T> T readJson(HttpExchange exchange, Class<T> type) throws IOException {
+        try (Reader in = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+            T value = gson.fromJson(in, type);
+            if (value == null) {
+                throw new HttpError(400, "Expected a JSON object.");
+            }
+            return value;
+        } catch (JsonParseException e) {
+            throw new HttpError(400, "Malformed JSON.");
+        }
+    }
+
+    private static String queryParam(String query, String name) {
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                return URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static void send(HttpExchange exchange, int status, Object body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] json = gson.toJson(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, json.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(json);
+        }
+    }
+
+    /**
+     * An endpoint body that may fail with an {@link HttpError}.
+     */
+    private interface Endpoint {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    /**
+     * Wraps an endpoint so errors are sent to the client as JSON and the
+     * exchange is always closed.
+     */
+    private static HttpHandler handler(Endpoint endpoint) {
+        return exchange -> {
+            try {
+                endpoint.handle(exchange);
+            } catch (HttpError e) {
+                send(exchange, e.status, new ErrorResponse(e.getMessage()));
+            } catch (RuntimeException e) {
+                Logger.getLogger(TicketServer.class.getName()).log(Level.SEVERE, null, e);
+                send(exchange, 500, new ErrorResponse("Internal error."));
+            } finally {
+                exchange.close();
+            }
+        };
+    }
+}
@@ -1,11 +1,7 @@
 package CLI;
 
 import entities.Ticket;
-import util.DynamicArray;
-
-import java.time.LocalDateTime;
-import java.util.Scanner;
-import java.util.UUID;
+import util.TicketStore;
 
 /**
  * Provides the user interface for regular users in the Ticket Support System.
@@ -13,8 +9,6 @@ import java.util.UUID;
  */
 public class UserMenu {
 
-    private static final Scanner keyboard = new Scanner(System.in);
-
     /**
      * Displays the main menu for regular users and handles their interactions.
      *
@@ -22,13 +16,12 @@ public class UserMenu {
      */
     public static void show(String username) {
         while (true) {
-            System.out.println("\n👤 Welcome, " + username + " (User)");
-            System.out.println("1. Create a ticket");
-            System.out.println("2. View my tickets");
-            System.out.println("3. View ticket details by ID");
-            System.out.println("0. Logout");
-            System.out.print("Select an option: ");
-            String option = keyboard.nextLine();
+            Console.out.println("\n👤 Welcome, " + username + " (User)");
+            Console.out.println("1. Create a ticket");
+            Console.out.println("2. View my tickets");
+            Console.out.println("3. View ticket details by ID");
+            Console.out.println("0. Logout");
+            String option = Console.prompt("Select an option: ");
 
             switch (option) {
                 case "1":
@@ -43,7 +36,7 @@ public class UserMenu {
                 case "0":
                     return;
                 default:
-                    System.out.println("Invalid option. Try again.");
+                    Console.out.println("Invalid option. Try again.");
             }
         }
     }
@@ -55,47 +48,41 @@ public class UserMenu {
      * @param username the username of the ticket creator
      */
     private static void createTicket(String username) {
-        System.out.print("Enter a short description of your issue: ");
-        String description = keyboard.nextLine();
+        String description = Console.prompt("Enter a short description of your issue: ");
 
         int priority = 0;
         while (priority < 1 || priority > 5) {
-            System.out.print("Enter priority (1–5): ");
             try {
-                priority = Integer.parseInt(keyboard.nextLine());
+                priority = Integer.parseInt(Console.prompt("Enter priority (1–5): "));
             } catch (NumberFormatException e) {
-                System.out.println("Please enter a number between 1 and 5.");
+                Console.out.println("Please enter a number between 1 and 5.");
             }
         }
 
-        String id = UUID.randomUUID().toString();
-        Ticket t = new Ticket(id, description, priority, LocalDateTime.now(), username, null, "Pending");
-
-        MainMenu.getTickets().add(t); // Add to the global tickets list
-        System.out.println("✅ Ticket created successfully. ID: " + id);
+        try {
+            Ticket t = TicketActions.createTicket(username, description, priority);
+            Console.out.println("✅ Ticket created successfully. ID: " + t.getTicketId());
+        } catch (IllegalArgumentException e) {
+            Console.out.println("❌ " + e.getMessage());
+        }
     }
 
     /**
-     * Displays all tickets created by the user.
+     * Displays the tickets created by the user, a page at a time.
      * Shows ticket ID, description, priority, and status.
      *
      * @param username the username of the user whose tickets to display
      */
     private static void viewMyTickets(String username) {
-        DynamicArray<Ticket> allTickets = MainMenu.getTickets();
-        boolean found = false;
+        TicketStore store = MainMenu.getTickets();
 
-        System.out.println("\n📋 Your Tickets:");
-        for (int i = 0; i < allTickets.size(); i++) {
-            Ticket t = allTickets.get(i);
-            if (t.getReportingUsername().equals(username)) {
-                System.out.println("- [" + t.getTicketId() + "] " + t.getIssueDescription() + " (Priority: " + t.getPriorityLevel() + ", Status: " + t.getStatus() + ")");
-                found = true;
-            }
-        }
+        Console.out.println("\n📋 Your Tickets:");
+        int shown = TicketPager.show((size, token) -> store.pageByReporter(username, size, token), t -> Console.row()
+                .append("- [").append(t.getTicketId()).append("] ").append(t.getIssueDescription())
+                .append(" (Priority: ").append(t.getPriorityLevel()).append(", Status: ").append(t.getStatus()).append(')'));
 
-        if (!found) {
-            System.out.println("You have not submitted any tickets yet.");
+        if (shown == 0) {
+            Console.out.println("You have not submitted any tickets yet.");
         }
     }
 
@@ -106,25 +93,23 @@ public class UserMenu {
      * @param username the username of the user requesting ticket details
      */
     private static void viewTicketById(String username) {
-        System.out.print("Enter ticket ID: ");
-        String ticketId = keyboard.nextLine();
-
-        DynamicArray<Ticket> allTickets = MainMenu.getTickets();
-
-        for (int i = 0; i < allTickets.size(); i++) {
-            Ticket t = allTickets.get(i);
-            if (t.getTicketId().equals(ticketId) && t.getReportingUsername().equals(username)) {
-                System.out.println("\n🔍 Ticket Details:");
-                System.out.println("ID: " + t.getTicketId());
-                System.out.println("Description: " + t.getIssueDescription());
-                System.out.println("Priority: " + t.getPriorityLevel());
-                System.out.println("Created: " + t.getCreationDate());
-                System.out.println("Status: " + t.getStatus());
-                System.out.println("Assigned Agent: " + (t.getAllocatedAgentId() == null ? "Unassigned" : t.getAllocatedAgentId()));
-                return;
+        String ticketId = Console.prompt("Enter ticket ID: ");
+
+        Ticket t = TicketActions.find(ticketId);
+        if (t != null && t.getReportingUsername().equals(username)) {
+            Console.out.println("\n🔍 Ticket Details:");
+            Console.out.println("ID: " + t.getTicketId());
+            Console.out.println("Description: " + t.getIssueDescription());
+            Console.out.println("Priority: " + t.getPriorityLevel());
+            Console.out.println("Created: " + t.getCreationDate());
+            Console.out.println("Status: " + t.getStatus());
+            if (t.getClosedDate() != null) {
+                Console.out.println("Closed: " + t.getClosedDate());
             }
+            Console.out.println("Assigned Agent: " + (t.getAllocatedAgentId() == null ? "Unassigned" : t.getAllocatedAgentId()));
+            return;
         }
 
-        System.out.println("Ticket not found or does not belong to you.");
+        Console.out.println("Ticket not found or does not belong to you.");
     }
 }
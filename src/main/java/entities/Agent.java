@@ -1,7 +1,8 @@
 package entities;
 
+import util.AgentWorkQueue;
 import util.DynamicArray;
-import util.PriorityQueue;
+import util.LinkedTicketSet;
 import java.util.Objects;
 
 /**
@@ -14,10 +15,8 @@ public class Agent extends User {
 
 
 
-    // PriorityQueue for managing assigned tickets by priority
-    private PriorityQueue assignedTickets = new PriorityQueue();
-    private DynamicArray<Ticket> openTickets = new DynamicArray<>();
-    private DynamicArray<Ticket> closedTickets = new DynamicArray<>();
+    // Open tickets by priority and assignment order, plus recently closed ones
+    private final AgentWorkQueue workQueue = new AgentWorkQueue();
 
     /**
      * Constructs a new enities.Agent with the given user credentials and agent-specific details.
@@ -52,64 +51,59 @@ public class Agent extends User {
     }
 
     /**
-     * Returns the priority queue of tickets assigned to this agent.
+     * Returns the work queue holding this agent's open and recently closed tickets.
      *
-     * @return the agent's assigned ticket queue.
+     * @return the agent's work queue.
      */
-    public PriorityQueue getAssignedTickets() {
-        return assignedTickets;
+    public AgentWorkQueue getWorkQueue() {
+        return workQueue;
     }
     /**
-     * Returns the array of opened tickets assigned to this agent.
+     * Returns the opened tickets assigned to this agent, indexed by ticket id
+     * and kept in the order they were assigned.
      *
      * @return the agent's opened tickets.
      */
-    public DynamicArray<Ticket> getOpenTickets() {
-        return openTickets;
+    public LinkedTicketSet getOpenTickets() {
+        return workQueue.getOpenTickets();
     }
     /**
-     * Returns the array of closed tickets assigned to this agent.
+     * Returns the tickets this agent closed most recently, oldest first.
+     * Only the last {@link AgentWorkQueue#DEFAULT_ARCHIVE_SIZE} are kept.
      *
      * @return the agent's closed tickets.
      */
     public DynamicArray<Ticket> getClosedTickets() {
-        return closedTickets;
+        return workQueue.getClosedTickets();
     }
 
     /**
-     * Adds a ticket to the agent's priority queue.
+     * Adds a ticket to the agent's open tickets.
      *
      * @param ticket the ticket to add
      */
     public void addTicket(Ticket ticket) {
-
-        assignedTickets.add(ticket);
-        openTickets.add(ticket);
+        workQueue.assign(ticket);
     }
 
     /**
+     * Takes the ticket out of the open tickets and archives it. The status
+     * is set to closed through the ticket store, not here.
+     *
      * @param ticket   The ticket to be closed
      */
     public void closeTicket(Ticket ticket) {
-        // Remove from openTickets
-        for (int i = 0; i < openTickets.size(); i++) {
-            if (openTickets.get(i).equals(ticket)) {
-                openTickets.removeAt(i);
-                break;
-            }
-        }
-        // Add to closedTickets
-        ticket.setStatus("Closed");
-        closedTickets.add(ticket);
+        workQueue.close(ticket.getTicketId());
     }
 
     /**
-     * Removes and returns the highest-priority ticket from the queue.
+     * Removes and returns the highest-priority ticket from the queue. The
+     * ticket stays among the open tickets until it is closed.
      *
-     * @return the ticket with the highest priority
+     * @return the ticket with the highest priority, or null if none are waiting
      */
     public Ticket handleNextTicket() {
-        return (Ticket) assignedTickets.remove();
+        return workQueue.pollNext();
     }
 
     /**
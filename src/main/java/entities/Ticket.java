@@ -1,5 +1,7 @@
 package entities;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
@@ -14,8 +16,21 @@ public class Ticket implements Comparable<Ticket> {
     private int priorityLevel; // 1 (lowest) to 5 (highest)
     private LocalDateTime creationDate;
     private String reportingUsername;
-    private String allocatedAgentId;
-    private String status; // e.g., Pending, In Progress, Solved, Stalled
+    private volatile String allocatedAgentId;
+    private volatile TicketStatus status;
+    private LocalDateTime closedDate; // null while the ticket is not closed
+    private int missedDeadlines; // bit set of SLA deadlines already escalated
+
+    private static final VarHandle ALLOCATED_AGENT_ID;
+
+    static {
+        try {
+            ALLOCATED_AGENT_ID = MethodHandles.lookup()
+                    .findVarHandle(Ticket.class, "allocatedAgentId", String.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
 
     /**
      * Constructs a new Ticket using setter methods for validation and consistency.
@@ -27,7 +42,8 @@ public class Ticket implements Comparable<Ticket> {
      * @param reportingUsername  The username of the reporting user.
      * @param allocatedAgentId   The ID of the agent assigned to the ticket (can be null).
      * @param status             The current status of the ticket.
-     * @throws IllegalArgumentException if required fields are null or priority is out of range.
+     * @throws IllegalArgumentException if required fields are null, priority is out of range, status is unknown
+     *                                  or the description contains a line break or "%%".
      */
     public Ticket(String ticketId, String issueDescription, int priorityLevel,
                   LocalDateTime creationDate, String reportingUsername,
@@ -46,6 +62,20 @@ public class Ticket implements Comparable<Ticket> {
         setStatus(status);
     }
 
+    /**
+     * Copies the ticket's current field values into a new, unstored ticket,
+     * e.g. so a snapshot is not changed by later updates.
+     *
+     * @return a copy of this ticket
+     */
+    public Ticket copy() {
+        Ticket copy = new Ticket(ticketId, issueDescription, priorityLevel, creationDate,
+                reportingUsername, allocatedAgentId, status.getLabel());
+        copy.closedDate = closedDate;
+        copy.missedDeadlines = missedDeadlines;
+        return copy;
+    }
+
 
 
 
@@ -92,9 +122,40 @@ public class Ticket implements Comparable<Ticket> {
     }
 
     /**
-     * @return Gets the status of the ticket
+     * @return Gets the date the ticket was closed, or null if it is not closed
+     */
+    public LocalDateTime getClosedDate() {
+        return closedDate;
+    }
+
+    /**
+     * @return The SLA deadlines this ticket has missed and been escalated
+     *         for, as a bit set of {@link util.SlaScheduler.Kind#deadlineBit()}
+     */
+    public int getMissedDeadlines() {
+        return missedDeadlines;
+    }
+
+    /**
+     * Records which SLA deadlines this ticket has missed and been escalated for.
+     *
+     * @param missedDeadlines A bit set of {@link util.SlaScheduler.Kind#deadlineBit()}.
+     */
+    public void setMissedDeadlines(int missedDeadlines) {
+        this.missedDeadlines = missedDeadlines;
+    }
+
+    /**
+     * @return Gets the status of the ticket as its text label
      */
     public String getStatus() {
+        return status.getLabel();
+    }
+
+    /**
+     * @return Gets the status of the ticket
+     */
+    public TicketStatus getTicketStatus() {
         return status;
     }
     /**
@@ -108,10 +169,17 @@ public class Ticket implements Comparable<Ticket> {
 
     /**
      * Sets the description of the issue reported in the ticket.
+     * Tickets are saved one per line with "%%" between fields, so the
+     * description cannot contain a line break or "%%".
      *
      * @param issueDescription The issue description to set.
+     * @throws IllegalArgumentException if the description contains a line break or "%%".
      */
     public void setIssueDescription(String issueDescription) {
+        if (issueDescription.indexOf('\n') >= 0 || issueDescription.indexOf('\r') >= 0
+                || issueDescription.contains("%%")) {
+            throw new IllegalArgumentException("Description cannot contain line breaks or \"%%\".");
+        }
         this.issueDescription = issueDescription;
     }
 
@@ -138,6 +206,15 @@ public class Ticket implements Comparable<Ticket> {
         this.creationDate = creationDate;
     }
 
+    /**
+     * Sets the date the ticket was closed.
+     *
+     * @param closedDate The LocalDateTime the ticket was closed, or null if it is open.
+     */
+    public void setClosedDate(LocalDateTime closedDate) {
+        this.closedDate = closedDate;
+    }
+
     /**
      * Sets the username of the user who reported the ticket.
      *
@@ -156,22 +233,53 @@ public class Ticket implements Comparable<Ticket> {
         this.allocatedAgentId = allocatedAgentId;
     }
 
+    /**
+     * Atomically assigns the ticket to an agent if no agent holds it yet.
+     * When several agents race for the same ticket exactly one succeeds.
+     *
+     * @param agentId The ID of the agent claiming the ticket.
+     * @return true if this call assigned the ticket, false if it was already taken.
+     */
+    public boolean claim(String agentId) {
+        while (true) {
+            String current = allocatedAgentId;
+            if (current != null && !current.isEmpty()) {
+                return false;
+            }
+            if (ALLOCATED_AGENT_ID.compareAndSet(this, current, agentId)) {
+                return true;
+            }
+        }
+    }
+
 
     /**
-     * @param status Takes in the status of the ticket
+     * @param status Takes in the status of the ticket as text, e.g. "Pending"
+     * @throws IllegalArgumentException if status is not a known ticket status.
      */
     public void setStatus(String status) {
+        if (status != null) {
+            this.status = TicketStatus.parse(status);
+        }
+    }
+
+    /**
+     * @param status Takes in the status of the ticket
+     */
+    public void setStatus(TicketStatus status) {
         if (status != null) {
             this.status = status;
         }
     }
 
     /**
-     * Compares two tickets first by priority (descending),
-     * then by creation date (ascending) if priority is equal.
+     * Compares two tickets by urgency: first by priority, then, if the
+     * priority is equal, by creation date, so the ticket that has waited
+     * longer ranks higher. Queues that should let waiting time outweigh
+     * priority use a {@link util.AgingPolicy} instead.
      *
      * @param other The ticket to compare to.
-     * @return A negative integer, zero, or a positive integer depending on order.
+     * @return A positive integer if this ticket is more urgent, negative if less, zero if equal.
      */
     @Override
     public int compareTo(Ticket other) {
@@ -180,8 +288,8 @@ public class Ticket implements Comparable<Ticket> {
         if (priorityComparison != 0) {
             return priorityComparison;
         }
-        // If priorities are the same, compare by creation time (earlier first)
-        return this.creationDate.compareTo(other.creationDate);
+        // If priorities are the same, the earlier ticket is more urgent
+        return other.creationDate.compareTo(this.creationDate);
     }
 
 
@@ -0,0 +1,64 @@
+package entities;
+
+/**
+ * The states a ticket moves through, from being reported to being closed.
+ * Each status keeps the text used for it in the data files and menus.
+ */
+public enum TicketStatus {
+    PENDING("Pending"),
+    IN_PROGRESS("In progress"),
+    SOLVED("Solved"),
+    STALLED("Stalled"),
+    CLOSED("Closed");
+
+    private static final TicketStatus[] VALUES = values();
+
+    private final String label;
+
+    TicketStatus(String label) {
+        this.label = label;
+    }
+
+    /**
+     * @return The text used for this status in files and menus
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Parses a status from its text. Case, surrounding whitespace and the
+     * separator between words are ignored, so "In progress", "IN_PROGRESS"
+     * and "in-progress" all parse to {@link #IN_PROGRESS}.
+     *
+     * @param text The status text.
+     * @return The matching status.
+     * @throws IllegalArgumentException if text is null or not a known status.
+     */
+    public static TicketStatus parse(String text) {
+        if (text == null) {
+            throw new IllegalArgumentException("Status cannot be null.");
+        }
+        // The stored labels are the common case, so try them before normalising
+        for (TicketStatus status : VALUES) {
+            if (status.label.equals(text)) {
+                return status;
+            }
+        }
+        String key = text.trim().replace(' ', '_').replace('-', '_');
+        for (TicketStatus status : VALUES) {
+            if (status.name().equalsIgnoreCase(key)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown ticket status: " + text);
+    }
+
+    /**
+     * @return The status label
+     */
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,243 @@
+package util;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Keeps the number of open tickets held by each available agent and picks
+ * which agent the next ticket should go to. Loads are counted up and down as
+ * tickets are assigned and closed, never recounted. Agents sit in a min-heap
+ * ordered by load, so the least-loaded agent is always at the top and every
+ * load change costs O(log n).
+ *
+ * Agents are never given more than a set number of open tickets by
+ * {@link #reserve()}.
+ */
+public class AgentBalancer {
+
+    /**
+     * How an agent is picked.
+     */
+    public enum Policy {
+        /** Always the agent with the fewest open tickets. */
+        LEAST_LOADED,
+        /** The less loaded of two agents picked at random. */
+        POWER_OF_TWO_CHOICES;
+
+        /**
+         * Parses a policy name such as "least-loaded" or "power-of-two-choices".
+         *
+         * @param name the policy name, in any case, with dashes or underscores
+         * @return the policy
+         * @throws IllegalArgumentException if the name is not a policy
+         */
+        public static Policy parse(String name) {
+            return valueOf(name.trim().toUpperCase().replace('-', '_'));
+        }
+    }
+
+    private final Policy policy;
+    private final int capacity;
+    private final Random random;
+    private final HashMap<String, Integer> slots = new HashMap<>();
+    private String[] ids = new String[8];
+    private int[] loads = new int[8];
+    private int[] heap = new int[8]; // slots, least loaded first
+    private int[] position = new int[8]; // slot -> index in heap
+    private int size;
+
+    /**
+     * Creates a balancer with no agents.
+     *
+     * @param policy how agents are picked
+     * @param capacity the most open tickets reserve() gives one agent
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public AgentBalancer(Policy policy, int capacity) {
+        this(policy, capacity, new Random());
+    }
+
+    AgentBalancer(Policy policy, int capacity, Random random) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive.");
+        this.policy = policy;
+        this.capacity = capacity;
+        this.random = random;
+    }
+
+    /**
+     * Makes an agent available for tickets, or updates the load of one that
+     * already is.
+     *
+     * @param agentId the agent
+     * @param load the number of open tickets the agent holds now
+     */
+    public synchronized void register(String agentId, int load) {
+        Integer slot = slots.get(agentId);
+        if (slot != null) {
+            setLoad(slot, load);
+            return;
+        }
+        if (size == ids.length) {
+            grow();
+        }
+        ids[size] = agentId;
+        loads[size] = load;
+        heap[size] = size;
+        position[size] = size;
+        slots.put(agentId, size);
+        size++;
+        siftUp(size - 1);
+    }
+
+    /**
+     * Stops giving tickets to an agent.
+     *
+     * @param agentId the agent
+     * @return false if the agent was not available
+     */
+    public synchronized boolean unregister(String agentId) {
+        Integer removed = slots.remove(agentId);
+        if (removed == null) {
+            return false;
+        }
+        int slot = removed;
+        int last = size - 1;
+        // Take the slot out of the heap
+        int index = position[slot];
+        swap(index, last);
+        size--;
+        if (index < size) {
+            siftDown(index);
+            siftUp(index);
+        }
+        // Move the last slot into the freed one so slots stay packed
+        if (slot != last) {
+            ids[slot] = ids[last];
+            loads[slot] = loads[last];
+            position[slot] = position[last];
+            heap[position[slot]] = slot;
+            slots.put(ids[slot], slot);
+        }
+        ids[last] = null;
+        return true;
+    }
+
+    /**
+     * Picks an agent for the next ticket and counts the ticket against it.
+     * If no ticket is handed over after all, call {@link #decrement(String)}.
+     *
+     * @return the chosen agent, or null if every agent is at capacity or none is available
+     */
+    public synchronized String reserve() {
+        if (size == 0 || loads[heap[0]] >= capacity) {
+            return null;
+        }
+        int slot = heap[0];
+        if (policy == Policy.POWER_OF_TWO_CHOICES && size > 1) {
+            int a = random.nextInt(size);
+            int b = random.nextInt(size - 1);
+            if (b >= a) b++;
+            int pick = loads[a] <= loads[b] ? a : b;
+            // Both samples may be full while someone else is not
+            if (loads[pick] < capacity) {
+                slot = pick;
+            }
+        }
+        setLoad(slot, loads[slot] + 1);
+        return ids[slot];
+    }
+
+    /**
+     * Counts one more open ticket against an agent.
+     *
+     * @param agentId the agent
+     */
+    public synchronized void increment(String agentId) {
+        Integer slot = slots.get(agentId);
+        if (slot != null) {
+            setLoad(slot, loads[slot] + 1);
+        }
+    }
+
+    /**
+     * Counts one fewer open ticket against an agent.
+     *
+     * @param agentId the agent
+     */
+    public synchronized void decrement(String agentId) {
+        Integer slot = slots.get(agentId);
+        if (slot != null && loads[slot] > 0) {
+            setLoad(slot, loads[slot] - 1);
+        }
+    }
+
+    /**
+     * Returns the number of open tickets counted against an agent.
+     *
+     * @param agentId the agent
+     * @return the agent's load, or -1 if the agent is not available
+     */
+    public synchronized int load(String agentId) {
+        Integer slot = slots.get(agentId);
+        return slot == null ? -1 : loads[slot];
+    }
+
+    /**
+     * Returns the number of available agents.
+     *
+     * @return the number of registered agents
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private void setLoad(int slot, int load) {
+        int old = loads[slot];
+        loads[slot] = load;
+        if (load < old) {
+            siftUp(position[slot]);
+        } else if (load > old) {
+            siftDown(position[slot]);
+        }
+    }
+
+    private boolean less(int i, int j) {
+        return loads[heap[i]] < loads[heap[j]];
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!less(i, parent)) break;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) break;
+            int child = left + 1 < size && less(left + 1, left) ? left + 1 : left;
+            if (!less(child, i)) break;
+            swap(i, child);
+            i = child;
+        }
+    }
+
+    private void swap(int i, int j) {
+        int a = heap[i];
+        heap[i] = heap[j];
+        heap[j] = a;
+        position[heap[i]] = i;
+        position[heap[j]] = j;
+    }
+
+    private void grow() {
+        int length = ids.length * 2;
+        ids = Arrays.copyOf(ids, length);
+        loads = Arrays.copyOf(loads, length);
+        heap = Arrays.copyOf(heap, length);
+        position = Arrays.copyOf(position, length);
+    }
+}
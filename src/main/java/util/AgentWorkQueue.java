@@ -0,0 +1,205 @@
+package util;
+
+import entities.Ticket;
+
+/**
+ * The tickets one agent is working on, kept in a single structure so the
+ * open and closed views can never disagree. Open tickets sit both in a
+ * {@link BucketQueue}, for picking the next ticket to work on, and in an
+ * id-indexed set in assignment order, for display and lookup. Closing a
+ * ticket takes it out of both in O(1) and moves it to a bounded archive of
+ * recently closed tickets, which evicts the oldest entry once it is full.
+ *
+ * The next ticket is the oldest assignment of the highest priority. Waiting
+ * time is already weighed when tickets are dispatched, and a ticket that
+ * misses its SLA is raised a priority level, so the agent's own queue does
+ * not age tickets itself.
+ */
+public class AgentWorkQueue {
+
+    public static final int DEFAULT_ARCHIVE_SIZE = 256;
+
+    private final BucketQueue byPriority;
+    private final LinkedTicketSet open;
+    private final Ticket[] archive; // ring buffer of closed tickets
+    private int archiveStart;
+    private int archiveSize;
+    private long evicted;
+
+    /**
+     * Creates an empty work queue that remembers the default number of
+     * closed tickets.
+     */
+    public AgentWorkQueue() {
+        this(DEFAULT_ARCHIVE_SIZE);
+    }
+
+    /**
+     * Creates an empty work queue.
+     *
+     * @param archiveSize the number of closed tickets to remember
+     * @throws IllegalArgumentException if the archive size is negative
+     */
+    public AgentWorkQueue(int archiveSize) {
+        if (archiveSize < 0) throw new IllegalArgumentException("Archive size cannot be negative.");
+        byPriority = new BucketQueue();
+        open = new LinkedTicketSet();
+        archive = new Ticket[archiveSize];
+    }
+
+    /**
+     * Adds a ticket to the open tickets.
+     *
+     * @param ticket the ticket assigned to the agent
+     * @return false if the ticket is already open
+     */
+    public boolean assign(Ticket ticket) {
+        if (!open.add(ticket)) {
+            return false;
+        }
+        byPriority.add(ticket);
+        return true;
+    }
+
+    /**
+     * Moves a closed ticket out of the open tickets and into the archive.
+     * The ticket's status is left alone: it is changed through
+     * {@link TicketStore#setStatus} so the store's indexes stay in step.
+     *
+     * @param ticketId the id of the ticket to close
+     * @return the closed ticket, or null if no open ticket has that id
+     */
+    public Ticket close(String ticketId) {
+        Ticket ticket = remove(ticketId);
+        if (ticket != null) {
+            archive(ticket);
+        }
+        return ticket;
+    }
+
+    /**
+     * Removes an open ticket without closing it, e.g. when it is handed to
+     * another agent.
+     *
+     * @param ticketId the id of the ticket to remove
+     * @return the removed ticket, or null if no open ticket has that id
+     */
+    public Ticket remove(String ticketId) {
+        Ticket ticket = open.remove(ticketId);
+        if (ticket != null) {
+            byPriority.remove(ticketId);
+        }
+        return ticket;
+    }
+
+    /**
+     * Changes the priority of an open ticket and moves it to the back of its
+     * new priority level.
+     *
+     * @param ticketId the id of the ticket to re-prioritise
+     * @param priorityLevel the new priority (1 to 5)
+     * @return false if no open ticket has that id
+     * @throws IllegalArgumentException if the priority is out of range
+     */
+    public boolean updatePriority(String ticketId, int priorityLevel) {
+        return byPriority.updatePriority(ticketId, priorityLevel);
+    }
+
+    /**
+     * Returns the open ticket with the given id.
+     *
+     * @param ticketId the ticket id
+     * @return the ticket, or null if no open ticket has that id
+     */
+    public Ticket getOpen(String ticketId) {
+        return open.get(ticketId);
+    }
+
+    /**
+     * Returns the open ticket the agent should work on next. The ticket
+     * stays open until it is closed.
+     *
+     * @return the highest-priority open ticket, or null if there is none
+     */
+    public Ticket peekNext() {
+        return byPriority.peek();
+    }
+
+    /**
+     * Takes the open ticket the agent should work on next off the priority
+     * queue, so it is handed out only once. The ticket stays among the open
+     * tickets until it is closed.
+     *
+     * @return the highest-priority open ticket, or null if there is none
+     */
+    public Ticket pollNext() {
+        return byPriority.remove();
+    }
+
+    /**
+     * Returns the open tickets in the order they were assigned. The set is
+     * the queue's own and must not be modified.
+     *
+     * @return the open tickets
+     */
+    public LinkedTicketSet getOpenTickets() {
+        return open;
+    }
+
+    /**
+     * Returns the number of open tickets.
+     *
+     * @return the number of open tickets
+     */
+    public int openCount() {
+        return open.size();
+    }
+
+    /**
+     * Copies the archived closed tickets, oldest first.
+     *
+     * @return the remembered closed tickets
+     */
+    public DynamicArray<Ticket> getClosedTickets() {
+        DynamicArray<Ticket> result = new DynamicArray<>(archiveSize);
+        for (int i = 0; i < archiveSize; i++) {
+            result.add(archive[(archiveStart + i) % archive.length]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of closed tickets currently in the archive.
+     *
+     * @return the number of archived tickets
+     */
+    public int closedCount() {
+        return archiveSize;
+    }
+
+    /**
+     * Returns the number of closed tickets dropped from the archive to make
+     * room for newer ones.
+     *
+     * @return the number of evicted tickets
+     */
+    public long evictedCount() {
+        return evicted;
+    }
+
+    private void archive(Ticket ticket) {
+        if (archive.length == 0) {
+            evicted++;
+            return;
+        }
+        if (archiveSize == archive.length) {
+            // Full: overwrite the oldest entry
+            archive[archiveStart] = ticket;
+            archiveStart = (archiveStart + 1) % archive.length;
+            evicted++;
+        } else {
+            archive[(archiveStart + archiveSize) % archive.length] = ticket;
+            archiveSize++;
+        }
+    }
+}
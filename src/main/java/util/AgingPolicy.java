@@ -0,0 +1,126 @@
+package util;
+
+import entities.Ticket;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Decides how much waiting time a ticket's priority is worth, so that low
+ * priority tickets cannot starve behind a steady stream of high priority
+ * ones.
+ *
+ * Each priority level gets a head start: a ticket ranks as if it had been
+ * created that much earlier. Tickets are then served earliest "virtual
+ * creation time" first. With a linear policy of four hours per level, a
+ * priority 1 ticket that has waited four hours ranks with a brand new
+ * priority 2 ticket, and one that has waited sixteen hours ranks with a new
+ * priority 5 ticket. A ticket's rank key never changes while it waits, so
+ * queues never have to re-score or re-sort their tickets as time passes:
+ * newer tickets simply arrive with later keys.
+ */
+public final class AgingPolicy {
+
+    /**
+     * Four hours of waiting per priority level.
+     */
+    public static final AgingPolicy DEFAULT = linear(Duration.ofHours(4));
+
+    /**
+     * Strict priority: no amount of waiting overtakes a higher priority.
+     * Tickets of the same priority are served oldest first.
+     */
+    public static final AgingPolicy NONE = new AgingPolicy(new long[]{0, 1L << 58, 2L << 58, 3L << 58, 4L << 58});
+
+    private static final int LEVELS = 5;
+
+    private final long[] headStartMicros; // indexed by priority - 1
+
+    private AgingPolicy(long[] headStartMicros) {
+        this.headStartMicros = headStartMicros;
+    }
+
+    /**
+     * Creates a policy where each priority level is worth the same waiting time.
+     *
+     * @param perLevel the waiting time that equals one priority level
+     * @return the policy
+     * @throws IllegalArgumentException if the time is negative or too long
+     */
+    public static AgingPolicy linear(Duration perLevel) {
+        Duration[] headStarts = new Duration[LEVELS];
+        for (int i = 0; i < LEVELS; i++) {
+            headStarts[i] = perLevel.multipliedBy(i);
+        }
+        return of(headStarts);
+    }
+
+    /**
+     * Creates a policy from the head start of each priority level, so the
+     * curve need not be linear.
+     *
+     * @param headStarts the head starts of priorities 1 to 5, which must not decrease
+     * @return the policy
+     * @throws IllegalArgumentException if there are not five head starts, one is
+     *         negative or too long, or they decrease
+     */
+    public static AgingPolicy of(Duration... headStarts) {
+        if (headStarts.length != LEVELS) {
+            throw new IllegalArgumentException("A head start is needed for each of the " + LEVELS + " priorities.");
+        }
+        long[] micros = new long[LEVELS];
+        for (int i = 0; i < LEVELS; i++) {
+            if (headStarts[i].isNegative() || headStarts[i].compareTo(Duration.ofDays(365L * 1000)) > 0) {
+                throw new IllegalArgumentException("Head starts must be between zero and 1000 years.");
+            }
+            micros[i] = headStarts[i].getSeconds() * 1_000_000 + headStarts[i].getNano() / 1000;
+            if (i > 0 && micros[i] < micros[i - 1]) {
+                throw new IllegalArgumentException("A higher priority cannot have a smaller head start.");
+            }
+        }
+        return new AgingPolicy(micros);
+    }
+
+    /**
+     * Returns the rank key of a ticket: its creation time, in microseconds
+     * since the epoch, minus the head start of its priority. Smaller keys are
+     * served first.
+     *
+     * @param priority the priority level, 1 to 5
+     * @param createdMicros the creation time in microseconds since the epoch
+     * @return the rank key
+     */
+    public long rank(int priority, long createdMicros) {
+        return createdMicros - headStartMicros[priority - 1];
+    }
+
+    /**
+     * Returns the rank key of a ticket. Smaller keys are served first.
+     *
+     * @param ticket the ticket
+     * @return the rank key
+     */
+    public long rank(Ticket ticket) {
+        return rank(ticket.getPriorityLevel(), TicketSnapshotWriter.toEpochMicros(ticket.getCreationDate()));
+    }
+
+    /**
+     * Returns the priority level a ticket has aged into by the given time:
+     * the highest level whose head start its waiting time has covered,
+     * starting from its own. For display only; queues use {@link #rank}.
+     *
+     * @param ticket the ticket
+     * @param now the time to measure waiting up to
+     * @return the effective priority, 1 to 5
+     */
+    public int effectivePriority(Ticket ticket, LocalDateTime now) {
+        long waited = Math.max(0, TicketSnapshotWriter.toEpochMicros(now)
+                - TicketSnapshotWriter.toEpochMicros(ticket.getCreationDate()));
+        long key = headStartMicros[ticket.getPriorityLevel() - 1] + waited;
+        int level = ticket.getPriorityLevel();
+        while (level < LEVELS && headStartMicros[level] <= key) {
+            level++;
+        }
+        return level;
+    }
+}
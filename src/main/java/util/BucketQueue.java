@@ -0,0 +1,274 @@
+package util;
+
+import entities.Ticket;
+
+/**
+ * A queue of tickets in strict priority order that makes use of there being
+ * only five priority levels. Each level is a FIFO ring buffer, and a bitmask
+ * records which levels hold tickets, so add, peek and remove are all O(1)
+ * and no node is allocated per ticket. Within a level tickets leave in the
+ * order they were added; a re-prioritised ticket joins the back of its new
+ * level.
+ *
+ * Removing a ticket by id leaves a gap (a null slot) in its ring, which is
+ * skipped when it reaches the front. A ring that fills up while at least
+ * half of it is gaps is compacted instead of grown. A ticketId to position
+ * index, which keeps positions as primitive longs, allows a queued ticket
+ * to be found, re-prioritised or removed in place.
+ */
+public class BucketQueue {
+
+    private static final int LEVELS = 5;
+    private static final int LEVEL_BITS = 3;
+    private static final int DEFAULT_CAPACITY = 8; // per level, kept a power of two
+
+    private final Ticket[][] rings = new Ticket[LEVELS][];
+    private final long[] heads = new long[LEVELS]; // sequence number of the front slot of each ring
+    private final int[] used = new int[LEVELS]; // slots from the front to the back, gaps included
+    private final int[] live = new int[LEVELS]; // tickets in each ring
+    private int nonEmpty; // bit (priority - 1) set when that level has tickets
+    private int size;
+    private StringLongMap positions; // ticketId -> sequence << LEVEL_BITS | level
+
+    /**
+     * Creates an empty queue.
+     */
+    public BucketQueue() {
+        for (int level = 0; level < LEVELS; level++) {
+            rings[level] = new Ticket[DEFAULT_CAPACITY];
+        }
+        positions = new StringLongMap();
+    }
+
+    /**
+     * Returns the number of tickets currently in the queue.
+     * @return queue size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the queue is empty.
+     * @return true if the queue is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all tickets from the queue.
+     */
+    public void clear() {
+        for (int level = 0; level < LEVELS; level++) {
+            rings[level] = new Ticket[DEFAULT_CAPACITY];
+            heads[level] = 0;
+            used[level] = 0;
+            live[level] = 0;
+        }
+        nonEmpty = 0;
+        size = 0;
+        positions = new StringLongMap();
+    }
+
+    /**
+     * Returns the highest-priority ticket without removing it.
+     * @return top ticket or null if empty
+     */
+    public Ticket peek() {
+        if (nonEmpty == 0) {
+            return null;
+        }
+        int level = topLevel();
+        skipGaps(level);
+        Ticket[] ring = rings[level];
+        return ring[(int) heads[level] & (ring.length - 1)];
+    }
+
+    /**
+     * Adds a ticket to the back of its priority level. If a ticket with the
+     * same id is already queued at that level it is replaced in place;
+     * if it is queued at another level it is moved.
+     * @param ticket the Ticket to be added
+     */
+    public void add(Ticket ticket) {
+        int level = ticket.getPriorityLevel() - 1;
+        long position = positions.get(ticket.getTicketId());
+        if (position != StringLongMap.MISSING) {
+            if (levelOf(position) == level) {
+                Ticket[] ring = rings[level];
+                ring[(int) sequenceOf(position) & (ring.length - 1)] = ticket;
+                return;
+            }
+            remove(ticket.getTicketId());
+        }
+
+        if (used[level] == rings[level].length) {
+            makeRoom(level);
+        }
+        Ticket[] ring = rings[level];
+        long sequence = heads[level] + used[level];
+        ring[(int) sequence & (ring.length - 1)] = ticket;
+        positions.put(ticket.getTicketId(), sequence << LEVEL_BITS | level);
+        used[level]++;
+        live[level]++;
+        nonEmpty |= 1 << level;
+        size++;
+    }
+
+    /**
+     * Removes and returns the highest-priority ticket.
+     * @return the removed ticket or null if empty
+     */
+    public Ticket remove() {
+        if (nonEmpty == 0) {
+            return null;
+        }
+        int level = topLevel();
+        skipGaps(level);
+        Ticket[] ring = rings[level];
+        int index = (int) heads[level] & (ring.length - 1);
+        Ticket ticket = ring[index];
+        ring[index] = null;
+        heads[level]++;
+        used[level]--;
+        positions.remove(ticket.getTicketId());
+        taken(level);
+        return ticket;
+    }
+
+    /**
+     * Removes the ticket with the given id, wherever it is in the queue.
+     * @param ticketId the id of the ticket to remove
+     * @return the removed ticket, or null if it was not queued
+     */
+    public Ticket remove(String ticketId) {
+        long position = positions.remove(ticketId);
+        if (position == StringLongMap.MISSING) {
+            return null;
+        }
+        int level = levelOf(position);
+        Ticket[] ring = rings[level];
+        int index = (int) sequenceOf(position) & (ring.length - 1);
+        Ticket ticket = ring[index];
+        ring[index] = null;
+        taken(level);
+        return ticket;
+    }
+
+    /**
+     * Checks whether a ticket with the given id is queued.
+     * @param ticketId the ticket id to look for
+     * @return true if the ticket is queued
+     */
+    public boolean contains(String ticketId) {
+        return positions.containsKey(ticketId);
+    }
+
+    /**
+     * Returns the queued ticket with the given id.
+     * @param ticketId the ticket id to look for
+     * @return the ticket, or null if it is not queued
+     */
+    public Ticket get(String ticketId) {
+        long position = positions.get(ticketId);
+        if (position == StringLongMap.MISSING) {
+            return null;
+        }
+        Ticket[] ring = rings[levelOf(position)];
+        return ring[(int) sequenceOf(position) & (ring.length - 1)];
+    }
+
+    /**
+     * Changes the priority of a queued ticket and moves it to the back of
+     * its new level.
+     * @param ticketId the id of the ticket to re-prioritise
+     * @param priorityLevel the new priority (1 to 5)
+     * @return true if the ticket was queued and has been updated
+     * @throws IllegalArgumentException if the priority is out of range
+     */
+    public boolean updatePriority(String ticketId, int priorityLevel) {
+        Ticket ticket = get(ticketId);
+        if (ticket == null) {
+            return false;
+        }
+        int old = ticket.getPriorityLevel();
+        ticket.setPriorityLevel(priorityLevel);
+        if (old != priorityLevel) {
+            remove(ticketId);
+            add(ticket);
+        }
+        return true;
+    }
+
+    private int topLevel() {
+        return Integer.SIZE - 1 - Integer.numberOfLeadingZeros(nonEmpty);
+    }
+
+    /**
+     * Moves the front of a level past removed tickets. Only called while the
+     * level holds tickets, so it always stops.
+     */
+    private void skipGaps(int level) {
+        Ticket[] ring = rings[level];
+        int mask = ring.length - 1;
+        while (ring[(int) heads[level] & mask] == null) {
+            heads[level]++;
+            used[level]--;
+        }
+    }
+
+    /**
+     * Counts a ticket taken out of a level, and resets the level once it is
+     * empty so any gaps left in it are dropped.
+     */
+    private void taken(int level) {
+        size--;
+        if (--live[level] == 0) {
+            heads[level] += used[level];
+            used[level] = 0;
+            nonEmpty &= ~(1 << level);
+        }
+    }
+
+    /**
+     * Makes room in a full ring: packs its tickets to the front if at least
+     * half of it is gaps, or else doubles it.
+     */
+    private void makeRoom(int level) {
+        Ticket[] ring = rings[level];
+        int mask = ring.length - 1;
+        long head = heads[level];
+        if (live[level] <= ring.length / 2) {
+            Ticket[] packed = new Ticket[ring.length];
+            int count = 0;
+            for (int i = 0; i < used[level]; i++) {
+                Ticket ticket = ring[(int) (head + i) & mask];
+                if (ticket != null) {
+                    long sequence = head + count++;
+                    packed[(int) sequence & mask] = ticket;
+                    positions.put(ticket.getTicketId(), sequence << LEVEL_BITS | level);
+                }
+            }
+            rings[level] = packed;
+            used[level] = count;
+            return;
+        }
+        // Sequence numbers stay the same, so the index needs no update
+        Ticket[] grown = new Ticket[ring.length * 2];
+        int grownMask = grown.length - 1;
+        for (int i = 0; i < used[level]; i++) {
+            long sequence = head + i;
+            grown[(int) sequence & grownMask] = ring[(int) sequence & mask];
+        }
+        rings[level] = grown;
+    }
+
+    private static int levelOf(long position) {
+        return (int) (position & ((1 << LEVEL_BITS) - 1));
+    }
+
+    private static long sequenceOf(long position) {
+        return position >>> LEVEL_BITS;
+    }
+}
@@ -0,0 +1,134 @@
+package util;
+
+import entities.Ticket;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free queue of unassigned tickets shared by every agent. Tickets are
+ * kept in a concurrent skip list ordered by their {@link AgingPolicy} rank,
+ * then arrival, and are handed out by {@link #claim(String)}: the head is
+ * polled atomically and then claimed with a compare-and-set on the ticket's
+ * agent, so two agents can never receive the same ticket and no lock is held
+ * while claiming.
+ */
+public class DispatchQueue {
+
+    /**
+     * A queued ticket with the ordering keys captured when it was queued, so
+     * that later changes to the ticket cannot corrupt the skip list order.
+     */
+    private static final class Entry implements Comparable<Entry> {
+        final Ticket ticket;
+        final long rank;
+        final long seq;
+
+        Entry(Ticket ticket, long rank, long seq) {
+            this.ticket = ticket;
+            this.rank = rank;
+            this.seq = seq;
+        }
+
+        /**
+         * Orders entries by rank, smallest first, with ties broken by
+         * arrival order.
+         */
+        @Override
+        public int compareTo(Entry other) {
+            int cmp = Long.compare(rank, other.rank);
+            return cmp != 0 ? cmp : Long.compare(seq, other.seq);
+        }
+    }
+
+    private final AgingPolicy aging;
+    private final ConcurrentSkipListSet<Entry> queue = new ConcurrentSkipListSet<>();
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong nextSeq = new AtomicLong();
+
+    /**
+     * Creates an empty queue ordered by the default aging policy.
+     */
+    public DispatchQueue() {
+        this(AgingPolicy.DEFAULT);
+    }
+
+    /**
+     * Creates an empty queue.
+     *
+     * @param aging how waiting time is weighed against priority
+     */
+    public DispatchQueue(AgingPolicy aging) {
+        this.aging = aging;
+    }
+
+    /**
+     * Queues a ticket for dispatch. A ticket that is already queued is moved
+     * to match its current priority.
+     *
+     * @param ticket the ticket to queue
+     */
+    public void add(Ticket ticket) {
+        Entry entry = new Entry(ticket, aging.rank(ticket), nextSeq.getAndIncrement());
+        Entry previous = entries.put(ticket.getTicketId(), entry);
+        if (previous != null) {
+            queue.remove(previous);
+        }
+        queue.add(entry);
+    }
+
+    /**
+     * Removes a ticket from the queue.
+     *
+     * @param ticketId the id of the ticket to remove
+     * @return true if the ticket was queued
+     */
+    public boolean remove(String ticketId) {
+        Entry entry = entries.remove(ticketId);
+        return entry != null && queue.remove(entry);
+    }
+
+    /**
+     * Takes the highest-priority ticket off the queue and assigns it to the
+     * given agent. Tickets that another path assigned in the meantime are
+     * skipped.
+     *
+     * @param agentId the agent claiming a ticket
+     * @return the claimed ticket, or null if the queue is empty
+     */
+    public Ticket claim(String agentId) {
+        Entry entry;
+        while ((entry = queue.pollFirst()) != null) {
+            entries.remove(entry.ticket.getTicketId(), entry);
+            if (entry.ticket.claim(agentId)) {
+                return entry.ticket;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the ticket that would be claimed next.
+     *
+     * @return the highest-priority ticket, or null if the queue is empty
+     */
+    public Ticket peek() {
+        try {
+            return queue.first().ticket;
+        } catch (NoSuchElementException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the number of queued tickets. Like any concurrent count this is
+     * only a snapshot.
+     *
+     * @return the number of queued tickets
+     */
+    public int size() {
+        return entries.size();
+    }
+}
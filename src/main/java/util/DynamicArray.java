@@ -1,6 +1,15 @@
 package util;
 
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Day 2: Implemented core data structure - DynamicArray
@@ -11,9 +20,13 @@ import java.util.Iterator;
  */
 public class DynamicArray<T> implements Iterable<T> {
 
+    private static final int MIN_GROWTH = 8;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
     private T[] arr;
     private int size = 0;
     private int capacity = 0;
+    private int modCount = 0; // bumped by every change in size, checked by iterators
 
     /**
      * Constructs an empty DynamicArray with an initial capacity of 16.
@@ -60,6 +73,7 @@ public class DynamicArray<T> implements Iterable<T> {
      * @throws IndexOutOfBoundsException if the index is out of range
      */
     public T get(int index) {
+        checkIndex(index);
         return arr[index];
     }
 
@@ -68,8 +82,10 @@ public class DynamicArray<T> implements Iterable<T> {
      *
      * @param index index of the element to replace
      * @param element element to be stored at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
      */
     public void set(int index, T element) {
+        checkIndex(index);
         arr[index] = element;
     }
 
@@ -77,10 +93,9 @@ public class DynamicArray<T> implements Iterable<T> {
      * Removes all elements from this array.
      */
     public void clear() {
-        for (int i = 0; i < size; i++) {
-            arr[i] = null;
-        }
+        Arrays.fill(arr, 0, size, null);
         size = 0;
+        modCount++;
     }
 
     /**
@@ -93,18 +108,110 @@ public class DynamicArray<T> implements Iterable<T> {
             resize();
         }
         arr[size++] = element;
+        modCount++;
     }
 
     /**
-     * Doubles the capacity of this array when it is full.
+     * Appends every element of another array to the end of this array,
+     * growing the backing array at most once.
+     *
+     * @param other the array whose elements are appended
      */
-    private void resize() {
-        capacity = capacity == 0 ? 1 : capacity * 2;
-        T[] newArr = (T[]) new Object[capacity];
+    public void addAll(DynamicArray<? extends T> other) {
+        int count = other.size;
+        ensureCapacity(size + count);
+        System.arraycopy(other.arr, 0, arr, size, count);
+        size += count;
+        modCount++;
+    }
+
+    /**
+     * Appends every element of a plain array to the end of this array,
+     * growing the backing array at most once.
+     *
+     * @param elements the elements to append
+     */
+    public void addAll(T[] elements) {
+        ensureCapacity(size + elements.length);
+        System.arraycopy(elements, 0, arr, size, elements.length);
+        size += elements.length;
+        modCount++;
+    }
+
+    /**
+     * Grows the backing array, if needed, so it can hold at least the given
+     * number of elements without resizing again.
+     *
+     * @param minCapacity the number of elements the array should be able to hold
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > capacity) {
+            grow(minCapacity);
+        }
+    }
+
+    /**
+     * Shrinks the backing array to the current number of elements, releasing
+     * the spare capacity left by growth.
+     */
+    public void trimToSize() {
+        if (size < capacity) {
+            arr = Arrays.copyOf(arr, size);
+            capacity = size;
+        }
+    }
+
+    /**
+     * Removes every element that matches the filter, keeping the rest in
+     * order. Survivors are compacted in a single pass, so removing many
+     * elements costs no more than removing one. Every element is tested
+     * before any is moved, so if the filter throws the array is unchanged.
+     *
+     * @param filter returns true for the elements to remove
+     * @return the number of elements removed
+     */
+    public int removeIf(Predicate<? super T> filter) {
+        BitSet matches = new BitSet(size);
         for (int i = 0; i < size; i++) {
-            newArr[i] = arr[i];
+            if (filter.test(arr[i])) {
+                matches.set(i);
+            }
         }
-        arr = newArr;
+        int removed = matches.cardinality();
+        if (removed == 0) {
+            return 0;
+        }
+
+        int kept = matches.nextSetBit(0);
+        for (int i = kept; i < size; i++) {
+            if (!matches.get(i)) {
+                arr[kept++] = arr[i];
+            }
+        }
+        Arrays.fill(arr, kept, size, null);
+        size = kept;
+        modCount++;
+        return removed;
+    }
+
+    /**
+     * Grows the capacity of this array when it is full.
+     */
+    private void resize() {
+        grow(size + 1);
+    }
+
+    /**
+     * Grows the backing array to at least the given capacity. Capacity
+     * doubles each time, starting from a small minimum rather than one.
+     */
+    private void grow(int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("Required array size too large.");
+        }
+        int doubled = capacity > MAX_CAPACITY / 2 ? MAX_CAPACITY : capacity * 2;
+        capacity = Math.max(minCapacity, Math.max(doubled, MIN_GROWTH));
+        arr = Arrays.copyOf(arr, capacity);
     }
 
     /**
@@ -119,11 +226,9 @@ public class DynamicArray<T> implements Iterable<T> {
             throw new IndexOutOfBoundsException("Invalid index.");
         }
         T element = arr[index];
-        for (int i = index; i < size - 1; i++) {
-            arr[i] = arr[i + 1];
-        }
-        arr[size - 1] = null;
-        size--;
+        System.arraycopy(arr, index + 1, arr, index, size - index - 1);
+        arr[--size] = null;
+        modCount++;
         return element;
     }
 
@@ -160,24 +265,177 @@ public class DynamicArray<T> implements Iterable<T> {
 
     /**
      * Returns an iterator over the elements in this array in proper sequence.
+     * The iterator is fail-fast: it throws ConcurrentModificationException if
+     * the array is added to or removed from while it is in use.
      *
      * @return an iterator over the elements in this array in proper sequence
      */
     @Override
     public Iterator<T> iterator() {
-        return new Iterator<T>() {
-            int index = 0;
+        return new Itr();
+    }
+
+    /**
+     * Performs the action for each element in order, looping directly over
+     * the backing array without allocating an iterator.
+     *
+     * @param action the action to be performed for each element
+     * @throws ConcurrentModificationException if the action changes the size of this array
+     */
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        int expectedModCount = modCount;
+        T[] elements = arr;
+        int end = size;
+        for (int i = 0; i < end && modCount == expectedModCount; i++) {
+            action.accept(elements[i]);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Returns a sized, splittable spliterator over the elements in this
+     * array, so streams over it can be split evenly across threads.
+     *
+     * @return a spliterator over the elements in this array
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new ArraySpliterator(0, -1, 0);
+    }
+
+    /**
+     * Returns a sequential stream over the elements in this array.
+     *
+     * @return a sequential stream of the elements
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel stream over the elements in this array. The array
+     * must not be changed while the stream runs.
+     *
+     * @return a parallel stream of the elements
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size + ".");
+        }
+    }
+
+    /**
+     * Fail-fast iterator over the backing array.
+     */
+    private class Itr implements Iterator<T> {
+        private int index;
+        private final int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
 
-            @Override
-            public boolean hasNext() {
-                return index < size;
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (index >= size) {
+                throw new NoSuchElementException();
             }
+            return arr[index++];
+        }
 
-            @Override
-            public T next() {
-                return arr[index++];
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            while (index < size && modCount == expectedModCount) {
+                action.accept(arr[index++]);
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
             }
-        };
+        }
+    }
+
+    /**
+     * Spliterator over a range of the backing array. The end of the range is
+     * bound lazily on first use, so a spliterator created before elements are
+     * added still sees them, and splitting halves the range exactly.
+     */
+    private class ArraySpliterator implements Spliterator<T> {
+        private int index;
+        private int fence; // -1 until first use, then one past the last index
+        private int expectedModCount;
+
+        ArraySpliterator(int origin, int fence, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() {
+            if (fence < 0) {
+                expectedModCount = modCount;
+                fence = size;
+            }
+            return fence;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int hi = getFence();
+            int lo = index;
+            int mid = (lo + hi) >>> 1;
+            if (lo >= mid) {
+                return null;
+            }
+            index = mid;
+            return new ArraySpliterator(lo, mid, expectedModCount);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            int hi = getFence();
+            if (index >= hi) {
+                return false;
+            }
+            action.accept(arr[index++]);
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            int hi = getFence();
+            T[] elements = arr;
+            for (int i = index; i < hi; i++) {
+                action.accept(elements[i]);
+            }
+            index = hi;
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return getFence() - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
     }
 
     /**
@@ -207,6 +465,23 @@ public class DynamicArray<T> implements Iterable<T> {
         return result;
     }
 
+    /**
+     * Creates an array of a generic element type, such as {@code Timer<T>[]},
+     * without an unchecked cast. Leave out the second argument: the compiler
+     * passes an empty array of the right type, which is copied to the wanted
+     * length.
+     *
+     * @param length the length of the new array
+     * @param type   leave empty; only used for its type
+     * @param <E>    the element type
+     * @return a new array of the given length, filled with nulls
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs") // type is never written to or handed out, only copied
+    public static <E> E[] newArray(int length, E... type) {
+        return Arrays.copyOf(type, length);
+    }
+
     public static void main(String[] args) {
         DynamicArray<Integer> dynamicArray = new DynamicArray<>();
 
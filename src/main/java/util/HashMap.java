@@ -5,19 +5,58 @@ package util;
  * A custom implementation of a hash map data structure.
  * This class provides O(1) average case complexity for insertions and lookups.
  *
+ * Entries live in two flat parallel arrays (keys and values) and collisions
+ * are resolved by linear probing. The table size is always a power of two and
+ * doubles whenever the number of entries passes the load factor.
+ *
  * @param <K> the type of keys
  * @param <V> the type of values
  */
 public class HashMap<K, V> {
-    private static final int INITIAL_SIZE = 103;
-    private DynamicArray<Entry<K, V>>[] map;
+    private static final int INITIAL_SIZE = 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    private static final int MAXIMUM_SIZE = LinearProbing.MAXIMUM_SIZE;
+
+    private Object[] keys;
+    private Object[] values;
+    private final float loadFactor;
+    private int threshold;
     private int count;
 
     /**
      * Constructs a new HashMap with default initial size.
      */
     public HashMap() {
-        map = new DynamicArray[INITIAL_SIZE];
+        this(INITIAL_SIZE, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs a new HashMap sized to hold the given number of entries
+     * without resizing.
+     *
+     * @param expectedSize the number of entries expected
+     * @throws IllegalArgumentException if expectedSize is negative
+     */
+    public HashMap(int expectedSize) {
+        this(tableSizeFor(expectedSize, DEFAULT_LOAD_FACTOR), DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs a new HashMap with the given table size and load factor.
+     *
+     * @param initialSize the initial number of slots, rounded up to a power of two
+     * @param loadFactor the fraction of slots that may be used before the table doubles
+     * @throws IllegalArgumentException if initialSize is negative or loadFactor is not in (0, 1)
+     */
+    public HashMap(int initialSize, float loadFactor) {
+        if (initialSize < 0) {
+            throw new IllegalArgumentException("Size cannot be negative.");
+        }
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("Load factor must be between 0 and 1.");
+        }
+        this.loadFactor = loadFactor;
+        allocate(powerOfTwoAtLeast(Math.max(initialSize, 2)));
         count = 0;
     }
 
@@ -27,28 +66,27 @@ public class HashMap<K, V> {
      * @param key the key
      * @param value the value
      * @return the previous value if key existed, otherwise null
+     * @throws IllegalStateException if the key is new and the map is at its maximum size
      */
     public V put(K key, V value) {
         validateKey(key);
 
-        int destinationSlot = calculateSlot(key);
-
-        if (map[destinationSlot] == null) {
-            map[destinationSlot] = new DynamicArray<>();
+        int slot = LinearProbing.probe(keys, key);
+        if (keys[slot] != null) {
+            V oldValue = valueAt(slot);
+            values[slot] = value;
+            return oldValue;
         }
 
-        DynamicArray<Entry<K, V>> slotList = map[destinationSlot];
-        for (int i = 0; i < slotList.size(); i++) {
-            Entry<K, V> currentEntry = slotList.get(i);
-            if (currentEntry.key.equals(key)) {
-                V oldValue = currentEntry.value;
-                currentEntry.value = value;
-                return oldValue;
-            }
+        // A full table could no longer grow, and probing would never end
+        if (count == threshold && keys.length == MAXIMUM_SIZE) {
+            throw new IllegalStateException("HashMap cannot hold more than " + threshold + " entries.");
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++count > threshold) {
+            resize();
         }
-
-        slotList.add(new Entry<>(key, value));
-        count++;
         return null;
     }
 
@@ -61,19 +99,8 @@ public class HashMap<K, V> {
     public V get(K key) {
         validateKey(key);
 
-        int destinationSlot = calculateSlot(key);
-
-        if (map[destinationSlot] == null) return null;
-
-        DynamicArray<Entry<K, V>> slotList = map[destinationSlot];
-        for (int i = 0; i < slotList.size(); i++) {
-            Entry<K, V> currentEntry = slotList.get(i);
-            if (currentEntry.key.equals(key)) {
-                return currentEntry.value;
-            }
-        }
-
-        return null;
+        int slot = findSlot(key);
+        return slot < 0 ? null : valueAt(slot);
     }
 
     /**
@@ -83,7 +110,8 @@ public class HashMap<K, V> {
      * @return true if the key exists, otherwise false
      */
     public boolean containsKey(K key) {
-        return get(key) != null;
+        validateKey(key);
+        return findSlot(key) >= 0;
     }
 
     /**
@@ -94,22 +122,14 @@ public class HashMap<K, V> {
      */
     public V remove(K key) {
         validateKey(key);
-        int destinationSlot = calculateSlot(key);
-
-        DynamicArray<Entry<K, V>> slotList = map[destinationSlot];
-        if (slotList == null) return null;
-
-        for (int i = 0; i < slotList.size(); i++) {
-            Entry<K, V> currentEntry = slotList.get(i);
-            if (currentEntry.key.equals(key)) {
-                V oldValue = currentEntry.value;
-                slotList.removeAt(i);
-                count--;
-                return oldValue;
-            }
-        }
 
-        return null;
+        int slot = findSlot(key);
+        if (slot < 0) return null;
+
+        V oldValue = valueAt(slot);
+        deleteSlot(slot);
+        count--;
+        return oldValue;
     }
 
     /**
@@ -118,15 +138,13 @@ public class HashMap<K, V> {
      * @return an array of keys
      */
     public K[] getKeys() {
+        @SuppressWarnings("unchecked") // erased to Object[], and only ever holds keys
         K[] keyArray = (K[]) new Object[count];
         int posTracker = 0;
 
-        for (int i = 0; i < map.length; i++) {
-            if (map[i] != null) {
-                DynamicArray<Entry<K, V>> slotList = map[i];
-                for (int j = 0; j < slotList.size(); j++) {
-                    keyArray[posTracker++] = slotList.get(j).key;
-                }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                keyArray[posTracker++] = keyAt(i);
             }
         }
 
@@ -139,15 +157,13 @@ public class HashMap<K, V> {
      * @return an array of values
      */
     public V[] getValues() {
+        @SuppressWarnings("unchecked") // erased to Object[], and only ever holds values
         V[] valueArray = (V[]) new Object[count];
         int posTracker = 0;
 
-        for (int i = 0; i < map.length; i++) {
-            if (map[i] != null) {
-                DynamicArray<Entry<K, V>> slotList = map[i];
-                for (int j = 0; j < slotList.size(); j++) {
-                    valueArray[posTracker++] = slotList.get(j).value;
-                }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                valueArray[posTracker++] = valueAt(i);
             }
         }
 
@@ -172,31 +188,82 @@ public class HashMap<K, V> {
         return count == 0;
     }
 
+    // put only stores Ks in keys and Vs in values, so these casts always hold
+    @SuppressWarnings("unchecked")
+    private K keyAt(int slot) {
+        return (K) keys[slot];
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int slot) {
+        return (V) values[slot];
+    }
+
     private void validateKey(K key) {
         if (key == null) {
             throw new IllegalArgumentException("Key cannot be null");
         }
     }
 
-    private int calculateSlot(K key) {
-        int hashCode = key.hashCode();
-        hashCode = Math.abs(hashCode);
-        return hashCode % map.length;
+    /**
+     * Finds the slot holding the given key by probing from its home slot.
+     *
+     * @return the slot index, or -1 if the key is not in the map
+     */
+    private int findSlot(Object key) {
+        int slot = LinearProbing.probe(keys, key);
+        return keys[slot] == null ? -1 : slot;
     }
 
     /**
-     * A key-value pair stored in the map.
-     *
-     * @param <K> the type of keys
-     * @param <V> the type of values
+     * Empties a slot and shifts later entries of the same probe run back into
+     * the gap.
      */
-    private static class Entry<K, V> {
-        private K key;
-        private V value;
+    private void deleteSlot(int gap) {
+        int next;
+        while ((next = LinearProbing.nextToShift(keys, gap)) >= 0) {
+            keys[gap] = keys[next];
+            values[gap] = values[next];
+            gap = next;
+        }
+        keys[gap] = null;
+        values[gap] = null;
+    }
+
+    /**
+     * Doubles the table. Only called below MAXIMUM_SIZE, since put refuses
+     * new keys once the largest table reaches its threshold.
+     */
+    private void resize() {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(oldKeys.length * 2);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            Object key = oldKeys[i];
+            if (key != null) {
+                int slot = LinearProbing.probe(keys, key);
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int size) {
+        keys = new Object[size];
+        values = new Object[size];
+        threshold = LinearProbing.threshold(size, loadFactor);
+    }
 
-        public Entry(K key, V value) {
-            this.key = key;
-            this.value = value;
+    private static int tableSizeFor(int expectedSize, float loadFactor) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Size cannot be negative.");
         }
+        return (int) Math.min(MAXIMUM_SIZE, (long) Math.ceil(expectedSize / (double) loadFactor) + 1);
+    }
+
+    private static int powerOfTwoAtLeast(int n) {
+        if (n >= MAXIMUM_SIZE) return MAXIMUM_SIZE;
+        return Integer.highestOneBit(n - 1) << 1;
     }
 }
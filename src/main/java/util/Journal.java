@@ -0,0 +1,439 @@
+package util;
+
+import entities.Agent;
+import entities.Ticket;
+import entities.User;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An append-only write-ahead journal of changes made since the last snapshot.
+ * Every mutation is written as one %%-delimited line as soon as it happens,
+ * so saving a session costs only the work that session did. Replaying the
+ * journal on top of the snapshot files restores the latest state, and
+ * compaction folds the journal back into a fresh snapshot on a background
+ * thread.
+ */
+public class Journal implements Closeable {
+
+    private static final String DELIMITER = "%%";
+
+    private static final String TICKET_CREATED = "CREATE";
+    private static final String TICKET_ASSIGNED = "ASSIGN";
+    private static final String STATUS_CHANGED = "STATUS";
+    private static final String TICKET_CLOSED = "CLOSE";
+    private static final String PRIORITY_CHANGED = "PRIORITY";
+    private static final String DEADLINES_MISSED = "MISSED";
+    private static final String USER_REGISTERED = "USER";
+    private static final String AGENT_REGISTERED = "AGENT";
+
+    /**
+     * Receives the changes read back from a journal during replay.
+     */
+    public interface Listener {
+        void ticketCreated(Ticket ticket);
+
+        void ticketAssigned(String ticketId, String agentId);
+
+        void statusChanged(String ticketId, String status);
+
+        void ticketClosed(String ticketId, LocalDateTime closedAt);
+
+        void priorityChanged(String ticketId, int priorityLevel);
+
+        void deadlinesMissed(String ticketId, int missedDeadlines);
+
+        void userRegistered(User user);
+
+        void agentRegistered(Agent agent);
+    }
+
+    /**
+     * Captures the current state for a compaction. Capture runs on the
+     * background thread after the journal has been moved aside, so it may see
+     * changes that are also in the new journal; replaying those entries again
+     * on top of the snapshot must leave the same state.
+     */
+    public interface SnapshotSource {
+        Snapshot capture();
+    }
+
+    /**
+     * A captured state that can be written out as the new snapshot files.
+     */
+    public interface Snapshot {
+        void write() throws IOException;
+    }
+
+    private final Path file;
+    private final Path compactingFile;
+    private Writer writer;
+    private long entries;
+
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private SnapshotSource snapshotSource;
+    private long compactionThreshold = Long.MAX_VALUE;
+    private boolean compacting;
+
+    /**
+     * Opens the journal for appending, creating the file if needed.
+     *
+     * @param filename the journal file name
+     * @throws IOException if the file cannot be opened
+     */
+    public Journal(String filename) throws IOException {
+        this.file = Paths.get(filename);
+        this.compactingFile = Paths.get(filename + ".compacting");
+        this.writer = openWriter();
+    }
+
+    /**
+     * Turns on automatic compaction once the journal holds the given number
+     * of entries.
+     *
+     * @param threshold the number of entries that triggers a compaction
+     * @param source captures the state to write as the new snapshot
+     * @param replayed the number of entries already in the journal files
+     */
+    public synchronized void enableCompaction(long threshold, SnapshotSource source, long replayed) {
+        this.compactionThreshold = threshold;
+        this.snapshotSource = source;
+        this.entries += replayed;
+    }
+
+    /**
+     * Records a newly created ticket.
+     *
+     * @param t the ticket that was created
+     */
+    public void ticketCreated(Ticket t) {
+        append(TICKET_CREATED, createdFields(t));
+    }
+
+    /**
+     * Records a batch of newly created tickets, flushing the file once for
+     * the whole batch.
+     *
+     * @param batch the tickets that were created
+     */
+    public synchronized void ticketsCreated(DynamicArray<Ticket> batch) {
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                write(TICKET_CREATED, createdFields(batch.get(i)));
+            }
+            writer.flush();
+            entries += batch.size();
+            if (entries >= compactionThreshold) {
+                compact();
+            }
+        } catch (IOException e) {
+            Logger.getLogger(Journal.class.getName()).log(Level.SEVERE, null, e);
+        }
+    }
+
+    /**
+     * Records that a ticket was assigned to an agent.
+     *
+     * @param ticketId the id of the ticket
+     * @param agentId the agent it was assigned to
+     */
+    public void ticketAssigned(String ticketId, String agentId) {
+        append(TICKET_ASSIGNED, ticketId, agentId);
+    }
+
+    /**
+     * Records a status change on a ticket.
+     *
+     * @param ticketId the id of the ticket
+     * @param status the new status
+     */
+    public void statusChanged(String ticketId, String status) {
+        append(STATUS_CHANGED, ticketId, status);
+    }
+
+    /**
+     * Records that a ticket was closed.
+     *
+     * @param ticketId the id of the ticket
+     * @param closedAt when the ticket was closed
+     * @throws IllegalArgumentException if the closing time is null
+     */
+    public void ticketClosed(String ticketId, LocalDateTime closedAt) {
+        if (closedAt == null) {
+            throw new IllegalArgumentException("Closing time cannot be null.");
+        }
+        append(TICKET_CLOSED, ticketId, closedAt.toString());
+    }
+
+    /**
+     * Records a priority change on a ticket.
+     *
+     * @param ticketId the id of the ticket
+     * @param priorityLevel the new priority
+     */
+    public void priorityChanged(String ticketId, int priorityLevel) {
+        append(PRIORITY_CHANGED, ticketId, String.valueOf(priorityLevel));
+    }
+
+    /**
+     * Records the SLA deadlines a ticket has missed and been escalated for.
+     *
+     * @param ticketId the id of the ticket
+     * @param missedDeadlines the ticket's missed deadlines, as a bit set
+     */
+    public void deadlinesMissed(String ticketId, int missedDeadlines) {
+        append(DEADLINES_MISSED, ticketId, String.valueOf(missedDeadlines));
+    }
+
+    /**
+     * Records a newly registered user.
+     *
+     * @param u the user that registered
+     */
+    public void userRegistered(User u) {
+        append(USER_REGISTERED, u.getUsername(), u.getPassword());
+    }
+
+    /**
+     * Records a newly registered agent.
+     *
+     * @param a the agent that registered
+     */
+    public void agentRegistered(Agent a) {
+        append(AGENT_REGISTERED, a.getUsername(), a.getPassword(), a.getAgentId(), a.getAgentName());
+    }
+
+    /**
+     * Returns the number of entries in the live journal, including the ones
+     * replayed at startup.
+     *
+     * @return the number of journal entries
+     */
+    public synchronized long getEntries() {
+        return entries;
+    }
+
+    /**
+     * Forces buffered entries out to the file.
+     */
+    public synchronized void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            Logger.getLogger(Journal.class.getName()).log(Level.SEVERE, null, e);
+        }
+    }
+
+    /**
+     * Folds the journal into a new snapshot. The current journal is moved
+     * aside and a fresh one is opened for new entries, then the snapshot is
+     * captured and written in the background and the moved-aside journal is
+     * deleted. Does nothing if compaction is not enabled or one is already
+     * running.
+     */
+    public void compact() {
+        SnapshotSource source;
+        synchronized (this) {
+            try {
+                if (snapshotSource == null || compacting) {
+                    return;
+                }
+                rotate();
+                source = snapshotSource;
+                compacting = true;
+            } catch (IOException e) {
+                Logger.getLogger(Journal.class.getName()).log(Level.SEVERE, null, e);
+                return;
+            }
+        }
+
+        // Capturing copies every ticket, so it is kept off the writers' lock
+        compactor.execute(() -> {
+            try {
+                source.capture().write();
+                Files.deleteIfExists(compactingFile);
+            } catch (IOException e) {
+                // The moved-aside journal is kept and replayed on the next start
+                Logger.getLogger(Journal.class.getName()).log(Level.SEVERE, null, e);
+            } finally {
+                synchronized (this) {
+                    compacting = false;
+                }
+            }
+        });
+    }
+
+    /**
+     * Moves the current journal aside and opens an empty one. If a previous
+     * compaction never finished, its journal is kept and the current entries
+     * are appended to it.
+     */
+    private void rotate() throws IOException {
+        writer.close();
+        if (Files.exists(compactingFile)) {
+            try (OutputStream out = Files.newOutputStream(compactingFile, StandardOpenOption.APPEND)) {
+                Files.copy(file, out);
+            }
+            Files.delete(file);
+        } else if (Files.exists(file)) {
+            Files.move(file, compactingFile, StandardCopyOption.ATOMIC_MOVE);
+        }
+        writer = openWriter();
+        entries = 0;
+    }
+
+    /**
+     * Replays every entry of an unfinished compaction and of the live journal,
+     * oldest first.
+     *
+     * @param listener receives the entries
+     * @return the number of entries replayed
+     */
+    public int replay(Listener listener) {
+        flush();
+        return replay(compactingFile, listener) + replay(file, listener);
+    }
+
+    /**
+     * Waits for a running compaction to finish and closes the journal file.
+     */
+    @Override
+    public void close() throws IOException {
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            writer.close();
+        }
+    }
+
+    private synchronized void append(String type, String... fields) {
+        try {
+            write(type, fields);
+            writer.flush();
+            if (++entries >= compactionThreshold) {
+                compact();
+            }
+        } catch (IOException e) {
+            Logger.getLogger(Journal.class.getName()).log(Level.SEVERE, null, e);
+        }
+    }
+
+    private void write(String type, String... fields) throws IOException {
+        writer.write(type);
+        for (String field : fields) {
+            writer.write(DELIMITER);
+            writer.write(field);
+        }
+        writer.write(System.lineSeparator());
+    }
+
+    private static String[] createdFields(Ticket t) {
+        return new String[]{t.getTicketId(), t.getIssueDescription(), String.valueOf(t.getPriorityLevel()),
+                String.valueOf(t.getCreationDate()), t.getReportingUsername(), String.valueOf(t.getAllocatedAgentId()),
+                t.getStatus()};
+    }
+
+    private Writer openWriter() throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file.toFile(), true), StandardCharsets.UTF_8));
+    }
+
+    private static int replay(Path path, Listener listener) {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+
+        String[] parts = new String[8];
+        int count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int fields = fileUtil.splitFields(line, parts);
+                if (fields > 0 && apply(path, line, parts, fields, listener)) {
+                    count++;
+                }
+            }
+        } catch (IOException e) {
+            Logger.getLogger(Journal.class.getName()).log(Level.SEVERE, null, e);
+        }
+        return count;
+    }
+
+    /**
+     * Passes one entry to the listener. An entry that cannot be parsed, such
+     * as a last line cut short by a crash, is logged and skipped so the rest
+     * of the journal still replays.
+     *
+     * @return true if the entry was applied
+     */
+    private static boolean apply(Path path, String line, String[] parts, int fields, Listener listener) {
+        try {
+            return apply(parts, fields, listener);
+        } catch (RuntimeException e) {
+            Logger.getLogger(Journal.class.getName()).log(Level.WARNING,
+                    "Skipping bad entry in " + path + ": " + line, e);
+            return false;
+        }
+    }
+
+    private static boolean apply(String[] parts, int fields, Listener listener) {
+        switch (parts[0]) {
+            case TICKET_CREATED:
+                if (fields != 8) return false;
+                String[] ticket = new String[7];
+                System.arraycopy(parts, 1, ticket, 0, 7);
+                listener.ticketCreated(fileUtil.toTicket(ticket));
+                return true;
+            case TICKET_ASSIGNED:
+                if (fields != 3) return false;
+                listener.ticketAssigned(parts[1], parts[2]);
+                return true;
+            case STATUS_CHANGED:
+                if (fields != 3) return false;
+                listener.statusChanged(parts[1], parts[2]);
+                return true;
+            case TICKET_CLOSED:
+                if (fields != 3) return false;
+                listener.ticketClosed(parts[1], LocalDateTime.parse(parts[2]));
+                return true;
+            case PRIORITY_CHANGED:
+                if (fields != 3) return false;
+                listener.priorityChanged(parts[1], Integer.parseInt(parts[2]));
+                return true;
+            case DEADLINES_MISSED:
+                if (fields != 3) return false;
+                listener.deadlinesMissed(parts[1], Integer.parseInt(parts[2]));
+                return true;
+            case USER_REGISTERED:
+                if (fields != 3) return false;
+                listener.userRegistered(new User(parts[1], parts[2]));
+                return true;
+            case AGENT_REGISTERED:
+                if (fields != 5) return false;
+                listener.agentRegistered(new Agent(parts[1], parts[2], parts[3], parts[4]));
+                return true;
+            default:
+                return false;
+        }
+    }
+}
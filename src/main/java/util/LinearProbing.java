@@ -0,0 +1,81 @@
+package util;
+
+/**
+ * The probing core shared by {@link HashMap} and {@link StringLongMap}. Both
+ * keep their keys in a power-of-two Object array, with values in a parallel
+ * array of their own type, and resolve collisions by linear probing. These
+ * helpers work on the key array alone, so each map only has to move its own
+ * values alongside.
+ */
+final class LinearProbing {
+
+    /**
+     * The largest table either map will allocate.
+     */
+    static final int MAXIMUM_SIZE = 1 << 30;
+
+    private LinearProbing() {
+    }
+
+    /**
+     * Returns the slot holding the given key, or the empty slot where it
+     * would be inserted.
+     *
+     * @param keys the key table, a power of two long with at least one empty slot
+     * @param key the key to look for
+     * @return the slot index
+     */
+    static int probe(Object[] keys, Object key) {
+        int mask = keys.length - 1;
+        int slot = home(keys, key);
+        Object current;
+        while ((current = keys[slot]) != null && !current.equals(key)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Finds the next entry that has to move back into a gap left by a
+     * deletion. Shifting entries back, rather than leaving tombstones, keeps
+     * every probe run unbroken. The caller moves the entry into the gap and
+     * calls again with the entry's old slot as the new gap, until this
+     * returns -1 and the gap can be left empty.
+     *
+     * @param keys the key table
+     * @param gap the slot that was just emptied
+     * @return the slot of the entry to move into the gap, or -1 if none
+     */
+    static int nextToShift(Object[] keys, int gap) {
+        int mask = keys.length - 1;
+        int slot = gap;
+        Object current;
+        while ((current = keys[slot = (slot + 1) & mask]) != null) {
+            // Move the entry back only if the gap lies on its probe path from home
+            if (((slot - home(keys, current)) & mask) >= ((slot - gap) & mask)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of entries a table can hold before it must double.
+     * At least one slot is always left empty so that probing ends.
+     *
+     * @param size the number of slots
+     * @param loadFactor the fraction of slots that may be used
+     * @return the resize threshold
+     */
+    static int threshold(int size, float loadFactor) {
+        return Math.min((int) (size * loadFactor), size - 1);
+    }
+
+    private static int home(Object[] keys, Object key) {
+        int hashCode = key.hashCode();
+        // Spread the high bits down, then scramble with the golden ratio and
+        // keep the top bits, so patterned hash codes do not pile up in one run
+        hashCode ^= hashCode >>> 16;
+        return (hashCode * 0x9E3779B9) >>> (Integer.numberOfLeadingZeros(keys.length) + 1);
+    }
+}
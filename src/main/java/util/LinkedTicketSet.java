@@ -0,0 +1,282 @@
+package util;
+
+import entities.Ticket;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A set of tickets keyed by ticket id that keeps insertion order. Tickets
+ * are linked into a doubly-linked list and indexed by id in a HashMap, so
+ * adding, looking up and removing a ticket by id are all O(1) and removal
+ * never shifts the rest of the set. Iteration runs oldest first.
+ */
+public class LinkedTicketSet implements Iterable<Ticket> {
+
+    private static class Node {
+        final Ticket ticket;
+        final int seq; // insertion order, used by page tokens
+        Node prev;
+        Node next;
+
+        Node(Ticket ticket, int seq) {
+            this.ticket = ticket;
+            this.seq = seq;
+        }
+    }
+
+    private final HashMap<String, Node> nodes;
+    private Node head;
+    private Node tail;
+    private int modCount;
+    private int nextSeq;
+
+    /**
+     * Creates an empty set.
+     */
+    public LinkedTicketSet() {
+        nodes = new HashMap<>();
+    }
+
+    /**
+     * Creates an empty set sized for the given number of tickets.
+     *
+     * @param expectedSize the number of tickets expected
+     */
+    public LinkedTicketSet(int expectedSize) {
+        nodes = new HashMap<>(expectedSize);
+    }
+
+    /**
+     * Returns the number of tickets in the set.
+     *
+     * @return the number of tickets
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Returns true if the set holds no tickets.
+     *
+     * @return true if the set is empty
+     */
+    public boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    /**
+     * Appends a ticket to the end of the set.
+     *
+     * @param ticket the ticket to add
+     * @return false if a ticket with the same id is already in the set
+     */
+    public boolean add(Ticket ticket) {
+        if (nodes.containsKey(ticket.getTicketId())) {
+            return false;
+        }
+        Node node = new Node(ticket, nextSeq++);
+        nodes.put(ticket.getTicketId(), node);
+        if (tail == null) {
+            head = node;
+        } else {
+            tail.next = node;
+            node.prev = tail;
+        }
+        tail = node;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Returns the ticket with the given id.
+     *
+     * @param ticketId the ticket id
+     * @return the ticket, or null if it is not in the set
+     */
+    public Ticket get(String ticketId) {
+        Node node = nodes.get(ticketId);
+        return node == null ? null : node.ticket;
+    }
+
+    /**
+     * Returns true if a ticket with the given id is in the set.
+     *
+     * @param ticketId the ticket id
+     * @return true if the ticket is in the set
+     */
+    public boolean contains(String ticketId) {
+        return nodes.containsKey(ticketId);
+    }
+
+    /**
+     * Removes the ticket with the given id.
+     *
+     * @param ticketId the ticket id
+     * @return the removed ticket, or null if it was not in the set
+     */
+    public Ticket remove(String ticketId) {
+        Node node = nodes.remove(ticketId);
+        if (node == null) {
+            return null;
+        }
+        unlink(node);
+        modCount++;
+        return node.ticket;
+    }
+
+    /**
+     * Removes and returns the oldest ticket in the set.
+     *
+     * @return the oldest ticket, or null if the set is empty
+     */
+    public Ticket removeFirst() {
+        return head == null ? null : remove(head.ticket.getTicketId());
+    }
+
+    /**
+     * Returns the oldest ticket in the set.
+     *
+     * @return the oldest ticket, or null if the set is empty
+     */
+    public Ticket first() {
+        return head == null ? null : head.ticket;
+    }
+
+    /**
+     * Returns one page of tickets, oldest first. A token stays valid while
+     * tickets are added and removed: the next page starts with the first
+     * ticket added after the last one returned, even if that ticket has
+     * since been removed.
+     *
+     * @param pageSize the most tickets to return
+     * @param token the token of the previous page, or null for the first page
+     * @return the page
+     * @throws IllegalArgumentException if the page size is not positive or the token is invalid
+     */
+    public Page<Ticket> page(int pageSize, String token) {
+        return page(pageSize, token, t -> true);
+    }
+
+    /**
+     * Returns one page of the tickets accepted by a filter, oldest first.
+     * Tokens behave as for {@link #page(int, String)}.
+     *
+     * @param pageSize the most tickets to return
+     * @param token the token of the previous page, or null for the first page
+     * @param filter decides which tickets are listed
+     * @return the page
+     * @throws IllegalArgumentException if the page size is not positive or the token is invalid
+     */
+    public Page<Ticket> page(int pageSize, String token, Predicate<? super Ticket> filter) {
+        Page.checkPageSize(pageSize);
+        Node node = head;
+        if (token != null) {
+            // The token's position is the insertion number of the last ticket listed
+            int lastSeq = Page.position(token);
+            Node last = nodes.get(Page.lastKey(token));
+            if (last != null && last.seq == lastSeq) {
+                node = last.next;
+            } else {
+                while (node != null && node.seq <= lastSeq) {
+                    node = node.next;
+                }
+            }
+        }
+
+        DynamicArray<Ticket> items = new DynamicArray<>(Math.min(pageSize, size()));
+        Node lastListed = null;
+        for (; node != null && items.size() < pageSize; node = node.next) {
+            if (filter.test(node.ticket)) {
+                items.add(node.ticket);
+                lastListed = node;
+            }
+        }
+        // Only hand out a token if another accepted ticket really follows
+        while (node != null && !filter.test(node.ticket)) {
+            node = node.next;
+        }
+        String next = node != null && lastListed != null
+                ? Page.token(lastListed.seq, lastListed.ticket.getTicketId()) : null;
+        return new Page<>(items, next);
+    }
+
+    /**
+     * Copies the tickets into a new array, oldest first.
+     *
+     * @return the tickets in insertion order
+     */
+    public DynamicArray<Ticket> toArray() {
+        DynamicArray<Ticket> result = new DynamicArray<>(size());
+        for (Node node = head; node != null; node = node.next) {
+            result.add(node.ticket);
+        }
+        return result;
+    }
+
+    /**
+     * Performs the action for each ticket, oldest first, without allocating
+     * an iterator.
+     *
+     * @param action the action to be performed for each ticket
+     */
+    @Override
+    public void forEach(Consumer<? super Ticket> action) {
+        int expectedModCount = modCount;
+        for (Node node = head; node != null; node = node.next) {
+            action.accept(node.ticket);
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * Returns a fail-fast iterator over the tickets, oldest first.
+     *
+     * @return an iterator over the tickets
+     */
+    @Override
+    public Iterator<Ticket> iterator() {
+        return new Iterator<>() {
+            private Node next = head;
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Ticket next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Ticket ticket = next.ticket;
+                next = next.next;
+                return ticket;
+            }
+        };
+    }
+
+    private void unlink(Node node) {
+        if (node.prev == null) {
+            head = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next == null) {
+            tail = node.prev;
+        } else {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+    }
+}
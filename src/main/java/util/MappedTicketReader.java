@@ -0,0 +1,300 @@
+package util;
+
+import entities.Ticket;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Loads tickets.txt by memory-mapping the file, cutting it into
+ * newline-aligned chunks and parsing the chunks in parallel on a fork-join
+ * pool. Priorities and timestamps are parsed straight from the mapped bytes,
+ * so the common ISO timestamps never go through LocalDateTime.parse.
+ */
+public class MappedTicketReader {
+
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+    private static final int MAX_CHUNK_SIZE = 1 << 28;
+    private static final int FIELD_COUNT = 7;
+    private static final int MAX_FIELD_COUNT = 8; // closed tickets add their closing date
+
+    /**
+     * Parses every ticket in the file on the common fork-join pool and appends
+     * them to the target array in file order.
+     *
+     * @param filename the name of the file to read from
+     * @param target the array that receives the tickets
+     * @return the number of tickets loaded
+     */
+    public static int readTickets(String filename, DynamicArray<Ticket> target) {
+        return readTickets(filename, target, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parses every ticket in the file on the given pool and appends them to
+     * the target array in file order.
+     *
+     * @param filename the name of the file to read from
+     * @param target the array that receives the tickets
+     * @param pool the pool that parses the chunks
+     * @return the number of tickets loaded
+     */
+    public static int readTickets(String filename, DynamicArray<Ticket> target, ForkJoinPool pool) {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel, pool.getParallelism());
+
+            ChunkParser[] parsers = new ChunkParser[bounds.length - 1];
+            for (int i = 0; i < parsers.length; i++) {
+                parsers[i] = new ChunkParser(channel, bounds[i], bounds[i + 1]);
+            }
+            pool.invoke(new ChunkGroup(parsers));
+
+            int count = 0;
+            for (ChunkParser parser : parsers) {
+                count += parser.join().size();
+            }
+            target.ensureCapacity(target.size() + count);
+            for (ChunkParser parser : parsers) {
+                target.addAll(parser.join());
+            }
+            return count;
+        } catch (NoSuchFileException e) {
+            Logger.getLogger(MappedTicketReader.class.getName()).log(Level.FINE, "No data file yet: " + filename);
+            return 0;
+        } catch (IOException e) {
+            Logger.getLogger(MappedTicketReader.class.getName()).log(Level.SEVERE, null, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Splits the file into roughly equal chunks, moving every inner boundary
+     * forward to just past the next newline.
+     *
+     * @return the chunk start offsets followed by the file size
+     */
+    private static long[] chunkBounds(FileChannel channel, int parallelism) throws IOException {
+        long size = channel.size();
+        long chunkSize = Math.max(MIN_CHUNK_SIZE, size / Math.max(1, parallelism * 4L));
+        chunkSize = Math.min(chunkSize, MAX_CHUNK_SIZE);
+        int chunks = (int) Math.max(1, (size + chunkSize - 1) / chunkSize);
+
+        long[] bounds = new long[chunks + 1];
+        int used = 1;
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        for (int i = 1; i < chunks; i++) {
+            long start = Math.max(i * chunkSize, bounds[used - 1]);
+            long lineStart = nextLineStart(channel, start, size, probe);
+            if (lineStart > bounds[used - 1] && lineStart < size) {
+                bounds[used++] = lineStart;
+            }
+        }
+        bounds[used++] = size;
+
+        long[] result = new long[used];
+        System.arraycopy(bounds, 0, result, 0, used);
+        return result;
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, long size, ByteBuffer probe) throws IOException {
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /**
+     * Forks every chunk parser and waits for all of them.
+     */
+    private static class ChunkGroup extends RecursiveTask<Void> {
+        private static final long serialVersionUID = 1L;
+
+        private final ChunkParser[] parsers;
+
+        ChunkGroup(ChunkParser[] parsers) {
+            this.parsers = parsers;
+        }
+
+        @Override
+        protected Void compute() {
+            invokeAll(parsers);
+            return null;
+        }
+    }
+
+    /**
+     * Maps one chunk of the file and parses the tickets it contains.
+     */
+    private static class ChunkParser extends RecursiveTask<DynamicArray<Ticket>> {
+        private static final long serialVersionUID = 1L;
+
+        // ForkJoinTask is Serializable, but these tasks never leave the pool
+        // they run in; a channel could not be serialized anyway
+        private final transient FileChannel channel;
+        private final long start;
+        private final long end;
+
+        private final int[] fieldStart = new int[MAX_FIELD_COUNT];
+        private final int[] fieldEnd = new int[MAX_FIELD_COUNT];
+        private byte[] line = new byte[256];
+
+        ChunkParser(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected DynamicArray<Ticket> compute() {
+            DynamicArray<Ticket> tickets = new DynamicArray<>();
+            MappedByteBuffer buffer;
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+
+            int limit = buffer.limit();
+            int lineStart = 0;
+            while (lineStart < limit) {
+                int lineEnd = lineStart;
+                while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                int length = lineEnd - lineStart;
+                if (length > 0 && buffer.get(lineEnd - 1) == '\r') {
+                    length--;
+                }
+                if (length > line.length) {
+                    line = new byte[Math.max(length, line.length * 2)];
+                }
+                buffer.get(lineStart, line, 0, length);
+
+                Ticket ticket = parseLine(length);
+                if (ticket != null) {
+                    tickets.add(ticket);
+                }
+                lineStart = lineEnd + 1;
+            }
+            return tickets;
+        }
+
+        private Ticket parseLine(int length) {
+            int fields = 0;
+            int fieldBegin = 0;
+            for (int i = 0; i + 1 < length; i++) {
+                if (line[i] == '%' && line[i + 1] == '%') {
+                    if (fields == MAX_FIELD_COUNT - 1) {
+                        return null;
+                    }
+                    fieldStart[fields] = fieldBegin;
+                    fieldEnd[fields++] = i;
+                    fieldBegin = i + 2;
+                    i++;
+                }
+            }
+            if (fields < FIELD_COUNT - 1) {
+                return null;
+            }
+            fieldStart[fields] = fieldBegin;
+            fieldEnd[fields] = length;
+
+            Ticket ticket = new Ticket(text(0), text(1), parseInt(fieldStart[2], fieldEnd[2]),
+                    parseDateTime(fieldStart[3], fieldEnd[3]), text(4), fileUtil.agentField(text(5)), text(6));
+            if (fields == MAX_FIELD_COUNT - 1) {
+                ticket.setClosedDate(parseDateTime(fieldStart[7], fieldEnd[7]));
+            }
+            return ticket;
+        }
+
+        private String text(int field) {
+            return new String(line, fieldStart[field], fieldEnd[field] - fieldStart[field], StandardCharsets.UTF_8);
+        }
+
+        private int parseInt(int from, int to) {
+            if (from == to) {
+                throw new NumberFormatException("Empty priority field.");
+            }
+            int value = 0;
+            for (int i = from; i < to; i++) {
+                int digit = line[i] - '0';
+                if (digit < 0 || digit > 9 || value > 100_000_000) {
+                    return Integer.parseInt(new String(line, from, to - from, StandardCharsets.US_ASCII).trim());
+                }
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+
+        /**
+         * Parses yyyy-MM-ddTHH:mm[:ss[.fraction]] directly from the line bytes,
+         * falling back to LocalDateTime.parse for anything else.
+         */
+        private LocalDateTime parseDateTime(int from, int to) {
+            int length = to - from;
+            if (length >= 16 && line[from + 4] == '-' && line[from + 7] == '-' && line[from + 10] == 'T'
+                    && line[from + 13] == ':') {
+                int year = digits(from, 4);
+                int month = digits(from + 5, 2);
+                int day = digits(from + 8, 2);
+                int hour = digits(from + 11, 2);
+                int minute = digits(from + 14, 2);
+                int second = 0;
+                int nano = 0;
+                boolean valid = year >= 0 && month >= 0 && day >= 0 && hour >= 0 && minute >= 0;
+
+                if (valid && length > 16) {
+                    valid = length >= 19 && line[from + 16] == ':';
+                    second = valid ? digits(from + 17, 2) : -1;
+                    valid = second >= 0;
+                    if (valid && length > 19) {
+                        int fractionDigits = length - 20;
+                        valid = line[from + 19] == '.' && fractionDigits >= 1 && fractionDigits <= 9;
+                        nano = valid ? digits(from + 20, fractionDigits) : -1;
+                        valid = nano >= 0;
+                        for (int i = fractionDigits; valid && i < 9; i++) {
+                            nano *= 10;
+                        }
+                    }
+                }
+                if (valid) {
+                    return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+                }
+            }
+            return LocalDateTime.parse(new String(line, from, length, StandardCharsets.US_ASCII));
+        }
+
+        private int digits(int from, int count) {
+            int value = 0;
+            for (int i = from; i < from + count; i++) {
+                int digit = line[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    return -1;
+                }
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+    }
+}
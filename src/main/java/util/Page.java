@@ -0,0 +1,201 @@
+package util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * One page of a listing, plus an opaque token for fetching the page after
+ * it. Tokens remember the position reached and the key of the last item on
+ * the page, so a listing that had items removed in between still resumes
+ * right after the last item the caller saw.
+ *
+ * @param <T> the type of the listed items
+ */
+public class Page<T> implements Iterable<T> {
+
+    private final DynamicArray<T> items;
+    private final String nextToken;
+
+    /**
+     * Creates a page.
+     *
+     * @param items the items on this page
+     * @param nextToken the token for the next page, or null if this is the last page
+     */
+    public Page(DynamicArray<T> items, String nextToken) {
+        this.items = items;
+        this.nextToken = nextToken;
+    }
+
+    /**
+     * Returns the items on this page.
+     *
+     * @return the items, in listing order
+     */
+    public DynamicArray<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Returns the number of items on this page.
+     *
+     * @return the number of items
+     */
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Returns true if this page has no items.
+     *
+     * @return true if the page is empty
+     */
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    /**
+     * Returns the token to pass back for the next page.
+     *
+     * @return the continuation token, or null if this is the last page
+     */
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    /**
+     * Returns true if there is a page after this one.
+     *
+     * @return true if more items follow
+     */
+    public boolean hasNext() {
+        return nextToken != null;
+    }
+
+    /**
+     * Returns an iterator over the items on this page.
+     *
+     * @return an iterator over the items
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return items.iterator();
+    }
+
+    /**
+     * Cuts one page out of an array, in array order.
+     *
+     * @param source the array to page through
+     * @param pageSize the most items to return
+     * @param token the token of the previous page, or null for the first page
+     * @param keyOf gives the unique key of an item, used to resume after removals
+     * @param filter only items it accepts are listed
+     * @param <T> the type of the listed items
+     * @return the page
+     * @throws IllegalArgumentException if the page size is not positive or the token is invalid
+     */
+    public static <T> Page<T> slice(DynamicArray<T> source, int pageSize, String token,
+                                    Function<? super T, String> keyOf, Predicate<? super T> filter) {
+        checkPageSize(pageSize);
+        int start = resume(source, token, keyOf);
+
+        DynamicArray<T> items = new DynamicArray<>(Math.min(pageSize, source.size() - start));
+        int i = start;
+        for (; i < source.size() && items.size() < pageSize; i++) {
+            T item = source.get(i);
+            if (filter.test(item)) {
+                items.add(item);
+            }
+        }
+        // Only hand out a token if another accepted item really follows
+        int next = i;
+        while (next < source.size() && !filter.test(source.get(next))) {
+            next++;
+        }
+        String nextToken = next < source.size() && !items.isEmpty()
+                ? token(i, keyOf.apply(items.get(items.size() - 1))) : null;
+        return new Page<>(items, nextToken);
+    }
+
+    /**
+     * Cuts one page out of an array, in array order, listing every item.
+     *
+     * @param source the array to page through
+     * @param pageSize the most items to return
+     * @param token the token of the previous page, or null for the first page
+     * @param keyOf gives the unique key of an item, used to resume after removals
+     * @param <T> the type of the listed items
+     * @return the page
+     * @throws IllegalArgumentException if the page size is not positive or the token is invalid
+     */
+    public static <T> Page<T> slice(DynamicArray<T> source, int pageSize, String token,
+                                    Function<? super T, String> keyOf) {
+        return slice(source, pageSize, token, keyOf, item -> true);
+    }
+
+    /**
+     * Finds where to continue listing: just after the last item of the
+     * previous page, looking back for it if earlier items were removed.
+     */
+    private static <T> int resume(DynamicArray<T> source, String token, Function<? super T, String> keyOf) {
+        if (token == null) {
+            return 0;
+        }
+        int position = position(token);
+        String lastKey = lastKey(token);
+        for (int i = Math.min(position, source.size()) - 1; i >= 0; i--) {
+            if (lastKey.equals(keyOf.apply(source.get(i)))) {
+                return i + 1;
+            }
+        }
+        return Math.min(position, source.size());
+    }
+
+    static void checkPageSize(int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive.");
+        }
+    }
+
+    /**
+     * Builds a token from the position after the last listed item and that
+     * item's key.
+     */
+    static String token(int position, String lastKey) {
+        String raw = position + ":" + lastKey;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static int position(String token) {
+        String raw = decode(token);
+        try {
+            int position = Integer.parseInt(raw.substring(0, raw.indexOf(':')));
+            if (position < 0) {
+                throw new IllegalArgumentException("Invalid page token.");
+            }
+            return position;
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid page token.", e);
+        }
+    }
+
+    static String lastKey(String token) {
+        String raw = decode(token);
+        int colon = raw.indexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Invalid page token.");
+        }
+        return raw.substring(colon + 1);
+    }
+
+    private static String decode(String token) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page token.", e);
+        }
+    }
+}
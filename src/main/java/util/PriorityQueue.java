@@ -5,25 +5,57 @@ import entities.Ticket;
 /**
  * A custom PriorityQueue that stores Ticket objects in descending order
  * of priority. Tickets with the same priority are ordered by insertion.
+ *
+ * The queue is backed by an array-based binary heap, so add and remove run
+ * in O(log n) without allocating a node per ticket. A ticketId to slot index
+ * allows a queued ticket to be re-prioritised or removed in place.
+ *
+ * Ordering follows an {@link AgingPolicy}, so a ticket that has waited long
+ * enough overtakes newer tickets of higher priority. Each ticket's rank key
+ * is worked out once, when it is added or re-prioritised, and kept beside it
+ * in the heap.
  */
 public class PriorityQueue {
 
-    private class Node {
-        Ticket data;
-        Node next;
+    private static final int DEFAULT_CAPACITY = 16;
 
-        public Node(Ticket data) {
-            this.data = data;
-            this.next = null;
-        }
-    }
-
-    private Node head;
+    private final AgingPolicy aging;
+    private Ticket[] heap;
+    private long[] keys; // rank key of each slot, smallest first
+    private long[] order; // insertion sequence of each slot, used to keep equal tickets FIFO
     private int size;
+    private long nextOrder;
+    private HashMap<String, Integer> slots; // ticketId -> heap slot
 
     public PriorityQueue() {
-        head = null;
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty queue with room for the given number of tickets,
+     * ordered by the default aging policy.
+     * @param capacity the initial capacity
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    public PriorityQueue(int capacity) {
+        this(capacity, AgingPolicy.DEFAULT);
+    }
+
+    /**
+     * Creates an empty queue with room for the given number of tickets.
+     * @param capacity the initial capacity
+     * @param aging how waiting time is weighed against priority
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    public PriorityQueue(int capacity, AgingPolicy aging) {
+        if (capacity < 0) throw new IllegalArgumentException("Capacity cannot be negative.");
+        this.aging = aging;
+        heap = new Ticket[Math.max(capacity, 1)];
+        keys = new long[heap.length];
+        order = new long[heap.length];
+        slots = new HashMap<>();
         size = 0;
+        nextOrder = 0;
     }
 
     /**
@@ -45,7 +77,10 @@ public class PriorityQueue {
      * Removes all tickets from the queue.
      */
     public void clear() {
-        head = null;
+        for (int i = 0; i < size; i++) {
+            heap[i] = null;
+        }
+        slots = new HashMap<>();
         size = 0;
     }
 
@@ -54,32 +89,36 @@ public class PriorityQueue {
      * @return top ticket or null if empty
      */
     public Ticket peek() {
-        if (head == null) {
+        if (size == 0) {
             return null;
         }
-        return head.data;
+        return heap[0];
     }
 
     /**
      * Adds a new ticket to the queue based on its priority.
+     * If a ticket with the same id is already queued it is moved to match
+     * its current priority instead of being added twice.
      * @param ticket the Ticket to be added
      */
     public void add(Ticket ticket) {
-        Node newNode = new Node(ticket);
+        Integer existing = slots.get(ticket.getTicketId());
+        if (existing != null) {
+            heap[existing] = ticket;
+            keys[existing] = aging.rank(ticket);
+            reposition(existing);
+            return;
+        }
 
-        if (head == null || ticket.compareTo(head.data) > 0) {
-            newNode.next = head;
-            head = newNode;
-        } else {
-            Node current = head;
-            while (current.next != null && ticket.compareTo(current.next.data) <= 0) {
-                current = current.next;
-            }
-            newNode.next = current.next;
-            current.next = newNode;
+        if (size == heap.length) {
+            grow();
         }
+        heap[size] = ticket;
+        keys[size] = aging.rank(ticket);
+        order[size] = nextOrder++;
+        slots.put(ticket.getTicketId(), size);
         size++;
-
+        siftUp(size - 1);
     }
 
     /**
@@ -87,15 +126,149 @@ public class PriorityQueue {
      * @return the removed ticket or null if empty
      */
     public Ticket remove() {
-        if (head == null) {
+        if (size == 0) {
+            return null;
+        }
+        return removeSlot(0);
+    }
+
+    /**
+     * Removes the ticket with the given id from anywhere in the queue.
+     * @param ticketId the id of the ticket to remove
+     * @return the removed ticket or null if it was not queued
+     */
+    public Ticket remove(String ticketId) {
+        Integer slot = slots.get(ticketId);
+        if (slot == null) {
             return null;
         }
+        return removeSlot(slot);
+    }
+
+    /**
+     * Checks whether a ticket with the given id is queued.
+     * @param ticketId the ticket id to look for
+     * @return true if the ticket is in the queue
+     */
+    public boolean contains(String ticketId) {
+        return slots.containsKey(ticketId);
+    }
+
+    /**
+     * Returns the queued ticket with the given id without removing it.
+     * @param ticketId the ticket id to look for
+     * @return the ticket or null if it is not queued
+     */
+    public Ticket get(String ticketId) {
+        Integer slot = slots.get(ticketId);
+        return slot == null ? null : heap[slot];
+    }
+
+    /**
+     * Changes the priority of a queued ticket and moves it to its new place.
+     * @param ticketId the id of the ticket to re-prioritise
+     * @param priorityLevel the new priority (1 to 5)
+     * @return true if the ticket was queued and has been updated
+     * @throws IllegalArgumentException if the priority is out of range
+     */
+    public boolean updatePriority(String ticketId, int priorityLevel) {
+        Integer slot = slots.get(ticketId);
+        if (slot == null) {
+            return false;
+        }
+        heap[slot].setPriorityLevel(priorityLevel);
+        keys[slot] = aging.rank(heap[slot]);
+        reposition(slot);
+        return true;
+    }
 
-        Ticket removedTicket = head.data;
-        head = head.next;
-        size--;
+    private Ticket removeSlot(int slot) {
+        Ticket removedTicket = heap[slot];
+        slots.remove(removedTicket.getTicketId());
+
+        int last = --size;
+        if (slot != last) {
+            move(last, slot);
+            heap[last] = null;
+            reposition(slot);
+        } else {
+            heap[last] = null;
+        }
         return removedTicket;
     }
 
+    private void reposition(int slot) {
+        if (slot > 0 && higher(slot, (slot - 1) / 2)) {
+            siftUp(slot);
+        } else {
+            siftDown(slot);
+        }
+    }
+
+    private void siftUp(int slot) {
+        Ticket ticket = heap[slot];
+        long key = keys[slot];
+        long seq = order[slot];
+        while (slot > 0) {
+            int parent = (slot - 1) / 2;
+            if (!higher(key, seq, keys[parent], order[parent])) {
+                break;
+            }
+            move(parent, slot);
+            slot = parent;
+        }
+        place(ticket, key, seq, slot);
+    }
+
+    private void siftDown(int slot) {
+        Ticket ticket = heap[slot];
+        long key = keys[slot];
+        long seq = order[slot];
+        int half = size / 2;
+        while (slot < half) {
+            int child = 2 * slot + 1;
+            int right = child + 1;
+            if (right < size && higher(right, child)) {
+                child = right;
+            }
+            if (!higher(keys[child], order[child], key, seq)) {
+                break;
+            }
+            move(child, slot);
+            slot = child;
+        }
+        place(ticket, key, seq, slot);
+    }
+
+    private boolean higher(int a, int b) {
+        return higher(keys[a], order[a], keys[b], order[b]);
+    }
 
+    private static boolean higher(long keyA, long orderA, long keyB, long orderB) {
+        return keyA < keyB || (keyA == keyB && orderA < orderB);
+    }
+
+    private void move(int from, int to) {
+        place(heap[from], keys[from], order[from], to);
+    }
+
+    private void place(Ticket ticket, long key, long seq, int slot) {
+        heap[slot] = ticket;
+        keys[slot] = key;
+        order[slot] = seq;
+        slots.put(ticket.getTicketId(), slot);
+    }
+
+    private void grow() {
+        int capacity = heap.length * 2;
+        Ticket[] newHeap = new Ticket[capacity];
+        long[] newKeys = new long[capacity];
+        long[] newOrder = new long[capacity];
+        System.arraycopy(heap, 0, newHeap, 0, size);
+        System.arraycopy(keys, 0, newKeys, 0, size);
+        System.arraycopy(order, 0, newOrder, 0, size);
+        heap = newHeap;
+        keys = newKeys;
+        order = newOrder;
+    }
 }
@@ -0,0 +1,87 @@
+package util;
+
+import java.time.Duration;
+
+/**
+ * The service level targets for each priority: how soon a ticket must be
+ * picked up by an agent (response) and how soon it must be closed
+ * (resolution), both measured from its creation. A ticket is near breach
+ * once the given share of a target has passed.
+ */
+public final class SlaPolicy {
+
+    private static final int LEVELS = 5;
+
+    /**
+     * Response within 1 day, 8 hours, 4 hours, 1 hour and 15 minutes, and
+     * resolution within 7 days, 3 days, 1 day, 8 hours and 4 hours, for
+     * priorities 1 to 5. Near breach at 80% of a target.
+     */
+    public static final SlaPolicy DEFAULT = new SlaPolicy(
+            new Duration[]{Duration.ofDays(1), Duration.ofHours(8), Duration.ofHours(4),
+                    Duration.ofHours(1), Duration.ofMinutes(15)},
+            new Duration[]{Duration.ofDays(7), Duration.ofDays(3), Duration.ofDays(1),
+                    Duration.ofHours(8), Duration.ofHours(4)},
+            0.8);
+
+    private final Duration[] response; // indexed by priority - 1
+    private final Duration[] resolution;
+    private final double warningShare;
+
+    /**
+     * Creates a policy.
+     *
+     * @param response the response targets of priorities 1 to 5
+     * @param resolution the resolution targets of priorities 1 to 5
+     * @param warningShare the share of a target after which a ticket is near breach, above 0 and at most 1
+     * @throws IllegalArgumentException if there are not five of each target, a
+     *         target is not positive, or the share is out of range
+     */
+    public SlaPolicy(Duration[] response, Duration[] resolution, double warningShare) {
+        if (response.length != LEVELS || resolution.length != LEVELS) {
+            throw new IllegalArgumentException("A target is needed for each of the " + LEVELS + " priorities.");
+        }
+        for (int i = 0; i < LEVELS; i++) {
+            if (response[i].isNegative() || response[i].isZero()
+                    || resolution[i].isNegative() || resolution[i].isZero()) {
+                throw new IllegalArgumentException("SLA targets must be positive.");
+            }
+        }
+        if (!(warningShare > 0 && warningShare <= 1)) {
+            throw new IllegalArgumentException("The warning share must be above 0 and at most 1.");
+        }
+        this.response = response.clone();
+        this.resolution = resolution.clone();
+        this.warningShare = warningShare;
+    }
+
+    /**
+     * Returns how soon a ticket of the given priority must be picked up.
+     *
+     * @param priority the priority level, 1 to 5
+     * @return the response target
+     */
+    public Duration responseTarget(int priority) {
+        return response[priority - 1];
+    }
+
+    /**
+     * Returns how soon a ticket of the given priority must be closed.
+     *
+     * @param priority the priority level, 1 to 5
+     * @return the resolution target
+     */
+    public Duration resolutionTarget(int priority) {
+        return resolution[priority - 1];
+    }
+
+    /**
+     * Returns how far into a target a ticket becomes near breach.
+     *
+     * @param target a response or resolution target
+     * @return the share of the target given by the warning share
+     */
+    public Duration warningAfter(Duration target) {
+        return Duration.ofMillis((long) (target.toMillis() * warningShare));
+    }
+}
@@ -0,0 +1,253 @@
+package util;
+
+import entities.Ticket;
+import entities.TicketStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Watches the response and resolution deadlines of open tickets and reports
+ * each one as it comes near and as it passes. Every deadline is a timer on a
+ * {@link TimerWheel}, so the scheduler needs one clock thread for any number
+ * of tickets and never scans the store: each call to {@link #tick} only
+ * touches the timers that are due.
+ *
+ * The response timers of a ticket are dropped once it is assigned, and all
+ * of its timers once it is closed. Deadlines a ticket has already been
+ * escalated for, as recorded in {@link Ticket#getMissedDeadlines()}, are not
+ * watched again, so tracking a ticket after a restart does not repeat an
+ * escalation. Events are passed to the listener outside the scheduler's
+ * lock, so the listener may change the ticket and track it again.
+ */
+public class SlaScheduler {
+
+    /**
+     * What an event reports.
+     */
+    public enum Kind {
+        RESPONSE_WARNING,
+        RESPONSE_BREACH,
+        RESOLUTION_WARNING,
+        RESOLUTION_BREACH;
+
+        /**
+         * @return true if the deadline has passed, false if it is only near
+         */
+        public boolean isBreach() {
+            return this == RESPONSE_BREACH || this == RESOLUTION_BREACH;
+        }
+
+        /**
+         * @return the bit standing for this kind's deadline in
+         *         {@link Ticket#getMissedDeadlines()}: 1 for response, 2 for resolution
+         */
+        public int deadlineBit() {
+            return this == RESPONSE_WARNING || this == RESPONSE_BREACH ? RESPONSE : RESOLUTION;
+        }
+    }
+
+    /**
+     * A deadline that has come near or passed.
+     *
+     * @param ticketId the ticket the deadline belongs to
+     * @param kind which deadline it is, and whether it has passed
+     * @param deadline when the target is breached
+     */
+    public record Event(String ticketId, Kind kind, LocalDateTime deadline) {
+    }
+
+    /**
+     * Receives events as they fall due.
+     */
+    public interface Listener {
+        void deadlineReached(Event event);
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+    private static final int RESPONSE = 1;
+    private static final int RESOLUTION = 2;
+
+    private final SlaPolicy policy;
+    private final long tickMicros;
+    private final Listener listener;
+    private final TimerWheel<Event> wheel;
+    private final HashMap<String, TimerWheel.Timer<Event>[]> timers = new HashMap<>(); // indexed by Kind
+
+    /**
+     * Creates a scheduler with no tickets.
+     *
+     * @param policy the SLA targets
+     * @param tick how finely deadlines are timed
+     * @param now the current time
+     * @param listener receives the events
+     * @throws IllegalArgumentException if the tick is shorter than a microsecond
+     */
+    public SlaScheduler(SlaPolicy policy, Duration tick, LocalDateTime now, Listener listener) {
+        this.tickMicros = tick.toNanos() / 1000;
+        if (tickMicros < 1) throw new IllegalArgumentException("The tick must be at least a microsecond.");
+        this.policy = policy;
+        this.listener = listener;
+        this.wheel = new TimerWheel<>(tickOf(now));
+    }
+
+    /**
+     * Starts watching a ticket, replacing any deadlines it already had. A
+     * ticket that has no agent gets a response deadline, and one that is not
+     * solved or closed gets a resolution deadline; both are set from its
+     * creation date and priority. Deadlines already passed fall due at the
+     * next tick, without a warning first. Deadlines the ticket has already
+     * missed are skipped, and once the resolution deadline is missed nothing
+     * is left to watch.
+     *
+     * @param ticket the ticket
+     */
+    public synchronized void track(Ticket ticket) {
+        cancel(ticket.getTicketId());
+        TicketStatus status = ticket.getTicketStatus();
+        int missed = ticket.getMissedDeadlines();
+        if (status == TicketStatus.SOLVED || status == TicketStatus.CLOSED || (missed & RESOLUTION) != 0) {
+            return;
+        }
+        TimerWheel.Timer<Event>[] set = DynamicArray.newArray(KINDS.length);
+        int priority = ticket.getPriorityLevel();
+        String agent = ticket.getAllocatedAgentId();
+        if ((agent == null || agent.isEmpty()) && (missed & RESPONSE) == 0) {
+            schedule(set, ticket, Kind.RESPONSE_WARNING, Kind.RESPONSE_BREACH, policy.responseTarget(priority));
+        }
+        schedule(set, ticket, Kind.RESOLUTION_WARNING, Kind.RESOLUTION_BREACH, policy.resolutionTarget(priority));
+        timers.put(ticket.getTicketId(), set);
+    }
+
+    /**
+     * Drops a ticket's response deadline, once an agent has picked it up.
+     *
+     * @param ticketId the ticket id
+     */
+    public synchronized void assigned(String ticketId) {
+        TimerWheel.Timer<Event>[] set = timers.get(ticketId);
+        if (set != null) {
+            drop(set, Kind.RESPONSE_WARNING);
+            drop(set, Kind.RESPONSE_BREACH);
+            if (isEmpty(set)) {
+                timers.remove(ticketId);
+            }
+        }
+    }
+
+    /**
+     * Stops watching a ticket, e.g. once it is closed.
+     *
+     * @param ticketId the ticket id
+     */
+    public synchronized void cancel(String ticketId) {
+        TimerWheel.Timer<Event>[] set = timers.remove(ticketId);
+        if (set != null) {
+            for (TimerWheel.Timer<Event> timer : set) {
+                if (timer != null) {
+                    wheel.cancel(timer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the clock to the given time and passes every event that has
+     * fallen due to the listener, in deadline order. A ticket is reported at
+     * most once per breach and once per tick: when both of its deadlines are
+     * breached together, as for an overdue ticket tracked at startup, only
+     * the resolution breach is passed on.
+     *
+     * @param now the current time
+     * @return the number of events passed on
+     */
+    public int tick(LocalDateTime now) {
+        DynamicArray<Event> due = new DynamicArray<>();
+        synchronized (this) {
+            wheel.advance(tickOf(now), due);
+            for (int i = 0; i < due.size(); i++) {
+                Event event = due.get(i);
+                TimerWheel.Timer<Event>[] set = timers.get(event.ticketId());
+                if (set != null) {
+                    set[event.kind().ordinal()] = null;
+                    if (isEmpty(set)) {
+                        timers.remove(event.ticketId());
+                    }
+                }
+            }
+        }
+        if (due.size() > 1) {
+            due = coalesce(due);
+        }
+        for (int i = 0; i < due.size(); i++) {
+            listener.deadlineReached(due.get(i));
+        }
+        return due.size();
+    }
+
+    /**
+     * Returns the number of deadlines waiting to fall due.
+     *
+     * @return the number of pending warnings and breaches
+     */
+    public int pending() {
+        return wheel.size();
+    }
+
+    /**
+     * Drops a response breach when the same ticket's resolution deadline is
+     * breached in the same batch, so a ticket is escalated once per tick.
+     */
+    private static DynamicArray<Event> coalesce(DynamicArray<Event> due) {
+        HashMap<String, Boolean> resolutionBreached = new HashMap<>(due.size());
+        for (Event event : due) {
+            if (event.kind() == Kind.RESOLUTION_BREACH) {
+                resolutionBreached.put(event.ticketId(), Boolean.TRUE);
+            }
+        }
+        DynamicArray<Event> kept = new DynamicArray<>(due.size());
+        for (Event event : due) {
+            if (event.kind() != Kind.RESPONSE_BREACH || !resolutionBreached.containsKey(event.ticketId())) {
+                kept.add(event);
+            }
+        }
+        return kept;
+    }
+
+    private void schedule(TimerWheel.Timer<Event>[] set, Ticket ticket, Kind warning, Kind breach, Duration target) {
+        LocalDateTime created = ticket.getCreationDate();
+        LocalDateTime deadline = created.plus(target);
+        long breachTick = deadlineTick(deadline);
+        long warningTick = deadlineTick(created.plus(policy.warningAfter(target)));
+        if (warningTick > wheel.now() && warningTick < breachTick) {
+            set[warning.ordinal()] = wheel.schedule(new Event(ticket.getTicketId(), warning, deadline), warningTick);
+        }
+        set[breach.ordinal()] = wheel.schedule(new Event(ticket.getTicketId(), breach, deadline), breachTick);
+    }
+
+    private void drop(TimerWheel.Timer<Event>[] set, Kind kind) {
+        TimerWheel.Timer<Event> timer = set[kind.ordinal()];
+        if (timer != null) {
+            wheel.cancel(timer);
+            set[kind.ordinal()] = null;
+        }
+    }
+
+    private static boolean isEmpty(TimerWheel.Timer<Event>[] set) {
+        for (TimerWheel.Timer<Event> timer : set) {
+            if (timer != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long tickOf(LocalDateTime time) {
+        return Math.floorDiv(TicketSnapshotWriter.toEpochMicros(time), tickMicros);
+    }
+
+    // A deadline falls due at the first tick not before it
+    private long deadlineTick(LocalDateTime time) {
+        return Math.ceilDiv(TicketSnapshotWriter.toEpochMicros(time), tickMicros);
+    }
+}
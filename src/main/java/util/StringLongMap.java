@@ -0,0 +1,140 @@
+package util;
+
+/**
+ * A map from non-null strings to non-negative longs that stores the values
+ * in a primitive array, so putting and reading a value never boxes it.
+ * It probes the same way as {@link HashMap}, through {@link LinearProbing},
+ * and doubles the table once it is three quarters full. A missing key reads
+ * as {@link #MISSING}.
+ */
+final class StringLongMap {
+
+    /**
+     * Returned for a key that is not in the map.
+     */
+    static final long MISSING = -1;
+
+    private static final int INITIAL_SIZE = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private String[] keys;
+    private long[] values;
+    private int threshold;
+    private int count;
+
+    /**
+     * Creates an empty map.
+     */
+    StringLongMap() {
+        allocate(INITIAL_SIZE);
+    }
+
+    /**
+     * Returns the number of keys in the map.
+     *
+     * @return the size of the map
+     */
+    int size() {
+        return count;
+    }
+
+    /**
+     * Returns the value stored for a key.
+     *
+     * @param key the key
+     * @return the value, or {@link #MISSING} if the key is not in the map
+     */
+    long get(String key) {
+        int slot = findSlot(key);
+        return slot < 0 ? MISSING : values[slot];
+    }
+
+    /**
+     * Checks if the map contains the given key.
+     *
+     * @param key the key
+     * @return true if the key exists, otherwise false
+     */
+    boolean containsKey(String key) {
+        return findSlot(key) >= 0;
+    }
+
+    /**
+     * Inserts or updates the value for a key.
+     *
+     * @param key the key
+     * @param value the value, which must not be negative
+     * @throws IllegalArgumentException if the value is negative
+     * @throws IllegalStateException if the key is new and the map is at its maximum size
+     */
+    void put(String key, long value) {
+        if (value < 0) throw new IllegalArgumentException("Values cannot be negative.");
+        int slot = LinearProbing.probe(keys, key);
+        if (keys[slot] != null) {
+            values[slot] = value;
+            return;
+        }
+
+        if (count == threshold && keys.length == LinearProbing.MAXIMUM_SIZE) {
+            throw new IllegalStateException("Map cannot hold more than " + threshold + " entries.");
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++count > threshold) {
+            resize();
+        }
+    }
+
+    /**
+     * Removes a key from the map.
+     *
+     * @param key the key
+     * @return the removed value, or {@link #MISSING} if the key was not in the map
+     */
+    long remove(String key) {
+        int slot = findSlot(key);
+        if (slot < 0) {
+            return MISSING;
+        }
+        long value = values[slot];
+        deleteSlot(slot);
+        count--;
+        return value;
+    }
+
+    private int findSlot(String key) {
+        int slot = LinearProbing.probe(keys, key);
+        return keys[slot] == null ? -1 : slot;
+    }
+
+    private void deleteSlot(int gap) {
+        int next;
+        while ((next = LinearProbing.nextToShift(keys, gap)) >= 0) {
+            keys[gap] = keys[next];
+            values[gap] = values[next];
+            gap = next;
+        }
+        keys[gap] = null;
+    }
+
+    private void resize() {
+        String[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(oldKeys.length * 2);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            String key = oldKeys[i];
+            if (key != null) {
+                int slot = LinearProbing.probe(keys, key);
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int size) {
+        keys = new String[size];
+        values = new long[size];
+        threshold = LinearProbing.threshold(size, LOAD_FACTOR);
+    }
+}
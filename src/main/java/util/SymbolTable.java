@@ -0,0 +1,67 @@
+package util;
+
+/**
+ * Interns strings into small dense integer ids. Each distinct string is
+ * stored once, and the same string always maps to the same id, so callers
+ * can keep and compare ints instead of String references.
+ */
+public class SymbolTable {
+
+    private final HashMap<String, Integer> ids;
+    private final DynamicArray<String> names;
+
+    /**
+     * Creates an empty symbol table.
+     */
+    public SymbolTable() {
+        ids = new HashMap<>();
+        names = new DynamicArray<>();
+    }
+
+    /**
+     * Returns the id of a string, assigning the next free id if it is new.
+     *
+     * @param name the string to intern
+     * @return the string's id
+     * @throws IllegalArgumentException if name is null
+     */
+    public synchronized int intern(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = names.size();
+            ids.put(name, id);
+            names.add(name);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the id of a string without interning it.
+     *
+     * @param name the string to look up
+     * @return the string's id, or -1 if it has not been interned
+     */
+    public synchronized int find(String name) {
+        Integer id = name == null ? null : ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the canonical string for an id.
+     *
+     * @param id an id returned by {@link #intern(String)}
+     * @return the interned string
+     */
+    public synchronized String name(int id) {
+        return names.get(id);
+    }
+
+    /**
+     * Returns the number of interned strings.
+     *
+     * @return the number of symbols
+     */
+    public synchronized int size() {
+        return names.size();
+    }
+}
@@ -0,0 +1,308 @@
+package util;
+
+import entities.Ticket;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Append-only file of tickets that were closed long enough ago to leave the
+ * live store. Records use the tickets.txt format, one per line. Only an
+ * index of file offsets is kept in memory: by ticket id, by allocated agent
+ * and by reporting user. Archived tickets are read back from disk one record
+ * at a time, when they are asked for.
+ */
+public class TicketArchive implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int RECORD_FIELDS = 8;
+
+    /**
+     * A growable list of file offsets, kept as primitives.
+     */
+    private static class Offsets {
+        long[] values = new long[4];
+        int size;
+
+        void add(long offset) {
+            if (size == values.length) {
+                long[] grown = new long[size * 2];
+                System.arraycopy(values, 0, grown, 0, size);
+                values = grown;
+            }
+            values[size++] = offset;
+        }
+    }
+
+    private final FileChannel channel;
+    private final HashMap<String, Long> byId = new HashMap<>();
+    private final HashMap<String, Offsets> byAgent = new HashMap<>();
+    private final HashMap<String, Offsets> byReporter = new HashMap<>();
+    private long end;
+
+    /**
+     * Opens an archive file, creating it if needed, and indexes the records
+     * already in it. A partly written last record left by a crash is cut off.
+     *
+     * @param filename the archive file name
+     * @throws IOException if the file cannot be opened or read
+     */
+    public TicketArchive(String filename) throws IOException {
+        channel = FileChannel.open(Paths.get(filename),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        end = index();
+        if (end < channel.size()) {
+            channel.truncate(end);
+        }
+    }
+
+    /**
+     * Appends a ticket to the archive and indexes it. The record is not
+     * forced to disk until {@link #sync()} is called.
+     *
+     * @param ticket the ticket to archive
+     * @throws IOException if the record cannot be written
+     * @throws IllegalArgumentException if the ticket is already archived
+     */
+    public synchronized void append(Ticket ticket) throws IOException {
+        if (byId.containsKey(ticket.getTicketId())) {
+            throw new IllegalArgumentException("Ticket " + ticket.getTicketId() + " is already archived.");
+        }
+        byte[] record = (fileUtil.toRecord(ticket) + "\n").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        long offset = end;
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, offset + buffer.position());
+        }
+        end += record.length;
+        index(offset, ticket.getTicketId(), ticket.getReportingUsername(), ticket.getAllocatedAgentId());
+    }
+
+    /**
+     * Forces every appended record to disk.
+     *
+     * @throws IOException if the file cannot be synced
+     */
+    public void sync() throws IOException {
+        channel.force(false);
+    }
+
+    /**
+     * Returns true if the ticket with the given id is archived.
+     *
+     * @param ticketId the ticket id
+     * @return true if the ticket is in the archive
+     */
+    public synchronized boolean contains(String ticketId) {
+        return byId.containsKey(ticketId);
+    }
+
+    /**
+     * Returns the number of archived tickets.
+     *
+     * @return the number of tickets in the archive
+     */
+    public synchronized int size() {
+        return byId.size();
+    }
+
+    /**
+     * Reads an archived ticket from disk.
+     *
+     * @param ticketId the ticket id
+     * @return the ticket, or null if it is not archived or cannot be read
+     */
+    public Ticket read(String ticketId) {
+        Long offset;
+        synchronized (this) {
+            offset = byId.get(ticketId);
+        }
+        return offset == null ? null : readAt(offset);
+    }
+
+    /**
+     * Returns the number of archived tickets allocated to an agent.
+     *
+     * @param agentId the agent id
+     * @return the number of the agent's archived tickets
+     */
+    public synchronized int countByAgent(String agentId) {
+        Offsets offsets = agentId == null ? null : byAgent.get(agentId);
+        return offsets == null ? 0 : offsets.size;
+    }
+
+    /**
+     * Reads some of an agent's archived tickets from disk, in archive order.
+     *
+     * @param agentId the agent id
+     * @param from the position of the first ticket to read
+     * @param max the most tickets to read
+     * @return the tickets read, empty if there are none at that position
+     */
+    public DynamicArray<Ticket> readByAgent(String agentId, int from, int max) {
+        return readRange(byAgent, agentId, from, max);
+    }
+
+    /**
+     * Returns one page of an agent's archived tickets, in archive order.
+     * Pages are read from disk only when asked for.
+     *
+     * @param agentId the agent id
+     * @param pageSize the most tickets to return
+     * @param token the token of the previous page, or null for the first page
+     * @return the page
+     * @throws IllegalArgumentException if the page size is not positive or the token is invalid
+     */
+    public Page<Ticket> pageByAgent(String agentId, int pageSize, String token) {
+        Page.checkPageSize(pageSize);
+        // The archive is append-only, so positions never shift
+        int from = token == null ? 0 : Page.position(token);
+        DynamicArray<Ticket> items = readByAgent(agentId, from, pageSize);
+        int next = from + pageSize;
+        String nextToken = next < countByAgent(agentId) && !items.isEmpty()
+                ? Page.token(next, items.get(items.size() - 1).getTicketId()) : null;
+        return new Page<>(items, nextToken);
+    }
+
+    /**
+     * Returns the number of archived tickets reported by a user.
+     *
+     * @param username the reporting user
+     * @return the number of the user's archived tickets
+     */
+    public synchronized int countByReporter(String username) {
+        Offsets offsets = username == null ? null : byReporter.get(username);
+        return offsets == null ? 0 : offsets.size;
+    }
+
+    /**
+     * Reads some of a user's archived tickets from disk, in archive order.
+     *
+     * @param username the reporting user
+     * @param from the position of the first ticket to read
+     * @param max the most tickets to read
+     * @return the tickets read, empty if there are none at that position
+     */
+    public DynamicArray<Ticket> readByReporter(String username, int from, int max) {
+        return readRange(byReporter, username, from, max);
+    }
+
+    /**
+     * Closes the archive file.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private DynamicArray<Ticket> readRange(HashMap<String, Offsets> index, String key, int from, int max) {
+        long[] wanted;
+        synchronized (this) {
+            Offsets offsets = key == null ? null : index.get(key);
+            int count = offsets == null ? 0 : Math.max(0, Math.min(max, offsets.size - from));
+            wanted = new long[count];
+            if (count > 0) {
+                System.arraycopy(offsets.values, from, wanted, 0, count);
+            }
+        }
+        DynamicArray<Ticket> tickets = new DynamicArray<>(wanted.length);
+        for (long offset : wanted) {
+            Ticket ticket = readAt(offset);
+            if (ticket != null) {
+                tickets.add(ticket);
+            }
+        }
+        return tickets;
+    }
+
+    /**
+     * Reads the record starting at the given offset.
+     */
+    private Ticket readAt(long offset) {
+        ByteBuffer buffer = ByteBuffer.allocate(512);
+        try {
+            while (true) {
+                int read = channel.read(buffer, offset + buffer.position());
+                for (int i = 0; i < buffer.position(); i++) {
+                    if (buffer.get(i) == '\n') {
+                        return parse(new String(buffer.array(), 0, i, StandardCharsets.UTF_8));
+                    }
+                }
+                if (read < 0) {
+                    return null;
+                }
+                if (!buffer.hasRemaining()) {
+                    ByteBuffer grown = ByteBuffer.allocate(buffer.capacity() * 2);
+                    buffer.flip();
+                    grown.put(buffer);
+                    buffer = grown;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Logger.getLogger(TicketArchive.class.getName()).log(Level.SEVERE, null, e);
+            return null;
+        }
+    }
+
+    private static Ticket parse(String line) {
+        String[] parts = new String[RECORD_FIELDS];
+        int fields = fileUtil.splitFields(line, parts);
+        return fields == RECORD_FIELDS || fields == RECORD_FIELDS - 1 ? fileUtil.toTicket(parts) : null;
+    }
+
+    /**
+     * Scans the whole file once and indexes every complete record.
+     *
+     * @return the offset just past the last complete record
+     */
+    private long index() throws IOException {
+        InputStream in = new BufferedInputStream(Channels.newInputStream(channel.position(0)), BUFFER_SIZE);
+        ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+        String[] parts = new String[RECORD_FIELDS];
+        long offset = 0;
+        long lineStart = 0;
+        int b;
+        while ((b = in.read()) >= 0) {
+            offset++;
+            if (b != '\n') {
+                line.write(b);
+                continue;
+            }
+            int fields = fileUtil.splitFields(line.toString(StandardCharsets.UTF_8), parts);
+            if (fields >= RECORD_FIELDS - 1) {
+                index(lineStart, parts[0], parts[4], fileUtil.agentField(parts[5]));
+            }
+            line.reset();
+            lineStart = offset;
+        }
+        return lineStart;
+    }
+
+    private void index(long offset, String ticketId, String reporter, String agentId) {
+        byId.put(ticketId, offset);
+        offsets(byReporter, reporter).add(offset);
+        if (agentId != null) {
+            offsets(byAgent, agentId).add(offset);
+        }
+    }
+
+    private static Offsets offsets(HashMap<String, Offsets> index, String key) {
+        Offsets offsets = index.get(key);
+        if (offsets == null) {
+            offsets = new Offsets();
+            index.put(key, offsets);
+        }
+        return offsets;
+    }
+}
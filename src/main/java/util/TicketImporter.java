@@ -0,0 +1,254 @@
+package util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import entities.Ticket;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Reads tickets in bulk from CSV or JSON lines, for importing tickets that
+ * were raised outside the system.
+ *
+ * Both formats use the same field names: description, priority and reporter
+ * are required; id, created, agent and status are optional. CSV input starts
+ * with a header row naming its columns, in any order. Each JSON line is one
+ * object, e.g. {"description":"No VPN","priority":3,"reporter":"maryam"}.
+ *
+ * Tickets without an id get a random UUID, drawn from a generator seeded
+ * once rather than from a secure source per ticket. Tickets without a
+ * creation time all get the time the import started. Records that the
+ * {@link Ticket} constructor rejects are skipped and reported in
+ * {@link #getErrors()}.
+ */
+public class TicketImporter {
+
+    /**
+     * The supported input formats.
+     */
+    public enum Format {
+        CSV, JSON_LINES;
+
+        /**
+         * Picks the format from a file name: .json and .jsonl files are JSON
+         * lines, anything else is CSV.
+         *
+         * @param filename the file name
+         * @return the format of the file
+         */
+        public static Format forFile(String filename) {
+            String name = filename.toLowerCase();
+            return name.endsWith(".jsonl") || name.endsWith(".json") ? JSON_LINES : CSV;
+        }
+    }
+
+    private static final String FIELD_DELIMITER = "%%"; // separates fields in the text files
+
+    private static final String[] COLUMNS = {"id", "description", "priority", "created", "reporter", "agent", "status"};
+    private static final int ID = 0, DESCRIPTION = 1, PRIORITY = 2, CREATED = 3, REPORTER = 4, AGENT = 5, STATUS = 6;
+
+    /**
+     * One JSON line, as Gson reads it.
+     */
+    private static class Record {
+        String id;
+        String description;
+        Integer priority;
+        String created;
+        String reporter;
+        String agent;
+        String status;
+    }
+
+    private final Format format;
+    private final LocalDateTime importTime;
+    private final SplittableRandom random = new SplittableRandom(new SecureRandom().nextLong());
+    private final Gson gson = new Gson();
+    private final DynamicArray<String> errors = new DynamicArray<>();
+
+    /**
+     * Creates an importer for one batch.
+     *
+     * @param format the input format
+     * @param importTime the creation time given to tickets that have none
+     */
+    public TicketImporter(Format format, LocalDateTime importTime) {
+        this.format = format;
+        this.importTime = importTime;
+    }
+
+    /**
+     * Reads every record from the input and hands each valid ticket to the
+     * sink, in input order.
+     *
+     * @param in the input
+     * @param sink receives the tickets read
+     * @return the number of tickets read
+     * @throws IOException if the input cannot be read
+     * @throws IllegalArgumentException if CSV input does not start with a usable header
+     */
+    public int read(Reader in, Consumer<Ticket> sink) throws IOException {
+        BufferedReader reader = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in, 1 << 16);
+        String[] fields = new String[COLUMNS.length];
+        int[] columns = null; // CSV column index -> field, from the header
+        int count = 0;
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && columns == null) {
+                columns = parseHeader(line);
+                continue;
+            }
+            try {
+                if (format == Format.JSON_LINES) {
+                    parseJson(line, fields);
+                } else {
+                    parseCsv(line, columns, fields);
+                }
+                sink.accept(toTicket(fields));
+                count++;
+            } catch (IllegalArgumentException | JsonParseException | DateTimeParseException e) {
+                errors.add("Line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns a message for each record that was skipped, with its line number.
+     *
+     * @return the errors found so far
+     */
+    public DynamicArray<String> getErrors() {
+        return errors;
+    }
+
+    private Ticket toTicket(String[] fields) {
+        for (String field : fields) {
+            if (field != null && (field.contains(FIELD_DELIMITER) || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0)) {
+                throw new IllegalArgumentException("Fields cannot contain line breaks or \"" + FIELD_DELIMITER + "\".");
+            }
+        }
+        if (fields[PRIORITY] == null) {
+            throw new IllegalArgumentException("Required fields cannot be null.");
+        }
+        int priority;
+        try {
+            priority = Integer.parseInt(fields[PRIORITY].trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Priority must be a number: " + fields[PRIORITY]);
+        }
+        String id = fields[ID] == null ? newId() : fields[ID];
+        LocalDateTime created = fields[CREATED] == null ? importTime : LocalDateTime.parse(fields[CREATED].trim());
+        String status = fields[STATUS] == null ? "Pending" : fields[STATUS];
+        return new Ticket(id, fields[DESCRIPTION], priority, created, fields[REPORTER], fields[AGENT], status);
+    }
+
+    /**
+     * Returns a random version 4 UUID without going to a secure random
+     * source for every ticket.
+     */
+    private String newId() {
+        long high = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long low = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(high, low).toString();
+    }
+
+    private void parseJson(String line, String[] fields) {
+        Record r = gson.fromJson(line, Record.class);
+        if (r == null) {
+            throw new IllegalArgumentException("Expected a JSON object.");
+        }
+        fields[ID] = blankToNull(r.id);
+        fields[DESCRIPTION] = blankToNull(r.description);
+        fields[PRIORITY] = r.priority == null ? null : r.priority.toString();
+        fields[CREATED] = blankToNull(r.created);
+        fields[REPORTER] = blankToNull(r.reporter);
+        fields[AGENT] = blankToNull(r.agent);
+        fields[STATUS] = blankToNull(r.status);
+    }
+
+    private static int[] parseHeader(String line) {
+        DynamicArray<String> names = splitCsv(line);
+        int[] columns = new int[names.size()];
+        boolean[] seen = new boolean[COLUMNS.length];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = -1;
+            for (int f = 0; f < COLUMNS.length; f++) {
+                if (COLUMNS[f].equalsIgnoreCase(names.get(i).trim())) {
+                    columns[i] = f;
+                    seen[f] = true;
+                }
+            }
+        }
+        if (!seen[DESCRIPTION] || !seen[PRIORITY] || !seen[REPORTER]) {
+            throw new IllegalArgumentException("The header must name the description, priority and reporter columns.");
+        }
+        return columns;
+    }
+
+    private static void parseCsv(String line, int[] columns, String[] fields) {
+        DynamicArray<String> values = splitCsv(line);
+        if (values.size() != columns.length) {
+            throw new IllegalArgumentException("Expected " + columns.length + " columns but found " + values.size() + ".");
+        }
+        Arrays.fill(fields, null);
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i] >= 0) {
+                fields[columns[i]] = blankToNull(values.get(i));
+            }
+        }
+    }
+
+    /**
+     * Splits one CSV line. Fields may be quoted, with "" standing for a
+     * quote inside a quoted field; quoted fields cannot span lines.
+     */
+    static DynamicArray<String> splitCsv(String line) {
+        DynamicArray<String> values = new DynamicArray<>(COLUMNS.length);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field.");
+        }
+        values.add(field.toString());
+        return values;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
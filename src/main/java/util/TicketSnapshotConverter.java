@@ -0,0 +1,43 @@
+package util;
+
+import entities.Ticket;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Converts a %%-delimited tickets.txt file into a binary ticket snapshot.
+ *
+ * Usage: TicketSnapshotConverter [tickets.txt] [tickets.bin]
+ */
+public class TicketSnapshotConverter {
+
+    /**
+     * Reads a text ticket file and writes the same tickets as a snapshot.
+     *
+     * @param textFile the %%-delimited ticket file to read
+     * @param snapshotFile the snapshot file to write
+     * @return the number of tickets converted
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static int convert(String textFile, String snapshotFile) throws IOException {
+        Ticket[] tickets = fileUtil.readTickets(textFile);
+        TicketSnapshotWriter.write(snapshotFile, tickets);
+        return tickets.length;
+    }
+
+    public static void main(String[] args) {
+        String textFile = args.length > 0 ? args[0] : "tickets.txt";
+        String snapshotFile = args.length > 1 ? args[1] : "tickets.bin";
+
+        try {
+            int count = convert(textFile, snapshotFile);
+            System.out.println("Converted " + count + " tickets: " + new File(textFile).length() + " bytes -> "
+                    + new File(snapshotFile).length() + " bytes.");
+        } catch (IOException e) {
+            Logger.getLogger(TicketSnapshotConverter.class.getName()).log(Level.SEVERE, null, e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package util;
+
+import entities.Ticket;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Reads tickets from the binary snapshot format written by
+ * {@link TicketSnapshotWriter}. Statuses, agent ids and usernames come from
+ * the dictionaries at the start of the file, so every ticket shares the same
+ * String instances and no field needs to be parsed from text.
+ */
+public class TicketSnapshotReader {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Reads every ticket in a snapshot and hands it to the given callback.
+     *
+     * @param filename the name of the file to read from
+     * @param sink receives every ticket in file order
+     * @return the number of tickets read
+     * @throws IOException if the file cannot be read or is not a snapshot
+     */
+    public static int load(String filename, Consumer<Ticket> sink) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(filename), BUFFER_SIZE))) {
+            if (in.readInt() != TicketSnapshotWriter.MAGIC) {
+                throw new IOException(filename + " is not a ticket snapshot.");
+            }
+            short version = in.readShort();
+            if (version != TicketSnapshotWriter.VERSION) {
+                throw new IOException("Unsupported ticket snapshot version " + version + ".");
+            }
+
+            String[] statuses = readDictionary(in);
+            String[] agents = readDictionary(in);
+            String[] reporters = readDictionary(in);
+
+            int count = in.readInt();
+            byte[] description = new byte[256];
+            for (int i = 0; i < count; i++) {
+                String ticketId = readId(in);
+                LocalDateTime created = fromEpochMicros(in.readLong());
+                boolean hasClosed = in.readByte() != 0;
+                LocalDateTime closed = hasClosed ? fromEpochMicros(in.readLong()) : null;
+                int priority = in.readByte();
+                String status = statuses[in.readShort()];
+                int agent = in.readInt();
+                String reporter = reporters[in.readInt()];
+
+                int length = in.readInt();
+                if (length > description.length) {
+                    description = new byte[Math.max(length, description.length * 2)];
+                }
+                in.readFully(description, 0, length);
+
+                Ticket ticket = new Ticket(ticketId, new String(description, 0, length, StandardCharsets.UTF_8),
+                        priority, created, reporter, agent < 0 ? null : agents[agent], status);
+                ticket.setClosedDate(closed);
+                sink.accept(ticket);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Reads every ticket in a snapshot into an array.
+     *
+     * @param filename the name of the file to read from
+     * @return the tickets in file order
+     * @throws IOException if the file cannot be read or is not a snapshot
+     */
+    public static DynamicArray<Ticket> readTickets(String filename) throws IOException {
+        DynamicArray<Ticket> tickets = new DynamicArray<>();
+        load(filename, tickets::add);
+        return tickets;
+    }
+
+    static LocalDateTime fromEpochMicros(long micros) {
+        long seconds = Math.floorDiv(micros, 1_000_000L);
+        int nanos = (int) Math.floorMod(micros, 1_000_000L) * 1_000;
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    private static String[] readDictionary(DataInputStream in) throws IOException {
+        String[] names = new String[in.readInt()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = in.readUTF();
+        }
+        return names;
+    }
+
+    private static String readId(DataInputStream in) throws IOException {
+        byte kind = in.readByte();
+        if (kind == TicketSnapshotWriter.ID_UUID) {
+            return new UUID(in.readLong(), in.readLong()).toString();
+        }
+        if (kind == TicketSnapshotWriter.ID_TEXT) {
+            return in.readUTF();
+        }
+        throw new IOException("Unknown ticket id kind " + kind + ".");
+    }
+}
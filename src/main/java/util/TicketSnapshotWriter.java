@@ -0,0 +1,151 @@
+package util;
+
+import entities.Ticket;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Writes tickets in the compact binary snapshot format read by
+ * {@link TicketSnapshotReader}.
+ *
+ * Layout (version 1, all numbers big-endian):
+ * <pre>
+ * int    magic "TKSN"
+ * short  version
+ * int    status count,   then each status as modified UTF-8
+ * int    agent count,    then each agent id as modified UTF-8
+ * int    reporter count, then each username as modified UTF-8
+ * int    ticket count, then per ticket:
+ *   byte   id kind: 0 = UUID as two longs, 1 = any other id as modified UTF-8
+ *   long   creation time in microseconds since the epoch (UTC)
+ *   byte   1 if a closing time follows, 0 if the ticket is not closed
+ *   long   closing time in the same unit, only if the previous byte is 1
+ *   byte   priority
+ *   short  status index
+ *   int    agent index, or -1 if unassigned
+ *   int    reporter index
+ *   int    description length in bytes, then the UTF-8 bytes
+ * </pre>
+ */
+public class TicketSnapshotWriter {
+
+    static final int MAGIC = 0x544B534E;
+    static final short VERSION = 1;
+    static final byte ID_UUID = 0;
+    static final byte ID_TEXT = 1;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Writes the given tickets to a snapshot file, replacing it if it exists.
+     *
+     * @param filename the name of the file to write to
+     * @param tickets the tickets to save
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(String filename, Ticket[] tickets) throws IOException {
+        HashMap<String, Integer> statuses = new HashMap<>();
+        HashMap<String, Integer> agents = new HashMap<>();
+        HashMap<String, Integer> reporters = new HashMap<>();
+        DynamicArray<String> statusNames = new DynamicArray<>();
+        DynamicArray<String> agentNames = new DynamicArray<>();
+        DynamicArray<String> reporterNames = new DynamicArray<>();
+
+        for (Ticket t : tickets) {
+            intern(t.getStatus(), statuses, statusNames);
+            if (t.getAllocatedAgentId() != null) {
+                intern(t.getAllocatedAgentId(), agents, agentNames);
+            }
+            intern(t.getReportingUsername(), reporters, reporterNames);
+        }
+        if (statusNames.size() > Short.MAX_VALUE) {
+            throw new IOException("Too many distinct statuses for a snapshot: " + statusNames.size());
+        }
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(filename), BUFFER_SIZE))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            writeDictionary(out, statusNames);
+            writeDictionary(out, agentNames);
+            writeDictionary(out, reporterNames);
+
+            out.writeInt(tickets.length);
+            for (Ticket t : tickets) {
+                writeId(out, t.getTicketId());
+                out.writeLong(toEpochMicros(t.getCreationDate()));
+                if (t.getClosedDate() == null) {
+                    out.writeByte(0);
+                } else {
+                    out.writeByte(1);
+                    out.writeLong(toEpochMicros(t.getClosedDate()));
+                }
+                out.writeByte(t.getPriorityLevel());
+                out.writeShort(statuses.get(t.getStatus()));
+                out.writeInt(t.getAllocatedAgentId() == null ? -1 : agents.get(t.getAllocatedAgentId()));
+                out.writeInt(reporters.get(t.getReportingUsername()));
+
+                byte[] description = t.getIssueDescription().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(description.length);
+                out.write(description);
+            }
+        }
+    }
+
+    /**
+     * Converts a timestamp to microseconds since the epoch, treating it as UTC.
+     * Anything finer than a microsecond is dropped.
+     *
+     * @param date the timestamp to convert
+     * @return the timestamp in epoch microseconds
+     */
+    static long toEpochMicros(LocalDateTime date) {
+        return date.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + date.getNano() / 1_000;
+    }
+
+    private static void intern(String value, HashMap<String, Integer> index, DynamicArray<String> names) {
+        if (!index.containsKey(value)) {
+            index.put(value, names.size());
+            names.add(value);
+        }
+    }
+
+    private static void writeDictionary(DataOutputStream out, DynamicArray<String> names) throws IOException {
+        out.writeInt(names.size());
+        for (String name : names) {
+            out.writeUTF(name);
+        }
+    }
+
+    private static void writeId(DataOutputStream out, String ticketId) throws IOException {
+        UUID uuid = parseUuid(ticketId);
+        if (uuid != null) {
+            out.writeByte(ID_UUID);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        } else {
+            out.writeByte(ID_TEXT);
+            out.writeUTF(ticketId);
+        }
+    }
+
+    /**
+     * Returns the id as a UUID if it is a canonical lower-case UUID string,
+     * so that it reads back as exactly the same text.
+     */
+    static UUID parseUuid(String ticketId) {
+        if (ticketId.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(ticketId);
+            return uuid.toString().equals(ticketId) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,436 @@
+package util;
+
+import entities.Ticket;
+import entities.TicketStatus;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.function.Predicate;
+
+/**
+ * Owns every ticket in the system and keeps hash indexes over them by id,
+ * reporting user, allocated agent and status. Unassigned tickets also wait
+ * in a dispatch queue ordered by ticket priority and waiting time (see
+ * {@link AgingPolicy}), so the next ticket to hand out is always at its
+ * head. Status and agent changes must go through the store so the indexes
+ * stay in step with the tickets.
+ *
+ * Reporter usernames and agent ids are interned into small integer ids as
+ * tickets are added, and the stored tickets are given the single interned
+ * copy of each string. The reporter and agent indexes are arrays indexed by
+ * those ids, and the status index is an array indexed by {@link TicketStatus}.
+ * Tickets move between agents and statuses, so those buckets are
+ * {@link LinkedTicketSet}s, which move a ticket in O(1); a reporter never
+ * changes, so reporter buckets are plain arrays.
+ *
+ * The store is safe to share between threads. Claiming a ticket goes through
+ * the lock-free {@link DispatchQueue}; only the short index updates that
+ * follow are done under the store's lock.
+ */
+public class TicketStore {
+
+    private final DynamicArray<Ticket> tickets;
+    private final HashMap<String, Ticket> byId;
+    private final SymbolTable reporters;
+    private final SymbolTable agents;
+    private final DynamicArray<DynamicArray<Ticket>> byReporter;
+    private final DynamicArray<LinkedTicketSet> byAgent;
+    private final LinkedTicketSet[] byStatus;
+    private final DispatchQueue unassigned;
+
+    /**
+     * Creates an empty store.
+     */
+    public TicketStore() {
+        this(16);
+    }
+
+    /**
+     * Creates an empty store sized for the given number of tickets.
+     *
+     * @param expectedSize the number of tickets expected
+     */
+    public TicketStore(int expectedSize) {
+        this(expectedSize, AgingPolicy.DEFAULT);
+    }
+
+    /**
+     * Creates an empty store sized for the given number of tickets.
+     *
+     * @param expectedSize the number of tickets expected
+     * @param aging how the dispatch queue weighs waiting time against priority
+     */
+    public TicketStore(int expectedSize, AgingPolicy aging) {
+        tickets = new DynamicArray<>(expectedSize);
+        byId = new HashMap<>(expectedSize);
+        reporters = new SymbolTable();
+        agents = new SymbolTable();
+        byReporter = new DynamicArray<>();
+        byAgent = new DynamicArray<>();
+        byStatus = new LinkedTicketSet[TicketStatus.values().length];
+        for (int i = 0; i < byStatus.length; i++) {
+            byStatus[i] = new LinkedTicketSet();
+        }
+        unassigned = new DispatchQueue(aging);
+    }
+
+    /**
+     * Adds a ticket and indexes it.
+     *
+     * @param ticket the ticket to add
+     * @return false if a ticket with the same id is already stored
+     */
+    public synchronized boolean add(Ticket ticket) {
+        if (byId.containsKey(ticket.getTicketId())) {
+            return false;
+        }
+        tickets.add(ticket);
+        byId.put(ticket.getTicketId(), ticket);
+        int reporter = reporters.intern(ticket.getReportingUsername());
+        ticket.setReportingUsername(reporters.name(reporter));
+        bucket(byReporter, reporter).add(ticket);
+        byStatus[ticket.getTicketStatus().ordinal()].add(ticket);
+        if (isUnassigned(ticket.getAllocatedAgentId())) {
+            unassigned.add(ticket);
+        } else {
+            int agent = agents.intern(ticket.getAllocatedAgentId());
+            ticket.setAllocatedAgentId(agents.name(agent));
+            agentBucket(agent).add(ticket);
+        }
+        return true;
+    }
+
+    /**
+     * Adds a batch of tickets under a single lock, growing the ticket array
+     * once for the whole batch. Tickets whose id is already stored are
+     * skipped.
+     *
+     * @param batch the tickets to add
+     * @return the tickets that were added, in batch order
+     */
+    public synchronized DynamicArray<Ticket> addAll(DynamicArray<Ticket> batch) {
+        tickets.ensureCapacity(tickets.size() + batch.size());
+        DynamicArray<Ticket> added = new DynamicArray<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (add(batch.get(i))) {
+                added.add(batch.get(i));
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Returns the ticket with the given id.
+     *
+     * @param ticketId the ticket id
+     * @return the ticket, or null if there is none
+     */
+    public synchronized Ticket get(String ticketId) {
+        return byId.get(ticketId);
+    }
+
+    /**
+     * Returns every ticket in the order it was added. The array is a copy
+     * taken under the store's lock, so it is safe to iterate while other
+     * threads change the store.
+     *
+     * @return all tickets
+     */
+    public synchronized DynamicArray<Ticket> getAll() {
+        return copy(tickets);
+    }
+
+    /**
+     * Returns the tickets reported by a user, oldest first, as a copy.
+     *
+     * @param username the reporting user
+     * @return the user's tickets, empty if there are none
+     */
+    public synchronized DynamicArray<Ticket> getByReporter(String username) {
+        return copy(reporterBucket(username));
+    }
+
+    /**
+     * Returns one page of the tickets reported by a user, oldest first.
+     *
+     * @param username the reporting user
+     * @param pageSize the most tickets to return
+     * @param token the token of the previous page, or null for the first page
+     * @return the page
+     * @throws IllegalArgumentException if the page size is not positive or the token is invalid
+     */
+    public synchronized Page<Ticket> pageByReporter(String username, int pageSize, String token) {
+        return Page.slice(reporterBucket(username), pageSize, token, Ticket::getTicketId);
+    }
+
+    /**
+     * Returns one page of an agent's tickets with the given status, in the
+     * order they were allocated.
+     *
+     * @param agentId the allocated agent
+     * @param status the status to list
+     * @param pageSize the most tickets to return
+     * @param token the token of the previous page, or null for the first page
+     * @return the page
+     * @throws IllegalArgumentException if the page size is not positive or the token is invalid
+     */
+    public synchronized Page<Ticket> pageByAgent(String agentId, TicketStatus status, int pageSize, String token) {
+        LinkedTicketSet bucket = findAgentBucket(agentId);
+        return bucket == null ? new Page<>(new DynamicArray<>(0), null)
+                : bucket.page(pageSize, token, t -> t.getTicketStatus() == status);
+    }
+
+    /**
+     * Returns the tickets allocated to an agent, in the order they were
+     * allocated, as a copy.
+     *
+     * @param agentId the allocated agent
+     * @return the agent's tickets, empty if there are none
+     */
+    public synchronized DynamicArray<Ticket> getByAgent(String agentId) {
+        LinkedTicketSet bucket = findAgentBucket(agentId);
+        return bucket == null ? new DynamicArray<>(0) : bucket.toArray();
+    }
+
+    /**
+     * Returns the tickets with the given status, as a copy.
+     *
+     * @param status the status
+     * @return the matching tickets, empty if there are none
+     */
+    public synchronized DynamicArray<Ticket> getByStatus(TicketStatus status) {
+        return byStatus[status.ordinal()].toArray();
+    }
+
+    /**
+     * Returns the tickets with the given status text.
+     *
+     * @param status the status text, e.g. "Pending"
+     * @return the matching tickets, empty if there are none
+     * @throws IllegalArgumentException if status is not a known ticket status
+     */
+    public DynamicArray<Ticket> getByStatus(String status) {
+        return getByStatus(TicketStatus.parse(status));
+    }
+
+    /**
+     * Returns the unassigned ticket that would be handed out next.
+     *
+     * @return the highest-priority unassigned ticket, or null if there is none
+     */
+    public Ticket peekUnassigned() {
+        return unassigned.peek();
+    }
+
+    /**
+     * Returns the number of tickets waiting for an agent.
+     *
+     * @return the number of unassigned tickets
+     */
+    public int unassignedCount() {
+        return unassigned.size();
+    }
+
+    /**
+     * Takes the highest-priority unassigned ticket off the dispatch queue and
+     * allocates it to the given agent. Safe to call from many threads at once:
+     * each waiting ticket is handed to exactly one caller.
+     *
+     * @param agentId the agent claiming a ticket
+     * @return the claimed ticket, or null if no ticket is waiting
+     */
+    public Ticket claimNext(String agentId) {
+        int agent = agents.intern(agentId);
+        String canonical = agents.name(agent);
+        Ticket ticket = unassigned.claim(canonical);
+        if (ticket != null) {
+            synchronized (this) {
+                // Skip the index if the ticket was reassigned before we got here
+                if (ticket.getAllocatedAgentId() == canonical) {
+                    agentBucket(agent).add(ticket);
+                }
+            }
+        }
+        return ticket;
+    }
+
+    /**
+     * Changes the status of a stored ticket and moves it between status indexes.
+     *
+     * @param ticket the ticket to update
+     * @param status the new status
+     */
+    public synchronized void setStatus(Ticket ticket, TicketStatus status) {
+        TicketStatus current = ticket.getTicketStatus();
+        if (status == null || status == current) {
+            return;
+        }
+        byStatus[current.ordinal()].remove(ticket.getTicketId());
+        ticket.setStatus(status);
+        if (status == TicketStatus.CLOSED) {
+            if (ticket.getClosedDate() == null) {
+                ticket.setClosedDate(LocalDateTime.now());
+            }
+        } else {
+            ticket.setClosedDate(null);
+        }
+        byStatus[status.ordinal()].add(ticket);
+    }
+
+    /**
+     * Changes the status of a stored ticket from its text.
+     *
+     * @param ticket the ticket to update
+     * @param status the new status text, e.g. "Closed"
+     * @throws IllegalArgumentException if status is not a known ticket status
+     */
+    public void setStatus(Ticket ticket, String status) {
+        if (status != null) {
+            setStatus(ticket, TicketStatus.parse(status));
+        }
+    }
+
+    /**
+     * Changes the priority of a stored ticket, moving it to its new place in
+     * the dispatch queue if it is waiting there.
+     *
+     * @param ticket the ticket to update
+     * @param priorityLevel the new priority (1 to 5)
+     * @throws IllegalArgumentException if the priority is out of range
+     */
+    public synchronized void setPriority(Ticket ticket, int priorityLevel) {
+        ticket.setPriorityLevel(priorityLevel);
+        // A ticket claimed in the meantime is no longer queued and stays out
+        if (unassigned.remove(ticket.getTicketId())) {
+            unassigned.add(ticket);
+        }
+    }
+
+    /**
+     * Changes the agent of a stored ticket and moves it between agent indexes.
+     *
+     * @param ticket the ticket to update
+     * @param agentId the new agent, or null to unassign it
+     */
+    public synchronized void setAllocatedAgentId(Ticket ticket, String agentId) {
+        String current = ticket.getAllocatedAgentId();
+        if (isUnassigned(current) ? isUnassigned(agentId) : current.equals(agentId)) {
+            return;
+        }
+        int agent = isUnassigned(agentId) ? -1 : agents.intern(agentId);
+        String canonical = agent < 0 ? agentId : agents.name(agent);
+        if (isUnassigned(current)) {
+            // Use the same compare-and-set as the dispatch queue, so a racing
+            // auto-assign cannot hand this ticket to a second agent
+            if (!ticket.claim(canonical)) {
+                return;
+            }
+            unassigned.remove(ticket.getTicketId());
+            agentBucket(agent).add(ticket);
+            return;
+        }
+        agentBucket(agents.intern(current)).remove(ticket.getTicketId());
+        ticket.setAllocatedAgentId(canonical);
+        if (agent < 0) {
+            unassigned.add(ticket);
+        } else {
+            agentBucket(agent).add(ticket);
+        }
+    }
+
+    /**
+     * Moves every ticket that was closed before the cutoff into the archive
+     * and drops it from the store and all of its indexes. Tickets are only
+     * dropped once they are in the archive, so a failed write leaves them in
+     * the store.
+     *
+     * @param archive the archive that receives the tickets
+     * @param cutoff tickets closed before this time are archived
+     * @return the number of tickets archived
+     * @throws IOException if the archive cannot be written; tickets archived
+     *                     before the failure are still dropped
+     */
+    public synchronized int archiveClosed(TicketArchive archive, LocalDateTime cutoff) throws IOException {
+        LinkedTicketSet closed = byStatus[TicketStatus.CLOSED.ordinal()];
+        DynamicArray<Ticket> archived = new DynamicArray<>();
+        try {
+            for (Ticket ticket : closed) {
+                LocalDateTime closedDate = ticket.getClosedDate();
+                if (closedDate != null && closedDate.isBefore(cutoff)) {
+                    archive.append(ticket);
+                    archived.add(ticket);
+                }
+            }
+            archive.sync();
+        } finally {
+            drop(archived);
+        }
+        return archived.size();
+    }
+
+    /**
+     * Removes closed tickets from the store and every index: one compaction
+     * pass for each array, and an O(1) removal from each linked set.
+     */
+    private void drop(DynamicArray<Ticket> removed) {
+        if (removed.isEmpty()) {
+            return;
+        }
+        for (Ticket ticket : removed) {
+            byId.remove(ticket.getTicketId());
+            byStatus[TicketStatus.CLOSED.ordinal()].remove(ticket.getTicketId());
+            LinkedTicketSet agentTickets = findAgentBucket(ticket.getAllocatedAgentId());
+            if (agentTickets != null) {
+                agentTickets.remove(ticket.getTicketId());
+            }
+        }
+        // A ticket is gone once it is no longer in the id index
+        Predicate<Ticket> gone = t -> byId.get(t.getTicketId()) != t;
+        tickets.removeIf(gone);
+        byReporter.forEach(bucket -> bucket.removeIf(gone));
+    }
+
+    /**
+     * Returns the number of stored tickets.
+     *
+     * @return the number of tickets
+     */
+    public synchronized int size() {
+        return tickets.size();
+    }
+
+    private static boolean isUnassigned(String agentId) {
+        return agentId == null || agentId.isEmpty();
+    }
+
+    private static DynamicArray<Ticket> bucket(DynamicArray<DynamicArray<Ticket>> index, int id) {
+        // Symbol ids are handed out densely, so the index only ever grows by appending
+        while (index.size() <= id) {
+            index.add(new DynamicArray<>(4));
+        }
+        return index.get(id);
+    }
+
+    private LinkedTicketSet agentBucket(int id) {
+        while (byAgent.size() <= id) {
+            byAgent.add(new LinkedTicketSet(4));
+        }
+        return byAgent.get(id);
+    }
+
+    private DynamicArray<Ticket> reporterBucket(String username) {
+        int id = username == null ? -1 : reporters.find(username);
+        return id < 0 || id >= byReporter.size() ? new DynamicArray<>(0) : byReporter.get(id);
+    }
+
+    private LinkedTicketSet findAgentBucket(String agentId) {
+        int id = isUnassigned(agentId) ? -1 : agents.find(agentId);
+        return id < 0 || id >= byAgent.size() ? null : byAgent.get(id);
+    }
+
+    private static DynamicArray<Ticket> copy(DynamicArray<Ticket> source) {
+        DynamicArray<Ticket> result = new DynamicArray<>(source.size());
+        result.addAll(source);
+        return result;
+    }
+}
@@ -0,0 +1,446 @@
+package util;
+
+import entities.Ticket;
+import entities.TicketStatus;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+/**
+ * Column-oriented ticket storage for very large backlogs. Each ticket is a
+ * row index into parallel primitive arrays instead of a Ticket object with
+ * its own Strings and LocalDateTime. Statuses are stored as their
+ * {@link TicketStatus} ordinal, and agent ids and reporter usernames are
+ * interned into small integer ids. Scans by priority, status
+ * or agent walk primitive arrays only.
+ *
+ * Rows are read through {@link Row} flyweights, which expose the same
+ * getters as Ticket without allocating a ticket per row.
+ */
+public class TicketTable {
+
+    private static final int NO_AGENT = -1;
+    private static final TicketStatus[] STATUSES = TicketStatus.values();
+
+    private int[] priority;
+    private long[] createdMicros;
+    private long[] idHigh;
+    private long[] idLow;
+    private String[] textIds; // only for ids that are not canonical UUIDs, otherwise null
+    private byte[] status;
+    private int[] agent;
+    private int[] reporter;
+    private String[] description;
+    private int size;
+
+    private final SymbolTable agents = new SymbolTable();
+    private final SymbolTable reporters = new SymbolTable();
+    private final HashMap<String, Integer> rowsById;
+
+    /**
+     * Creates an empty table.
+     */
+    public TicketTable() {
+        this(16);
+    }
+
+    /**
+     * Creates an empty table with room for the given number of rows.
+     *
+     * @param capacity the initial number of rows
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    public TicketTable(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("Capacity cannot be negative.");
+        allocate(Math.max(capacity, 1));
+        rowsById = new HashMap<>(capacity);
+    }
+
+    /**
+     * Builds a table holding every ticket of the given array.
+     *
+     * @param tickets the tickets to copy
+     * @return the new table
+     */
+    public static TicketTable of(DynamicArray<Ticket> tickets) {
+        TicketTable table = new TicketTable(tickets.size());
+        for (int i = 0; i < tickets.size(); i++) {
+            table.add(tickets.get(i));
+        }
+        return table;
+    }
+
+    /**
+     * Appends a ticket as a new row.
+     *
+     * @param ticket the ticket to copy into the table
+     * @return the row index of the ticket
+     * @throws IllegalArgumentException if a ticket with the same id is already in the table
+     */
+    public int add(Ticket ticket) {
+        if (rowsById.containsKey(ticket.getTicketId())) {
+            throw new IllegalArgumentException("Duplicate ticket id " + ticket.getTicketId());
+        }
+        if (size == priority.length) {
+            grow();
+        }
+        int row = size++;
+
+        UUID uuid = TicketSnapshotWriter.parseUuid(ticket.getTicketId());
+        if (uuid != null) {
+            idHigh[row] = uuid.getMostSignificantBits();
+            idLow[row] = uuid.getLeastSignificantBits();
+        } else {
+            textIds[row] = ticket.getTicketId();
+        }
+        priority[row] = ticket.getPriorityLevel();
+        createdMicros[row] = TicketSnapshotWriter.toEpochMicros(ticket.getCreationDate());
+        status[row] = statusCode(ticket.getStatus());
+        agent[row] = agentSymbol(ticket.getAllocatedAgentId());
+        reporter[row] = reporters.intern(ticket.getReportingUsername());
+        description[row] = ticket.getIssueDescription();
+
+        rowsById.put(ticket.getTicketId(), row);
+        return row;
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return the number of tickets in the table
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the row of the ticket with the given id.
+     *
+     * @param ticketId the ticket id
+     * @return the row index, or -1 if the ticket is not in the table
+     */
+    public int indexOf(String ticketId) {
+        Integer row = rowsById.get(ticketId);
+        return row == null ? -1 : row;
+    }
+
+    /**
+     * Returns a flyweight positioned on the given row.
+     *
+     * @param row the row index
+     * @return a view of the row
+     */
+    public Row view(int row) {
+        return new Row().moveTo(row);
+    }
+
+    /**
+     * Returns a flyweight that can be moved from row to row while scanning.
+     *
+     * @return a view positioned on row 0
+     */
+    public Row cursor() {
+        return new Row();
+    }
+
+    /**
+     * Returns the priority of a row.
+     *
+     * @param row the row index
+     * @return the priority level (1 to 5)
+     */
+    public int getPriority(int row) {
+        checkRow(row);
+        return priority[row];
+    }
+
+    /**
+     * Changes the priority of a row.
+     *
+     * @param row the row index
+     * @param priorityLevel the new priority (1 to 5)
+     * @throws IllegalArgumentException if the priority is out of range
+     */
+    public void setPriority(int row, int priorityLevel) {
+        checkRow(row);
+        if (priorityLevel < 1 || priorityLevel > 5) {
+            throw new IllegalArgumentException("Priority must be between 1 and 5.");
+        }
+        priority[row] = priorityLevel;
+    }
+
+    /**
+     * Returns the status of a row.
+     *
+     * @param row the row index
+     * @return the status text
+     */
+    public String getStatus(int row) {
+        checkRow(row);
+        return STATUSES[status[row]].getLabel();
+    }
+
+    /**
+     * Changes the status of a row.
+     *
+     * @param row the row index
+     * @param newStatus the new status text
+     * @throws IllegalArgumentException if the status is not a known ticket status
+     */
+    public void setStatus(int row, String newStatus) {
+        checkRow(row);
+        status[row] = statusCode(newStatus);
+    }
+
+    /**
+     * Returns the agent of a row.
+     *
+     * @param row the row index
+     * @return the agent id, or null if the ticket is unassigned
+     */
+    public String getAgentId(int row) {
+        checkRow(row);
+        return agent[row] == NO_AGENT ? null : agents.name(agent[row]);
+    }
+
+    /**
+     * Changes the agent of a row.
+     *
+     * @param row the row index
+     * @param agentId the new agent id, or null to unassign the ticket
+     */
+    public void setAgentId(int row, String agentId) {
+        checkRow(row);
+        agent[row] = agentSymbol(agentId);
+    }
+
+    /**
+     * Counts the rows with the given status.
+     *
+     * @param statusText the status to count
+     * @return the number of matching rows
+     * @throws IllegalArgumentException if the status is not a known ticket status
+     */
+    public int countByStatus(String statusText) {
+        byte wanted = statusCode(statusText);
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (status[row] == wanted) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Calls the action with every row allocated to the given agent, in row order.
+     *
+     * @param agentId the agent id
+     * @param action receives the matching row indexes
+     */
+    public void forEachRowOfAgent(String agentId, IntConsumer action) {
+        int wanted = agents.find(agentId);
+        if (wanted < 0) {
+            return;
+        }
+        for (int row = 0; row < size; row++) {
+            if (agent[row] == wanted) {
+                action.accept(row);
+            }
+        }
+    }
+
+    /**
+     * Calls the action with every row that has the given status, in row order.
+     *
+     * @param statusText the status
+     * @param action receives the matching row indexes
+     */
+    public void forEachRowWithStatus(String statusText, IntConsumer action) {
+        byte wanted = statusCode(statusText);
+        for (int row = 0; row < size; row++) {
+            if (status[row] == wanted) {
+                action.accept(row);
+            }
+        }
+    }
+
+    /**
+     * Finds the highest-ranked unassigned row under the default aging policy,
+     * the same order the dispatch queue uses.
+     *
+     * @return the row index, or -1 if every ticket is assigned
+     */
+    public int topUnassigned() {
+        return topUnassigned(AgingPolicy.DEFAULT);
+    }
+
+    /**
+     * Finds the highest-ranked unassigned row under the given aging policy.
+     * Rows with equal rank are taken in row order.
+     *
+     * @param aging how waiting time is weighed against priority
+     * @return the row index, or -1 if every ticket is assigned
+     */
+    public int topUnassigned(AgingPolicy aging) {
+        int best = -1;
+        long bestRank = 0;
+        for (int row = 0; row < size; row++) {
+            if (agent[row] != NO_AGENT) {
+                continue;
+            }
+            long rank = aging.rank(priority[row], createdMicros[row]);
+            if (best < 0 || rank < bestRank) {
+                best = row;
+                bestRank = rank;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Copies a row out into a standalone Ticket.
+     *
+     * @param row the row index
+     * @return a new Ticket with the row's values
+     */
+    public Ticket toTicket(int row) {
+        return view(row).toTicket();
+    }
+
+    private static byte statusCode(String text) {
+        return (byte) TicketStatus.parse(text).ordinal();
+    }
+
+    private int agentSymbol(String agentId) {
+        return agentId == null || agentId.isEmpty() ? NO_AGENT : agents.intern(agentId);
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Invalid row " + row + ".");
+        }
+    }
+
+    private void allocate(int capacity) {
+        priority = new int[capacity];
+        createdMicros = new long[capacity];
+        idHigh = new long[capacity];
+        idLow = new long[capacity];
+        textIds = new String[capacity];
+        status = new byte[capacity];
+        agent = new int[capacity];
+        reporter = new int[capacity];
+        description = new String[capacity];
+    }
+
+    private void grow() {
+        int capacity = priority.length * 2;
+        priority = Arrays.copyOf(priority, capacity);
+        createdMicros = Arrays.copyOf(createdMicros, capacity);
+        idHigh = Arrays.copyOf(idHigh, capacity);
+        idLow = Arrays.copyOf(idLow, capacity);
+        textIds = Arrays.copyOf(textIds, capacity);
+        status = Arrays.copyOf(status, capacity);
+        agent = Arrays.copyOf(agent, capacity);
+        reporter = Arrays.copyOf(reporter, capacity);
+        description = Arrays.copyOf(description, capacity);
+    }
+
+    /**
+     * A flyweight view of one row, with the same getters as Ticket. The view
+     * holds no data of its own; {@link #moveTo(int)} repositions it, so one
+     * view can walk the whole table.
+     */
+    public class Row {
+        private int row;
+
+        /**
+         * Moves the view to another row.
+         *
+         * @param row the row index
+         * @return this view
+         */
+        public Row moveTo(int row) {
+            checkRow(row);
+            this.row = row;
+            return this;
+        }
+
+        /**
+         * @return The row index this view is positioned on
+         */
+        public int getRow() {
+            return row;
+        }
+
+        /**
+         * @return The id of the ticket
+         */
+        public String getTicketId() {
+            String text = textIds[row];
+            return text != null ? text : new UUID(idHigh[row], idLow[row]).toString();
+        }
+
+        /**
+         * @return The description of the issue
+         */
+        public String getIssueDescription() {
+            return description[row];
+        }
+
+        /**
+         * @return The priority level of the ticket
+         */
+        public int getPriorityLevel() {
+            return priority[row];
+        }
+
+        /**
+         * @return The creation time in microseconds since the epoch (UTC)
+         */
+        public long getCreationMicros() {
+            return createdMicros[row];
+        }
+
+        /**
+         * @return The creation date of the ticket
+         */
+        public LocalDateTime getCreationDate() {
+            return TicketSnapshotReader.fromEpochMicros(createdMicros[row]);
+        }
+
+        /**
+         * @return The reporting user's username
+         */
+        public String getReportingUsername() {
+            return reporters.name(reporter[row]);
+        }
+
+        /**
+         * @return The allocated agent's id, or null if unassigned
+         */
+        public String getAllocatedAgentId() {
+            return getAgentId(row);
+        }
+
+        /**
+         * @return The status of the ticket
+         */
+        public String getStatus() {
+            return TicketTable.this.getStatus(row);
+        }
+
+        /**
+         * Copies this row out into a standalone Ticket.
+         *
+         * @return a new Ticket with the row's values
+         */
+        public Ticket toTicket() {
+            return new Ticket(getTicketId(), getIssueDescription(), getPriorityLevel(), getCreationDate(),
+                    getReportingUsername(), getAllocatedAgentId(), getStatus());
+        }
+    }
+}
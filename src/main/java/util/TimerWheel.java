@@ -0,0 +1,255 @@
+package util;
+
+/**
+ * A hierarchical timer wheel: holds any number of timers, each due at a
+ * whole tick, and hands back the ones that are due as the clock moves on.
+ *
+ * The wheel has eleven levels of 64 slots. A timer is filed on the level of
+ * the highest 6-bit group in which its deadline differs from the current
+ * tick, in the slot given by that group of its deadline. When the clock
+ * reaches the start of that slot, its timers are moved down to a finer
+ * level, until they reach level 0 and fire. Scheduling and cancelling are
+ * O(1), and each timer is moved at most once per level. Every level keeps a
+ * bitmask of its non-empty slots, so moving the clock over a long idle
+ * stretch jumps straight to the next slot with timers instead of walking
+ * every tick.
+ *
+ * Timers are linked nodes, so a cancelled timer leaves no trace.
+ *
+ * @param <T> the type of item a timer carries
+ */
+public class TimerWheel<T> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = (Long.SIZE + BITS - 1) / BITS;
+
+    /**
+     * A scheduled timer. Keep it to cancel the timer later.
+     *
+     * @param <T> the type of item the timer carries
+     */
+    public static final class Timer<T> {
+        private final T item;
+        private final long deadline;
+        private Timer<T> prev;
+        private Timer<T> next;
+        private int level = -1; // -1 once fired or cancelled
+        private int slot;
+
+        private Timer(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Returns the item the timer carries.
+         *
+         * @return the item
+         */
+        public T getItem() {
+            return item;
+        }
+
+        /**
+         * Returns the tick the timer is due at.
+         *
+         * @return the deadline tick
+         */
+        public long getDeadline() {
+            return deadline;
+        }
+
+        /**
+         * Returns whether the timer is still waiting to fire.
+         *
+         * @return false once the timer has fired or been cancelled
+         */
+        public boolean isPending() {
+            return level >= 0;
+        }
+    }
+
+    private final Timer<T>[][] slots;
+    private final long[] occupied = new long[LEVELS]; // bit s set when slot s has timers
+    private long now;
+    private int size;
+
+    /**
+     * Creates an empty wheel.
+     *
+     * @param now the current tick
+     */
+    public TimerWheel(long now) {
+        this.slots = DynamicArray.newArray(LEVELS);
+        for (int level = 0; level < LEVELS; level++) {
+            slots[level] = DynamicArray.newArray(SLOTS);
+        }
+        this.now = now;
+    }
+
+    /**
+     * Schedules a timer. A deadline that is not after the current tick fires
+     * at the next tick.
+     *
+     * @param item the item to hand back when the timer fires
+     * @param deadline the tick the timer is due at
+     * @return the timer, which can be passed to {@link #cancel(Timer)}
+     */
+    public synchronized Timer<T> schedule(T item, long deadline) {
+        Timer<T> timer = new Timer<>(item, Math.max(deadline, now + 1));
+        file(timer);
+        size++;
+        return timer;
+    }
+
+    /**
+     * Cancels a timer that has not fired yet.
+     *
+     * @param timer the timer to cancel
+     * @return false if the timer had already fired or been cancelled
+     */
+    public synchronized boolean cancel(Timer<T> timer) {
+        if (timer.level < 0) {
+            return false;
+        }
+        unlink(timer);
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the clock forward and collects every timer that is now due, in
+     * deadline order.
+     *
+     * @param tick the new current tick; earlier ticks leave the clock as it is
+     * @param fired receives the items of the timers that fired
+     * @return the number of timers that fired
+     */
+    public synchronized int advance(long tick, DynamicArray<T> fired) {
+        int count = 0;
+        while (size > 0) {
+            long next = nextEvent();
+            if (next > tick) {
+                break;
+            }
+            now = next;
+            count += expire(fired);
+        }
+        if (tick > now) {
+            now = tick;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the current tick.
+     *
+     * @return the tick the clock was last moved to
+     */
+    public synchronized long now() {
+        return now;
+    }
+
+    /**
+     * Returns the number of timers waiting to fire.
+     *
+     * @return the number of pending timers
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Processes the slots that start at the current tick, coarsest first, so
+     * timers moved down from a coarse slot are picked up by the finer slots
+     * of the same tick.
+     */
+    private int expire(DynamicArray<T> fired) {
+        int count = 0;
+        for (int level = LEVELS - 1; level >= 0; level--) {
+            int shift = level * BITS;
+            if (level > 0 && (now & ((1L << shift) - 1)) != 0) {
+                continue;
+            }
+            int slot = (int) (now >>> shift) & MASK;
+            Timer<T> timer = slots[level][slot];
+            if (timer == null) {
+                continue;
+            }
+            slots[level][slot] = null;
+            occupied[level] &= ~(1L << slot);
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                timer.prev = null;
+                timer.next = null;
+                if (timer.deadline <= now) {
+                    timer.level = -1;
+                    size--;
+                    fired.add(timer.item);
+                    count++;
+                } else {
+                    file(timer);
+                }
+                timer = next;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the first tick at which a non-empty slot is processed. Only
+     * called while the wheel holds timers.
+     */
+    private long nextEvent() {
+        long next = Long.MAX_VALUE;
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = level * BITS;
+            int current = (int) (now >>> shift) & MASK;
+            // Timers on a level are always in a later slot than the clock
+            long later = current == MASK ? 0 : occupied[level] & (-1L << (current + 1));
+            if (later == 0) {
+                continue;
+            }
+            long base = shift + BITS >= Long.SIZE ? 0 : now & (-1L << (shift + BITS));
+            long start = base | ((long) Long.numberOfTrailingZeros(later) << shift);
+            if (start < next) {
+                next = start;
+            }
+        }
+        return next;
+    }
+
+    private void file(Timer<T> timer) {
+        long diff = timer.deadline ^ now;
+        int level = (Long.SIZE - 1 - Long.numberOfLeadingZeros(diff)) / BITS;
+        int slot = (int) (timer.deadline >>> (level * BITS)) & MASK;
+        Timer<T> head = slots[level][slot];
+        timer.level = level;
+        timer.slot = slot;
+        timer.next = head;
+        if (head != null) {
+            head.prev = timer;
+        }
+        slots[level][slot] = timer;
+        occupied[level] |= 1L << slot;
+    }
+
+    private void unlink(Timer<T> timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            slots[timer.level][timer.slot] = timer.next;
+            if (timer.next == null) {
+                occupied[timer.level] &= ~(1L << timer.slot);
+            }
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+        timer.level = -1;
+    }
+}
@@ -5,8 +5,10 @@ import entities.Agent;
 import entities.Ticket;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.Scanner;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -16,6 +18,17 @@ import java.util.logging.Logger;
  */
 public class fileUtil {
 
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int SAMPLE_SIZE = 1 << 14;
+    private static final String DELIMITER = "%%";
+    private static final String UNASSIGNED = "null";
+
+    private static final int USER_FIELDS = 2;
+    private static final int AGENT_FIELDS = 4;
+    private static final int TICKET_FIELDS = 7;
+    private static final int CLOSED_TICKET_FIELDS = 8; // closed tickets also carry their closing date
+    private static final int MISSED_DEADLINE_FIELDS = 2;
+
     /**
      * Reads user data from a file and returns an array of User objects.
      *
@@ -23,27 +36,11 @@ public class fileUtil {
      * @return an array of User objects read from the file
      */
     public static User[] readUsers(String filename) {
-        User[] result;
-        try {
-            Scanner file = new Scanner(new FileReader(filename));
-            User[] temp = new User[100];
-            int count = 0;
-
-            while (file.hasNextLine()) {
-                String[] parts = file.nextLine().split("%%");
-                if (parts.length == 2) {
-                    temp[count++] = new User(parts[0], parts[1]);
-                }
-            }
-
-            result = new User[count];
-            System.arraycopy(temp, 0, result, 0, count);
-            file.close();
-        } catch (FileNotFoundException e) {
-            Logger.getLogger(fileUtil.class.getName()).log(Level.SEVERE, null, e);
-            return new User[0];
-        }
+        DynamicArray<User> users = new DynamicArray<>(estimateRecords(filename));
+        loadUsers(filename, users::add);
 
+        User[] result = new User[users.size()];
+        System.arraycopy(users.getValues(), 0, result, 0, result.length);
         return result;
     }
 
@@ -54,27 +51,11 @@ public class fileUtil {
      * @return an array of Agent objects read from the file
      */
     public static Agent[] readAgents(String filename) {
-        Agent[] result;
-        try {
-            Scanner file = new Scanner(new FileReader(filename));
-            Agent[] temp = new Agent[100];
-            int count = 0;
-
-            while (file.hasNextLine()) {
-                String[] parts = file.nextLine().split("%%");
-                if (parts.length == 4) {
-                    temp[count++] = new Agent(parts[0], parts[1], parts[2], parts[3]);
-                }
-            }
-
-            result = new Agent[count];
-            System.arraycopy(temp, 0, result, 0, count);
-            file.close();
-        } catch (FileNotFoundException e) {
-            Logger.getLogger(fileUtil.class.getName()).log(Level.SEVERE, null, e);
-            return new Agent[0];
-        }
+        DynamicArray<Agent> agents = new DynamicArray<>(estimateRecords(filename));
+        loadAgents(filename, agents::add);
 
+        Agent[] result = new Agent[agents.size()];
+        System.arraycopy(agents.getValues(), 0, result, 0, result.length);
         return result;
     }
 
@@ -85,29 +66,215 @@ public class fileUtil {
      * @return an array of Ticket objects read from the file
      */
     public static Ticket[] readTickets(String filename) {
-        Ticket[] result;
-        try {
-            Scanner file = new Scanner(new FileReader(filename));
-            Ticket[] temp = new Ticket[100];
-            int count = 0;
-
-            while (file.hasNextLine()) {
-                String[] parts = file.nextLine().split("%%");
-                if (parts.length == 7) {
-                    LocalDateTime date = LocalDateTime.parse(parts[3]);
-                    temp[count++] = new Ticket(parts[0], parts[1], Integer.parseInt(parts[2]), date, parts[4], parts[5], parts[6]);
-                }
+        DynamicArray<Ticket> tickets = new DynamicArray<>(estimateRecords(filename));
+        loadTickets(filename, tickets::add);
+
+        Ticket[] result = new Ticket[tickets.size()];
+        System.arraycopy(tickets.getValues(), 0, result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * Streams user records from a file, handing each one to the given callback
+     * as soon as its line is parsed.
+     *
+     * @param filename the name of the file to read from
+     * @param sink receives every valid user in file order
+     * @return the number of users loaded
+     */
+    public static int loadUsers(String filename, Consumer<User> sink) {
+        return forEachRecord(filename, USER_FIELDS, USER_FIELDS, parts -> sink.accept(new User(parts[0], parts[1])));
+    }
+
+    /**
+     * Streams agent records from a file, handing each one to the given callback
+     * as soon as its line is parsed.
+     *
+     * @param filename the name of the file to read from
+     * @param sink receives every valid agent in file order
+     * @return the number of agents loaded
+     */
+    public static int loadAgents(String filename, Consumer<Agent> sink) {
+        return forEachRecord(filename, AGENT_FIELDS, AGENT_FIELDS, parts -> sink.accept(new Agent(parts[0], parts[1], parts[2], parts[3])));
+    }
+
+    /**
+     * Streams ticket records from a file, handing each one to the given callback
+     * as soon as its line is parsed.
+     *
+     * @param filename the name of the file to read from
+     * @param sink receives every valid ticket in file order
+     * @return the number of tickets loaded
+     */
+    public static int loadTickets(String filename, Consumer<Ticket> sink) {
+        return forEachRecord(filename, TICKET_FIELDS, CLOSED_TICKET_FIELDS, parts -> sink.accept(toTicket(parts)));
+    }
+
+    /**
+     * Streams the missed SLA deadlines saved by saveMissedDeadlines, handing
+     * each ticket id and its bit set of missed deadlines to the callback.
+     * Records with a malformed bit set are skipped.
+     *
+     * @param filename the name of the file to read from
+     * @param sink receives every ticket id and its missed deadlines
+     * @return the number of records loaded
+     */
+    public static int loadMissedDeadlines(String filename, BiConsumer<String, Integer> sink) {
+        return forEachRecord(filename, MISSED_DEADLINE_FIELDS, MISSED_DEADLINE_FIELDS, parts -> {
+            try {
+                sink.accept(parts[0], Integer.parseInt(parts[1]));
+            } catch (NumberFormatException e) {
+                Logger.getLogger(fileUtil.class.getName()).log(Level.WARNING, "Skipping bad record in " + filename, e);
             }
+        });
+    }
+
+    /**
+     * Estimates the number of records in a file from its size and the average
+     * length of the lines at its start, so collections can be sized before
+     * loading instead of growing repeatedly. Only the first few kilobytes are
+     * read.
+     *
+     * @param filename the name of the file to inspect
+     * @return the estimated number of records, or 0 if the file cannot be read
+     */
+    public static int estimateRecords(String filename) {
+        File file = new File(filename);
+        long length = file.length();
+        if (length == 0) {
+            return 0;
+        }
 
-            result = new Ticket[count];
-            System.arraycopy(temp, 0, result, 0, count);
-            file.close();
+        byte[] sample = new byte[(int) Math.min(length, SAMPLE_SIZE)];
+        int read;
+        try (InputStream in = new FileInputStream(file)) {
+            read = in.readNBytes(sample, 0, sample.length);
+        } catch (IOException e) {
+            return 0;
+        }
+        int lines = 0;
+        for (int i = 0; i < read; i++) {
+            if (sample[i] == '\n') {
+                lines++;
+            }
+        }
+        if (read == length) {
+            return lines + (sample[read - 1] == '\n' ? 0 : 1);
+        }
+        if (lines == 0) {
+            return 1;
+        }
+        // Leave some headroom so a slightly longer tail does not force a final doubling
+        long estimate = length * lines / read + (length * lines / read) / 8 + 1;
+        return (int) Math.min(estimate, Integer.MAX_VALUE - 8);
+    }
+
+    /**
+     * Builds a Ticket from the fields of a tickets.txt record: seven fields,
+     * plus an eighth closing date for closed tickets.
+     *
+     * @param parts the record fields in file order; an eighth field, if
+     *              present and not null, is the closing date
+     * @return the parsed ticket
+     */
+    static Ticket toTicket(String[] parts) {
+        LocalDateTime date = LocalDateTime.parse(parts[3]);
+        Ticket ticket = new Ticket(parts[0], parts[1], Integer.parseInt(parts[2]), date, parts[4], agentField(parts[5]), parts[6]);
+        if (parts.length > TICKET_FIELDS && parts[TICKET_FIELDS] != null) {
+            ticket.setClosedDate(LocalDateTime.parse(parts[TICKET_FIELDS]));
+        }
+        return ticket;
+    }
+
+    /**
+     * Formats a ticket as one tickets.txt record, without a line separator.
+     * The closing date is only written for closed tickets.
+     *
+     * @param t the ticket to format
+     * @return the record text
+     */
+    static String toRecord(Ticket t) {
+        StringBuilder sb = new StringBuilder(128)
+                .append(t.getTicketId()).append(DELIMITER)
+                .append(t.getIssueDescription()).append(DELIMITER)
+                .append(t.getPriorityLevel()).append(DELIMITER)
+                .append(t.getCreationDate()).append(DELIMITER)
+                .append(t.getReportingUsername()).append(DELIMITER)
+                .append(t.getAllocatedAgentId()).append(DELIMITER)
+                .append(t.getStatus());
+        if (t.getClosedDate() != null) {
+            sb.append(DELIMITER).append(t.getClosedDate());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Reads the agent field of a ticket record. saveTickets writes the text
+     * "null" for unassigned tickets, so that (or an empty field) means no agent.
+     *
+     * @param field the raw agent field
+     * @return the agent id, or null if the ticket is unassigned
+     */
+    static String agentField(String field) {
+        return field.isEmpty() || field.equals(UNASSIGNED) ? null : field;
+    }
+
+    /**
+     * Reads a delimited file line by line through one large buffer and passes
+     * the fields of every line with an accepted field count to the handler.
+     * The same fields array is reused for every line; fields a line does not
+     * have are set to null. A missing file, as on a first run, has no records.
+     *
+     * @return the number of records handed to the handler
+     */
+    private static int forEachRecord(String filename, int minFields, int maxFields, Consumer<String[]> handler) {
+        String[] parts = new String[maxFields];
+        int count = 0;
+
+        try (BufferedReader file = new BufferedReader(new FileReader(filename, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            String line;
+            while ((line = file.readLine()) != null) {
+                int fields = splitFields(line, parts);
+                if (fields >= minFields) {
+                    for (int i = fields; i < maxFields; i++) {
+                        parts[i] = null;
+                    }
+                    handler.accept(parts);
+                    count++;
+                }
+            }
         } catch (FileNotFoundException e) {
+            Logger.getLogger(fileUtil.class.getName()).log(Level.FINE, "No data file yet: " + filename);
+        } catch (IOException e) {
             Logger.getLogger(fileUtil.class.getName()).log(Level.SEVERE, null, e);
-            return new Ticket[0];
         }
 
-        return result;
+        return count;
+    }
+
+    /**
+     * Splits a line on the record delimiter without going through a regex.
+     *
+     * @param line the line to split
+     * @param parts receives the fields; must be sized for the expected field count
+     * @return the number of fields found, or -1 if there are more than parts can hold
+     */
+    static int splitFields(String line, String[] parts) {
+        int count = 0;
+        int start = 0;
+        int end;
+        while ((end = line.indexOf(DELIMITER, start)) >= 0) {
+            if (count == parts.length) {
+                return -1;
+            }
+            parts[count++] = line.substring(start, end);
+            start = end + DELIMITER.length();
+        }
+        if (count == parts.length) {
+            return -1;
+        }
+        parts[count++] = line.substring(start);
+        return count;
     }
 
     /**
@@ -117,7 +284,7 @@ public class fileUtil {
      * @param users the array of User objects to save
      */
     public static void saveUsers(String filename, User[] users) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(filename, StandardCharsets.UTF_8))) {
             for (User u : users) {
                 writer.println(u.getUsername() + "%%" + u.getPassword());
             }
@@ -133,7 +300,7 @@ public class fileUtil {
      * @param agents the array of Agent objects to save
      */
     public static void saveAgents(String filename, Agent[] agents) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(filename, StandardCharsets.UTF_8))) {
             for (Agent a : agents) {
                 writer.println(a.getUsername() + "%%" + a.getPassword() + "%%" + a.getAgentId() + "%%" + a.getAgentName());
             }
@@ -149,14 +316,33 @@ public class fileUtil {
      * @param tickets the array of Ticket objects to save
      */
     public static void saveTickets(String filename, Ticket[] tickets) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(filename, StandardCharsets.UTF_8))) {
             for (Ticket t : tickets) {
-                writer.println(t.getTicketId() + "%%" + t.getIssueDescription() + "%%" + t.getPriorityLevel() + "%%" +
-                        t.getCreationDate() + "%%" + t.getReportingUsername() + "%%" + t.getAllocatedAgentId() + "%%" + t.getStatus());
+                writer.println(toRecord(t));
             }
         } catch (IOException e) {
             Logger.getLogger(fileUtil.class.getName()).log(Level.SEVERE, null, e);
         }
     }
-}
 
+    /**
+     * Saves the missed SLA deadlines of the given tickets, one record per
+     * ticket that has missed any. Few tickets ever miss a deadline, so they
+     * are kept in their own file rather than as a field on every record in
+     * tickets.txt.
+     *
+     * @param filename the name of the file to write to
+     * @param tickets the tickets to save the missed deadlines of
+     */
+    public static void saveMissedDeadlines(String filename, Ticket[] tickets) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(filename, StandardCharsets.UTF_8))) {
+            for (Ticket t : tickets) {
+                if (t.getMissedDeadlines() != 0) {
+                    writer.println(t.getTicketId() + "%%" + t.getMissedDeadlines());
+                }
+            }
+        } catch (IOException e) {
+            Logger.getLogger(fileUtil.class.getName()).log(Level.SEVERE, null, e);
+        }
+    }
+}
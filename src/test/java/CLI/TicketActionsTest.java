@@ -0,0 +1,82 @@
+package CLI;
+
+import entities.Ticket;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TicketActionsTest {
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setUp() {
+        System.setProperty("tickets.dataDir", dir.toString());
+        MainMenu.loadData();
+    }
+
+    @AfterEach
+    void tearDown() {
+        MainMenu.saveData();
+        System.clearProperty("tickets.dataDir");
+    }
+
+    private Ticket overdueTicket() {
+        Ticket t = new Ticket("T1", "Printer on fire", 2, LocalDateTime.now().minusDays(30), "maryam", null, "Pending");
+        MainMenu.getTickets().add(t);
+        MainMenu.getJournal().ticketCreated(t);
+        return t;
+    }
+
+    private long journalEntries(String type) throws IOException {
+        return Files.readAllLines(dir.resolve("journal.txt")).stream().filter(l -> l.startsWith(type + "%%")).count();
+    }
+
+    @Test
+    void testOverdueTicketTrackedTwiceIsEscalatedOnce() throws IOException {
+        // SET UP: a pending ticket past both its response and resolution deadlines
+        Ticket t = overdueTicket();
+
+        // LOGIC:
+        MainMenu.getSla().track(t);
+        MainMenu.getSla().track(t);
+        MainMenu.getSla().tick(LocalDateTime.now().plusSeconds(2));
+        MainMenu.getSla().track(t);
+        MainMenu.getSla().tick(LocalDateTime.now().plusSeconds(4));
+
+        // ASSERTIONS:
+        assertEquals(3, t.getPriorityLevel(), "Two deadlines missed in one tick should raise the ticket once");
+        assertEquals(1, journalEntries("PRIORITY"));
+        assertEquals(0, MainMenu.getSla().pending(), "An escalated ticket should not be watched again");
+    }
+
+    @Test
+    void testEscalationIsNotRepeatedAfterRestart() throws IOException {
+        // SET UP: escalate once, then fold the journal into the snapshot files
+        Ticket t = overdueTicket();
+        MainMenu.getSla().track(t);
+        MainMenu.getSla().tick(LocalDateTime.now().plusSeconds(2));
+        MainMenu.getJournal().compact();
+        MainMenu.saveData();
+
+        // LOGIC: start again and watch every ticket, as startSlaClock does
+        MainMenu.loadData();
+        Ticket reloaded = MainMenu.getTickets().get("T1");
+        MainMenu.getSla().track(reloaded);
+        MainMenu.getSla().tick(LocalDateTime.now().plusSeconds(2));
+
+        // ASSERTIONS:
+        assertEquals(3, reloaded.getPriorityLevel());
+        assertEquals(0, journalEntries("PRIORITY"), "The restart should not escalate the ticket again");
+        assertTrue(Files.readString(dir.resolve("sla.txt")).contains("T1%%2"));
+    }
+}
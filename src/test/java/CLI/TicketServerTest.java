@@ -0,0 +1,230 @@
+package CLI;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TicketServerTest {
+
+    @TempDir
+    Path dir;
+
+    private TicketServer server;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(dir.resolve("users.txt"), "maryam%%pass\nore%%secret\n");
+        Files.writeString(dir.resolve("agents.txt"), "agent1%%agentpass%%AG001%%Alice Smith\n");
+        System.setProperty("tickets.dataDir", dir.toString());
+        // One open ticket per agent, so a second ticket stays waiting for /tickets/assign
+        System.setProperty("tickets.agentCapacity", "1");
+        MainMenu.loadData();
+        server = new TicketServer(0);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+        MainMenu.saveData();
+        System.clearProperty("tickets.dataDir");
+        System.clearProperty("tickets.agentCapacity");
+    }
+
+    private HttpResponse<String> send(String method, String path, String token, String body)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static JsonObject json(HttpResponse<String> response) {
+        return JsonParser.parseString(response.body()).getAsJsonObject();
+    }
+
+    private static String error(HttpResponse<String> response) {
+        return json(response).get("error").getAsString();
+    }
+
+    private String login(String username, String password, String role) throws IOException, InterruptedException {
+        HttpResponse<String> response = send("POST", "/login", null,
+                "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}");
+        assertEquals(200, response.statusCode());
+        assertEquals(role, json(response).get("role").getAsString());
+        return json(response).get("token").getAsString();
+    }
+
+    private JsonObject create(String token, String description, int priority) throws IOException, InterruptedException {
+        HttpResponse<String> response = send("POST", "/tickets", token,
+                "{\"description\":\"" + description + "\",\"priority\":" + priority + "}");
+        assertEquals(201, response.statusCode());
+        return json(response);
+    }
+
+    @Test
+    void testLoginErrors() throws IOException, InterruptedException {
+        assertEquals(401, send("POST", "/login", null, "{\"username\":\"maryam\",\"password\":\"wrong\"}").statusCode());
+        assertEquals(401, send("POST", "/login", null, "{\"username\":\"agent1\",\"password\":\"pass\"}").statusCode());
+        HttpResponse<String> missing = send("POST", "/login", null, "{\"username\":\"maryam\"}");
+        assertEquals(400, missing.statusCode());
+        assertEquals("username and password are required.", error(missing));
+        assertEquals(400, send("POST", "/login", null, "{not json").statusCode());
+        assertEquals(400, send("POST", "/login", null, "").statusCode());
+        assertEquals(405, send("GET", "/login", null, null).statusCode());
+        assertEquals("application/json; charset=utf-8",
+                send("GET", "/login", null, null).headers().firstValue("Content-Type").orElse(null));
+    }
+
+    @Test
+    void testTicketsNeedAValidSession() throws IOException, InterruptedException {
+        // SET UP:
+        String token = login("maryam", "pass", "user");
+
+        // LOGIC + ASSERTIONS:
+        assertEquals(401, send("GET", "/tickets", null, null).statusCode());
+        assertEquals(401, send("GET", "/tickets", "made-up", null).statusCode());
+        assertEquals(401, send("POST", "/logout", null, null).statusCode(), "Logging out needs a session too");
+        assertEquals(404, send("GET", "/ticketsx", token, null).statusCode());
+        assertEquals(404, send("GET", "/tickets/a/b", token, null).statusCode());
+        assertEquals(405, send("DELETE", "/tickets", token, null).statusCode());
+        assertEquals(405, send("GET", "/logout", token, null).statusCode());
+        assertEquals(204, send("POST", "/logout", token, null).statusCode());
+        assertEquals(401, send("GET", "/tickets", token, null).statusCode(), "The token should end with the session");
+    }
+
+    @Test
+    void testUserCreatesListsAndReadsTickets() throws IOException, InterruptedException {
+        // SET UP:
+        String maryam = login("maryam", "pass", "user");
+        String ore = login("ore", "secret", "user");
+
+        // LOGIC:
+        JsonObject created = create(maryam, "Printer on fire", 4);
+        create(maryam, "Screen flickers", 2);
+        create(maryam, "No network", 3);
+
+        // ASSERTIONS:
+        assertEquals("Printer on fire", created.get("description").getAsString());
+        assertEquals(4, created.get("priority").getAsInt());
+        assertEquals("maryam", created.get("reporter").getAsString());
+        assertEquals("Pending", created.get("status").getAsString());
+        assertFalse(created.has("agent"), "An unassigned ticket has no agent");
+
+        String id = created.get("id").getAsString();
+        HttpResponse<String> own = send("GET", "/tickets/" + id, maryam, null);
+        assertEquals(200, own.statusCode());
+        assertEquals(id, json(own).get("id").getAsString());
+        assertEquals(404, send("GET", "/tickets/" + id, ore, null).statusCode(), "Other users' tickets are hidden");
+        assertEquals(404, send("GET", "/tickets/missing", maryam, null).statusCode());
+
+        HttpResponse<String> first = send("GET", "/tickets?size=2", maryam, null);
+        assertEquals(200, first.statusCode());
+        JsonArray firstTickets = json(first).getAsJsonArray("tickets");
+        assertEquals(2, firstTickets.size());
+        assertEquals(id, firstTickets.get(0).getAsJsonObject().get("id").getAsString());
+        String next = json(first).get("nextPage").getAsString();
+        HttpResponse<String> second = send("GET", "/tickets?size=2&page=" + next, maryam, null);
+        assertEquals(1, json(second).getAsJsonArray("tickets").size());
+        assertFalse(json(second).has("nextPage"));
+        assertEquals(0, json(send("GET", "/tickets", ore, null)).getAsJsonArray("tickets").size());
+    }
+
+    @Test
+    void testCreateErrors() throws IOException, InterruptedException {
+        // SET UP:
+        String user = login("maryam", "pass", "user");
+        String agent = login("agent1", "agentpass", "agent");
+
+        // LOGIC + ASSERTIONS:
+        assertEquals(400, send("POST", "/tickets", user, "{\"priority\":3}").statusCode());
+        assertEquals(400, send("POST", "/tickets", user, "{\"description\":\"  \",\"priority\":3}").statusCode());
+        assertEquals(400, send("POST", "/tickets", user, "{\"description\":\"x\"}").statusCode());
+        assertEquals(400, send("POST", "/tickets", user, "{\"description\":\"x\",\"priority\":9}").statusCode());
+        assertEquals(400, send("POST", "/tickets", user, "[1, 2").statusCode());
+        HttpResponse<String> byAgent = send("POST", "/tickets", agent, "{\"description\":\"x\",\"priority\":3}");
+        assertEquals(403, byAgent.statusCode());
+        assertEquals("Only users can create tickets.", error(byAgent));
+        assertEquals(400, send("GET", "/tickets?size=abc", user, null).statusCode());
+        assertEquals(400, send("GET", "/tickets?size=0", user, null).statusCode());
+        assertEquals(400, send("GET", "/tickets?page=bogus", user, null).statusCode());
+        assertEquals(0, MainMenu.getTickets().size(), "Rejected requests should create nothing");
+    }
+
+    @Test
+    void testDescriptionCannotInjectJournalRecords() throws IOException, InterruptedException {
+        // SET UP:
+        String user = login("maryam", "pass", "user");
+
+        // LOGIC: a description that would end the record and start an agent one
+        HttpResponse<String> injected = send("POST", "/tickets", user,
+                "{\"description\":\"x\\nAGENT%%evil%%pw%%id%%name\",\"priority\":1}");
+        HttpResponse<String> lineBreak = send("POST", "/tickets", user, "{\"description\":\"a\\r\\nb\",\"priority\":1}");
+        HttpResponse<String> delimiter = send("POST", "/tickets", user, "{\"description\":\"a%%b\",\"priority\":1}");
+        server.stop();
+        MainMenu.saveData();
+        MainMenu.loadData();
+        server = new TicketServer(0);
+        server.start();
+
+        // ASSERTIONS:
+        assertEquals(400, injected.statusCode());
+        assertEquals(400, lineBreak.statusCode());
+        assertEquals(400, delimiter.statusCode());
+        assertEquals(0, MainMenu.getTickets().size());
+        assertNull(MainMenu.findAgent("evil"), "The description should not register an agent");
+        assertEquals(401, send("POST", "/login", null, "{\"username\":\"evil\",\"password\":\"pw\"}").statusCode());
+    }
+
+    @Test
+    void testAgentAssignsListsAndClosesTickets() throws IOException, InterruptedException {
+        // SET UP: the first ticket is pushed to the signed-in agent, who is
+        // then at capacity, so the second one waits
+        String agent = login("agent1", "agentpass", "agent");
+        String user = login("maryam", "pass", "user");
+        String pushed = create(user, "Printer on fire", 4).get("id").getAsString();
+        String waiting = create(user, "Screen flickers", 2).get("id").getAsString();
+
+        // LOGIC + ASSERTIONS:
+        assertEquals(403, send("POST", "/tickets/assign", user, null).statusCode());
+        assertEquals(405, send("GET", "/tickets/assign", agent, null).statusCode());
+        HttpResponse<String> assigned = send("POST", "/tickets/assign", agent, null);
+        assertEquals(200, assigned.statusCode());
+        assertEquals(waiting, json(assigned).get("id").getAsString());
+        assertEquals("agent1", json(assigned).get("agent").getAsString());
+        assertEquals("In progress", json(assigned).get("status").getAsString());
+        assertEquals(204, send("POST", "/tickets/assign", agent, null).statusCode(), "No ticket is left waiting");
+
+        JsonArray open = json(send("GET", "/tickets", agent, null)).getAsJsonArray("tickets");
+        assertEquals(2, open.size());
+        assertEquals(pushed, open.get(0).getAsJsonObject().get("id").getAsString());
+        assertEquals(200, send("GET", "/tickets/" + pushed, agent, null).statusCode());
+
+        assertEquals(403, send("POST", "/tickets/" + pushed + "/close", user, null).statusCode());
+        assertEquals(405, send("GET", "/tickets/" + pushed + "/close", agent, null).statusCode());
+        HttpResponse<String> closed = send("POST", "/tickets/" + pushed + "/close", agent, null);
+        assertEquals(200, closed.statusCode());
+        assertEquals("Closed", json(closed).get("status").getAsString());
+        assertTrue(json(closed).has("closed"));
+        assertEquals(404, send("POST", "/tickets/" + pushed + "/close", agent, null).statusCode(), "A ticket closes once");
+        assertEquals(1, json(send("GET", "/tickets", agent, null)).getAsJsonArray("tickets").size());
+        assertEquals("Closed", json(send("GET", "/tickets/" + pushed, user, null)).get("status").getAsString());
+    }
+}
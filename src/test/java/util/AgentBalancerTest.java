@@ -0,0 +1,115 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgentBalancerTest {
+
+    @Test
+    void testLeastLoadedSpreadsTickets() {
+        // SET UP:
+        AgentBalancer balancer = new AgentBalancer(AgentBalancer.Policy.LEAST_LOADED, 10);
+        balancer.register("ana", 3);
+        balancer.register("ben", 0);
+        balancer.register("cy", 1);
+
+        // LOGIC: five tickets should bring everyone level at 3
+        for (int i = 0; i < 5; i++) {
+            assertNotEquals("ana", balancer.reserve(), "The busiest agent should not be picked");
+        }
+
+        // ASSERTIONS:
+        assertEquals(3, balancer.load("ana"));
+        assertEquals(3, balancer.load("ben"));
+        assertEquals(3, balancer.load("cy"));
+    }
+
+    @Test
+    void testCapacityStopsReservations() {
+        // SET UP:
+        AgentBalancer balancer = new AgentBalancer(AgentBalancer.Policy.LEAST_LOADED, 2);
+        balancer.register("ana", 1);
+        balancer.register("ben", 2);
+
+        // LOGIC & ASSERTIONS:
+        assertEquals("ana", balancer.reserve());
+        assertNull(balancer.reserve(), "Every agent is at capacity");
+
+        balancer.decrement("ben");
+        assertEquals("ben", balancer.reserve(), "Closing a ticket should free capacity");
+        assertNull(balancer.reserve());
+    }
+
+    @Test
+    void testIncrementalCounts() {
+        // SET UP:
+        AgentBalancer balancer = new AgentBalancer(AgentBalancer.Policy.LEAST_LOADED, 5);
+        balancer.register("ana", 0);
+        balancer.register("ben", 0);
+
+        // LOGIC:
+        balancer.increment("ana");
+        balancer.increment("ana");
+        balancer.decrement("ben"); // never below zero
+        balancer.increment("nobody");
+
+        // ASSERTIONS:
+        assertEquals(2, balancer.load("ana"));
+        assertEquals(0, balancer.load("ben"));
+        assertEquals(-1, balancer.load("nobody"));
+        assertEquals("ben", balancer.reserve());
+    }
+
+    @Test
+    void testUnregister() {
+        // SET UP:
+        AgentBalancer balancer = new AgentBalancer(AgentBalancer.Policy.LEAST_LOADED, 10);
+        for (int i = 0; i < 20; i++) {
+            balancer.register("agent" + i, i);
+        }
+
+        // LOGIC:
+        assertTrue(balancer.unregister("agent0"));
+        assertTrue(balancer.unregister("agent19"));
+        assertTrue(balancer.unregister("agent7"));
+        assertFalse(balancer.unregister("agent7"));
+
+        // ASSERTIONS:
+        assertEquals(17, balancer.size());
+        assertEquals("agent1", balancer.reserve(), "The least loaded remaining agent should be picked");
+        assertEquals(2, balancer.load("agent1"));
+        assertEquals(18, balancer.load("agent18"), "Moved agents should keep their load");
+        assertEquals(-1, balancer.load("agent0"));
+    }
+
+    @Test
+    void testPowerOfTwoChoices() {
+        // SET UP:
+        AgentBalancer balancer = new AgentBalancer(AgentBalancer.Policy.POWER_OF_TWO_CHOICES, 4, new Random(42));
+        for (int i = 0; i < 8; i++) {
+            balancer.register("agent" + i, 0);
+        }
+
+        // LOGIC: fill every agent exactly to capacity
+        int reserved = 0;
+        while (balancer.reserve() != null) {
+            reserved++;
+        }
+
+        // ASSERTIONS:
+        assertEquals(32, reserved, "Every slot should be used and none overfilled");
+        for (int i = 0; i < 8; i++) {
+            assertEquals(4, balancer.load("agent" + i));
+        }
+    }
+
+    @Test
+    void testPolicyParse() {
+        assertEquals(AgentBalancer.Policy.POWER_OF_TWO_CHOICES, AgentBalancer.Policy.parse("power-of-two-choices"));
+        assertEquals(AgentBalancer.Policy.LEAST_LOADED, AgentBalancer.Policy.parse("Least_Loaded"));
+        assertThrows(IllegalArgumentException.class, () -> AgentBalancer.Policy.parse("random"));
+    }
+}
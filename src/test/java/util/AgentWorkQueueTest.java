@@ -0,0 +1,91 @@
+package util;
+
+import entities.Ticket;
+import entities.TicketStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgentWorkQueueTest {
+    private final LocalDateTime date = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    private Ticket ticket(String id, int priority) {
+        return new Ticket(id, "Issue " + id, priority, date, "maryam", "AG001", "In progress");
+    }
+
+    @Test
+    void testCloseRemovesFromOpenAndPriorityViews() {
+        // SET UP:
+        AgentWorkQueue queue = new AgentWorkQueue();
+        queue.assign(ticket("T1", 2));
+        queue.assign(ticket("T2", 5));
+        queue.assign(ticket("T3", 4));
+
+        // LOGIC:
+        Ticket closed = queue.close("T2");
+
+        // ASSERTIONS:
+        assertEquals(TicketStatus.IN_PROGRESS, closed.getTicketStatus(), "Only the ticket store changes the status");
+        assertEquals("T3", queue.peekNext().getTicketId(), "A closed ticket should never be handed out again");
+        assertEquals(2, queue.openCount());
+        assertNull(queue.getOpen("T2"));
+        assertEquals(1, queue.closedCount());
+        assertNull(queue.close("T2"), "Closing a ticket twice should do nothing");
+    }
+
+    @Test
+    void testPollNextHandsEachTicketOutOnce() {
+        // SET UP:
+        AgentWorkQueue queue = new AgentWorkQueue();
+        queue.assign(ticket("T1", 2));
+        queue.assign(ticket("T2", 5));
+
+        // LOGIC + ASSERTIONS:
+        assertEquals("T2", queue.pollNext().getTicketId());
+        assertEquals("T1", queue.pollNext().getTicketId());
+        assertNull(queue.pollNext());
+        assertEquals(2, queue.openCount(), "Handed out tickets stay open until closed");
+        assertEquals("T2", queue.close("T2").getTicketId());
+    }
+
+    @Test
+    void testRemoveWithoutClosing() {
+        // SET UP:
+        AgentWorkQueue queue = new AgentWorkQueue();
+        queue.assign(ticket("T1", 5));
+        queue.assign(ticket("T2", 1));
+
+        // LOGIC:
+        Ticket removed = queue.remove("T1");
+
+        // ASSERTIONS:
+        assertEquals(TicketStatus.IN_PROGRESS, removed.getTicketStatus());
+        assertEquals("T2", queue.peekNext().getTicketId());
+        assertEquals(0, queue.closedCount());
+        assertFalse(queue.assign(queue.getOpen("T2")));
+    }
+
+    @Test
+    void testArchiveEvictsOldest() {
+        // SET UP:
+        AgentWorkQueue queue = new AgentWorkQueue(3);
+        for (int i = 1; i <= 5; i++) {
+            queue.assign(ticket("T" + i, 3));
+        }
+
+        // LOGIC:
+        for (int i = 1; i <= 5; i++) {
+            queue.close("T" + i);
+        }
+
+        // ASSERTIONS:
+        DynamicArray<Ticket> closed = queue.getClosedTickets();
+        assertEquals(3, closed.size());
+        assertEquals("T3", closed.get(0).getTicketId());
+        assertEquals("T5", closed.get(2).getTicketId());
+        assertEquals(2, queue.evictedCount());
+        assertNull(queue.peekNext());
+    }
+}
@@ -0,0 +1,111 @@
+package util;
+
+import entities.Ticket;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgingPolicyTest {
+
+    private final LocalDateTime now = LocalDateTime.of(2024, 1, 2, 12, 0);
+
+    private Ticket ticket(String id, int priority, LocalDateTime created) {
+        return new Ticket(id, "Issue " + id, priority, created, "user", null, "Pending");
+    }
+
+    @Test
+    void testOldLowPriorityOvertakesNewHighPriority() {
+        // SET UP: four hours per level, so a priority 1 ticket needs sixteen hours to catch a new priority 5
+        Ticket old = ticket("old", 1, now.minusHours(17));
+        Ticket recent = ticket("recent", 1, now.minusHours(15));
+        Ticket urgent = ticket("urgent", 5, now);
+
+        // LOGIC:
+        long oldRank = AgingPolicy.DEFAULT.rank(old);
+        long recentRank = AgingPolicy.DEFAULT.rank(recent);
+        long urgentRank = AgingPolicy.DEFAULT.rank(urgent);
+
+        // ASSERTIONS:
+        assertTrue(oldRank < urgentRank, "Seventeen hours of waiting should outrank a new priority 5");
+        assertTrue(recentRank > urgentRank, "Fifteen hours of waiting should not");
+    }
+
+    @Test
+    void testNoneKeepsStrictPriority() {
+        // SET UP:
+        Ticket ancient = ticket("ancient", 4, now.minusYears(50));
+        Ticket urgent = ticket("urgent", 5, now);
+        Ticket older = ticket("older", 5, now.minusMinutes(1));
+
+        // LOGIC + ASSERTIONS:
+        assertTrue(AgingPolicy.NONE.rank(urgent) < AgingPolicy.NONE.rank(ancient));
+        assertTrue(AgingPolicy.NONE.rank(older) < AgingPolicy.NONE.rank(urgent), "Equal priorities go oldest first");
+    }
+
+    @Test
+    void testEffectivePriority() {
+        // SET UP:
+        Ticket t = ticket("1", 2, now.minusHours(9));
+
+        // LOGIC + ASSERTIONS:
+        assertEquals(4, AgingPolicy.DEFAULT.effectivePriority(t, now));
+        assertEquals(2, AgingPolicy.DEFAULT.effectivePriority(t, now.minusHours(9)));
+        assertEquals(5, AgingPolicy.DEFAULT.effectivePriority(t, now.plusDays(3)));
+        assertEquals(2, AgingPolicy.NONE.effectivePriority(t, now.plusDays(3)));
+    }
+
+    @Test
+    void testOfValidatesHeadStarts() {
+        Duration h = Duration.ofHours(1);
+        assertThrows(IllegalArgumentException.class, () -> AgingPolicy.of(h, h, h, h));
+        assertThrows(IllegalArgumentException.class, () -> AgingPolicy.of(h, h.negated(), h, h, h));
+        assertThrows(IllegalArgumentException.class, () -> AgingPolicy.of(Duration.ZERO, h.multipliedBy(2), h, h, h));
+        assertThrows(IllegalArgumentException.class, () -> AgingPolicy.linear(Duration.ofDays(365L * 300)));
+        assertDoesNotThrow(() -> AgingPolicy.of(Duration.ZERO, h, h, h.multipliedBy(8), h.multipliedBy(24)));
+    }
+
+    @Test
+    void testPriorityQueueAgesTickets() {
+        // SET UP:
+        PriorityQueue queue = new PriorityQueue(4, AgingPolicy.linear(Duration.ofHours(1)));
+        queue.add(ticket("new5", 5, now));
+        queue.add(ticket("old2", 2, now.minusHours(5)));
+        queue.add(ticket("new3", 3, now));
+
+        // LOGIC + ASSERTIONS: old2 has aged past priority 5
+        assertEquals("old2", queue.remove().getTicketId());
+        assertEquals("new5", queue.remove().getTicketId());
+
+        queue.add(ticket("old1", 1, now.minusHours(1)));
+        queue.updatePriority("old1", 4);
+        assertEquals("old1", queue.remove().getTicketId(), "A re-prioritised ticket should be re-ranked");
+        assertEquals("new3", queue.remove().getTicketId());
+    }
+
+    @Test
+    void testDispatchQueueAgesTickets() {
+        // SET UP:
+        DispatchQueue queue = new DispatchQueue(AgingPolicy.linear(Duration.ofHours(1)));
+        queue.add(ticket("new5", 5, now));
+        queue.add(ticket("old1", 1, now.minusHours(6)));
+
+        // LOGIC + ASSERTIONS:
+        assertEquals("old1", queue.claim("agent1").getTicketId());
+        assertEquals("new5", queue.claim("agent1").getTicketId());
+    }
+
+    @Test
+    void testCompareToRanksOlderTicketsHigher() {
+        // SET UP:
+        Ticket older = ticket("older", 3, now.minusHours(1));
+        Ticket newer = ticket("newer", 3, now);
+
+        // LOGIC + ASSERTIONS:
+        assertTrue(older.compareTo(newer) > 0);
+        assertTrue(newer.compareTo(older) < 0);
+        assertTrue(newer.compareTo(ticket("high", 4, now.minusDays(1))) < 0);
+    }
+}
@@ -0,0 +1,141 @@
+package util;
+
+import entities.Ticket;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BucketQueueTest {
+
+    private final LocalDateTime date = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    private Ticket ticket(String id, int priority) {
+        return new Ticket(id, "Issue " + id, priority, date, "user", null, "Pending");
+    }
+
+    @Test
+    void testRemove_HighestPriorityFirstThenArrivalOrder() {
+        // SET UP:
+        BucketQueue queue = new BucketQueue();
+        queue.add(ticket("1", 2));
+        queue.add(ticket("2", 5));
+        queue.add(ticket("3", 2));
+        queue.add(ticket("4", 4));
+
+        // LOGIC + ASSERTIONS:
+        assertEquals(4, queue.size());
+        assertEquals("2", queue.peek().getTicketId());
+        assertEquals("2", queue.remove().getTicketId());
+        assertEquals("4", queue.remove().getTicketId());
+        assertEquals("1", queue.remove().getTicketId());
+        assertEquals("3", queue.remove().getTicketId());
+        assertNull(queue.remove());
+        assertNull(queue.peek());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void testRemoveById_LeavesGapThatIsSkipped() {
+        // SET UP:
+        BucketQueue queue = new BucketQueue();
+        queue.add(ticket("1", 3));
+        queue.add(ticket("2", 3));
+        queue.add(ticket("3", 3));
+
+        // LOGIC:
+        Ticket removed = queue.remove("1");
+
+        // ASSERTIONS:
+        assertEquals("1", removed.getTicketId());
+        assertNull(queue.remove("1"));
+        assertFalse(queue.contains("1"));
+        assertEquals("2", queue.peek().getTicketId());
+        assertEquals(2, queue.size());
+    }
+
+    @Test
+    void testUpdatePriority_MovesToBackOfNewLevel() {
+        // SET UP:
+        BucketQueue queue = new BucketQueue();
+        queue.add(ticket("1", 1));
+        queue.add(ticket("2", 4));
+        queue.add(ticket("3", 2));
+
+        // LOGIC:
+        assertTrue(queue.updatePriority("1", 4));
+        assertFalse(queue.updatePriority("missing", 4));
+        assertThrows(IllegalArgumentException.class, () -> queue.updatePriority("3", 6));
+
+        // ASSERTIONS:
+        assertEquals(4, queue.get("1").getPriorityLevel());
+        assertEquals("2", queue.remove().getTicketId());
+        assertEquals("1", queue.remove().getTicketId());
+        assertEquals("3", queue.remove().getTicketId());
+    }
+
+    @Test
+    void testAdd_SameIdReplacesInsteadOfDuplicating() {
+        // SET UP:
+        BucketQueue queue = new BucketQueue();
+        queue.add(ticket("1", 2));
+        queue.add(ticket("2", 2));
+
+        // LOGIC:
+        queue.add(ticket("1", 2));
+        queue.add(ticket("2", 5));
+
+        // ASSERTIONS:
+        assertEquals(2, queue.size());
+        assertEquals("2", queue.remove().getTicketId());
+        assertEquals("1", queue.remove().getTicketId());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void testManyTicketsWithGaps_MatchesArrivalOrder() {
+        // SET UP: churn that makes rings grow, wrap and compact
+        BucketQueue queue = new BucketQueue();
+        DynamicArray<DynamicArray<String>> expected = new DynamicArray<>();
+        for (int level = 0; level < 5; level++) {
+            expected.add(new DynamicArray<>());
+        }
+        Random random = new Random(11);
+        int next = 0;
+
+        // LOGIC:
+        for (int round = 0; round < 20_000; round++) {
+            int action = random.nextInt(4);
+            if (action < 2) {
+                int priority = 1 + random.nextInt(5);
+                String id = "T" + next++;
+                queue.add(ticket(id, priority));
+                expected.get(priority - 1).add(id);
+            } else if (action == 2 && next > 0) {
+                String id = "T" + random.nextInt(next);
+                Ticket removed = queue.remove(id);
+                if (removed != null) {
+                    assertTrue(expected.get(removed.getPriorityLevel() - 1).remove(id));
+                }
+            } else {
+                Ticket removed = queue.remove();
+                for (int level = 4; level >= 0; level--) {
+                    if (!expected.get(level).isEmpty()) {
+                        assertEquals(expected.get(level).get(0), removed.getTicketId());
+                        expected.get(level).removeAt(0);
+                        break;
+                    }
+                }
+            }
+        }
+
+        // ASSERTIONS:
+        int remaining = 0;
+        for (int level = 0; level < 5; level++) {
+            remaining += expected.get(level).size();
+        }
+        assertEquals(remaining, queue.size());
+    }
+}
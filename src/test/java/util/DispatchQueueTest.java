@@ -0,0 +1,93 @@
+package util;
+
+import entities.Ticket;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DispatchQueueTest {
+
+    private final LocalDateTime date = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    @Test
+    void testClaim_HighestPriorityFirstThenArrivalOrder() {
+        // SET UP:
+        DispatchQueue queue = new DispatchQueue();
+        queue.add(new Ticket("1", "P2", 2, date, "user", null, "Pending"));
+        queue.add(new Ticket("2", "P5", 5, date, "user", null, "Pending"));
+        queue.add(new Ticket("3", "P2", 2, date, "user", null, "Pending"));
+
+        // LOGIC + ASSERTIONS:
+        assertEquals("2", queue.peek().getTicketId());
+        assertEquals("2", queue.claim("agent1").getTicketId());
+        assertEquals("1", queue.claim("agent1").getTicketId());
+        assertEquals("3", queue.claim("agent2").getTicketId());
+        assertNull(queue.claim("agent1"));
+        assertNull(queue.peek());
+    }
+
+    @Test
+    void testClaim_SkipsTicketsAssignedElsewhere() {
+        // SET UP:
+        DispatchQueue queue = new DispatchQueue();
+        Ticket taken = new Ticket("1", "P5", 5, date, "user", null, "Pending");
+        queue.add(taken);
+        queue.add(new Ticket("2", "P1", 1, date, "user", null, "Pending"));
+
+        // LOGIC:
+        taken.setAllocatedAgentId("someone");
+        Ticket claimed = queue.claim("agent1");
+
+        // ASSERTIONS:
+        assertEquals("2", claimed.getTicketId());
+        assertEquals("someone", taken.getAllocatedAgentId());
+    }
+
+    @Test
+    void testClaim_ConcurrentAgentsNeverShareATicket() throws InterruptedException {
+        // SET UP:
+        DispatchQueue queue = new DispatchQueue();
+        int ticketCount = 20000;
+        for (int i = 0; i < ticketCount; i++) {
+            queue.add(new Ticket(String.valueOf(i), "Bulk", i % 5 + 1, date, "user", null, "Pending"));
+        }
+        ConcurrentHashMap<String, String> owners = new ConcurrentHashMap<>();
+        AtomicInteger duplicates = new AtomicInteger();
+        int agents = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[agents];
+
+        // LOGIC:
+        for (int a = 0; a < agents; a++) {
+            String agentId = "AG" + a;
+            threads[a] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                Ticket t;
+                while ((t = queue.claim(agentId)) != null) {
+                    if (owners.putIfAbsent(t.getTicketId(), agentId) != null) {
+                        duplicates.incrementAndGet();
+                    }
+                }
+            });
+            threads[a].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // ASSERTIONS:
+        assertEquals(0, duplicates.get());
+        assertEquals(ticketCount, owners.size());
+        assertEquals(0, queue.size());
+    }
+}
@@ -2,6 +2,9 @@ package util;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.Spliterator;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class DynamicArrayTest {
@@ -118,4 +121,113 @@ public class DynamicArrayTest {
         }
         assertEquals(6, sum);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testAddAll() {
+        DynamicArray<Integer> other = new DynamicArray<>(0);
+        other.addAll(new Integer[]{4, 5});
+        array.add(1);
+
+        array.addAll(other);
+        array.addAll(new Integer[]{6});
+
+        assertEquals("[1, 4, 5, 6]", array.toString());
+        assertEquals(2, other.size());
+    }
+
+    @Test
+    void testEnsureCapacityAndTrimToSize() {
+        DynamicArray<Integer> small = new DynamicArray<>(0);
+        small.ensureCapacity(100);
+        for (int i = 0; i < 3; i++) {
+            small.add(i);
+        }
+
+        small.trimToSize();
+        small.add(3);
+
+        assertEquals("[0, 1, 2, 3]", small.toString());
+    }
+
+    @Test
+    void testRemoveIf() {
+        for (int i = 0; i < 10; i++) {
+            array.add(i);
+        }
+
+        int removed = array.removeIf(n -> n % 3 != 0);
+
+        assertEquals(6, removed);
+        assertEquals("[0, 3, 6, 9]", array.toString());
+        assertEquals(0, array.removeIf(n -> n > 100));
+    }
+
+    @Test
+    void testRemoveIfLeavesArrayIntactWhenFilterThrows() {
+        // SET UP:
+        for (int i = 0; i < 6; i++) {
+            array.add(i);
+        }
+
+        // LOGIC: the filter matches 1 and fails on 4
+        assertThrows(IllegalStateException.class, () -> array.removeIf(n -> {
+            if (n == 4) throw new IllegalStateException();
+            return n == 1;
+        }));
+
+        // ASSERTIONS:
+        assertEquals(6, array.size());
+        assertEquals("[0, 1, 2, 3, 4, 5]", array.toString());
+    }
+
+    @Test
+    void testIteratorFailsFast() {
+        array.add(1);
+        array.add(2);
+
+        assertThrows(ConcurrentModificationException.class, () -> {
+            for (Integer num : array) {
+                array.add(num);
+            }
+        });
+        assertThrows(ConcurrentModificationException.class, () -> array.forEach(array::add));
+    }
+
+    @Test
+    void testForEach() {
+        array.add(1);
+        array.add(2);
+        array.add(3);
+        int[] sum = {0};
+
+        array.forEach(n -> sum[0] += n);
+
+        assertEquals(6, sum[0]);
+    }
+
+    @Test
+    void testSpliteratorSplitsEvenly() {
+        for (int i = 0; i < 100; i++) {
+            array.add(i);
+        }
+
+        Spliterator<Integer> right = array.spliterator();
+        Spliterator<Integer> left = right.trySplit();
+
+        assertTrue(right.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        assertEquals(50, left.estimateSize());
+        assertEquals(50, right.estimateSize());
+        assertTrue(left.tryAdvance(n -> assertEquals(0, n)));
+    }
+
+    @Test
+    void testStreams() {
+        for (int i = 1; i <= 10_000; i++) {
+            array.add(i);
+        }
+
+        assertEquals(50_005_000L, array.parallelStream().mapToLong(Integer::longValue).sum());
+        assertEquals(5_000, array.stream().filter(n -> n % 2 == 0).count());
+        assertEquals(array.get(0), array.parallelStream().findFirst().orElseThrow());
+    }
+}
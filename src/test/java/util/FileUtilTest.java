@@ -0,0 +1,103 @@
+package util;
+
+import entities.Ticket;
+import entities.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileUtilTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testSplitFields() {
+        String[] parts = new String[3];
+
+        assertEquals(3, fileUtil.splitFields("a%%b%%c", parts));
+        assertArrayEquals(new String[]{"a", "b", "c"}, parts);
+        assertEquals(3, fileUtil.splitFields("a%%%%c", parts));
+        assertEquals("", parts[1]);
+        assertEquals(2, fileUtil.splitFields("a%%b", parts));
+        assertEquals(-1, fileUtil.splitFields("a%%b%%c%%d", parts));
+    }
+
+    @Test
+    void testLoadTickets_MoreThanOneHundredLines() throws IOException {
+        // SET UP:
+        Path file = dir.resolve("tickets.txt");
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file))) {
+            for (int i = 0; i < 250; i++) {
+                writer.println("T" + i + "%%Issue " + i + "%%" + (i % 5 + 1) + "%%2024-04-01T10:00%%user%%" + (i % 2 == 0 ? "AG001" : "null") + "%%Pending");
+            }
+            writer.println("not a ticket");
+        }
+        DynamicArray<Ticket> tickets = new DynamicArray<>();
+
+        // LOGIC:
+        int loaded = fileUtil.loadTickets(file.toString(), tickets::add);
+
+        // ASSERTIONS:
+        assertEquals(250, loaded);
+        assertEquals(250, tickets.size());
+        assertEquals("T249", tickets.get(249).getTicketId());
+        assertEquals(LocalDateTime.of(2024, 4, 1, 10, 0), tickets.get(0).getCreationDate());
+        assertEquals("AG001", tickets.get(0).getAllocatedAgentId());
+        assertNull(tickets.get(1).getAllocatedAgentId(), "The text \"null\" should load as an unassigned ticket");
+        assertEquals(250, fileUtil.readTickets(file.toString()).length);
+    }
+
+    @Test
+    void testLoadUsers_MissingFile() {
+        assertEquals(0, fileUtil.loadUsers(dir.resolve("missing.txt").toString(), u -> fail()));
+        assertEquals(0, fileUtil.readUsers(dir.resolve("missing.txt").toString()).length);
+    }
+
+    @Test
+    void testSaveUsers_WritesUtf8() throws IOException {
+        // SET UP:
+        Path file = dir.resolve("users.txt");
+        User[] users = {new User("Zoë", "pässwörd"), new User("Dara", "1209")};
+
+        // LOGIC:
+        fileUtil.saveUsers(file.toString(), users);
+        User[] loaded = fileUtil.readUsers(file.toString());
+
+        // ASSERTIONS:
+        assertEquals("Zoë%%pässwörd", Files.readAllLines(file, StandardCharsets.UTF_8).get(0));
+        assertEquals(2, loaded.length);
+        assertEquals("Zoë", loaded[0].getUsername());
+        assertEquals("pässwörd", loaded[0].getPassword());
+    }
+
+    @Test
+    void testEstimateRecords() throws IOException {
+        // SET UP:
+        Path small = dir.resolve("small.txt");
+        Files.writeString(small, "a%%b\nc%%d\ne%%f");
+        Path large = dir.resolve("large.txt");
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(large))) {
+            for (int i = 0; i < 5000; i++) {
+                writer.println("user" + (i % 10) + "%%password");
+            }
+        }
+
+        // LOGIC:
+        int smallEstimate = fileUtil.estimateRecords(small.toString());
+        int largeEstimate = fileUtil.estimateRecords(large.toString());
+
+        // ASSERTIONS:
+        assertEquals(3, smallEstimate);
+        assertTrue(largeEstimate >= 5000 && largeEstimate < 6000, "Estimate was " + largeEstimate);
+        assertEquals(0, fileUtil.estimateRecords(dir.resolve("missing.txt").toString()));
+    }
+}
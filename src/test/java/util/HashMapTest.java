@@ -88,4 +88,55 @@ public class HashMapTest {
         assertThrows(IllegalArgumentException.class, () -> map.get(null));
         assertThrows(IllegalArgumentException.class, () -> map.remove(null));
     }
+
+    @Test
+    void testGrowsPastInitialSize() {
+        HashMap<Integer, Integer> map = new HashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            map.put(i, i * 2);
+        }
+
+        assertEquals(10000, map.size());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i * 2, map.get(i));
+        }
+        Object[] keys = map.getKeys();
+        assertEquals(10000, keys.length);
+    }
+
+    @Test
+    void testMinValueHashCode() {
+        HashMap<Integer, String> map = new HashMap<>();
+        map.put(Integer.MIN_VALUE, "min");
+        map.put(Integer.MAX_VALUE, "max");
+
+        assertEquals("min", map.get(Integer.MIN_VALUE));
+        assertEquals("max", map.get(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testRemoveKeepsCollidingKeysReachable() {
+        // "Aa" and "BB" share a hash code, so they land in the same probe run
+        HashMap<String, Integer> map = new HashMap<>();
+        map.put("Aa", 1);
+        map.put("BB", 2);
+        map.put("AaAa", 3);
+        map.put("BBBB", 4);
+
+        assertEquals(1, map.remove("Aa"));
+        assertEquals(2, map.get("BB"));
+        assertEquals(3, map.get("AaAa"));
+        assertEquals(4, map.get("BBBB"));
+        assertFalse(map.containsKey("Aa"));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    void testContainsKeyWithNullValue() {
+        HashMap<String, String> map = new HashMap<>();
+        map.put("empty", null);
+
+        assertTrue(map.containsKey("empty"));
+        assertNull(map.get("empty"));
+    }
 }
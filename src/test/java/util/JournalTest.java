@@ -0,0 +1,129 @@
+package util;
+
+import entities.Agent;
+import entities.Ticket;
+import entities.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Collects replayed entries as readable strings.
+     */
+    private static class Recorder implements Journal.Listener {
+        final DynamicArray<String> events = new DynamicArray<>();
+
+        public void ticketCreated(Ticket ticket) { events.add("create " + ticket.getTicketId() + " " + ticket.getPriorityLevel()); }
+        public void ticketAssigned(String ticketId, String agentId) { events.add("assign " + ticketId + " " + agentId); }
+        public void statusChanged(String ticketId, String status) { events.add("status " + ticketId + " " + status); }
+        public void ticketClosed(String ticketId, LocalDateTime closedAt) { events.add("close " + ticketId + " " + closedAt); }
+        public void priorityChanged(String ticketId, int priorityLevel) { events.add("priority " + ticketId + " " + priorityLevel); }
+        public void deadlinesMissed(String ticketId, int missedDeadlines) { events.add("missed " + ticketId + " " + missedDeadlines); }
+        public void userRegistered(User user) { events.add("user " + user.getUsername()); }
+        public void agentRegistered(Agent agent) { events.add("agent " + agent.getAgentId()); }
+    }
+
+    @Test
+    void testReplay_ReturnsEntriesInOrder() throws IOException {
+        // SET UP:
+        String file = dir.resolve("journal.txt").toString();
+        try (Journal journal = new Journal(file)) {
+            journal.userRegistered(new User("maryam", "pass"));
+            journal.agentRegistered(new Agent("agent1", "pass", "AG001", "Alice"));
+            journal.ticketCreated(new Ticket("T1", "Can't log in", 4, LocalDateTime.of(2024, 4, 1, 10, 0), "maryam", null, "Pending"));
+            journal.ticketAssigned("T1", "agent1");
+            journal.statusChanged("T1", "In progress");
+            journal.priorityChanged("T1", 5);
+            journal.deadlinesMissed("T1", 2);
+            journal.ticketClosed("T1", LocalDateTime.of(2024, 4, 2, 9, 30));
+        }
+        Recorder recorder = new Recorder();
+
+        // LOGIC:
+        int replayed;
+        try (Journal journal = new Journal(file)) {
+            replayed = journal.replay(recorder);
+        }
+
+        // ASSERTIONS:
+        assertEquals(8, replayed);
+        assertEquals("[user maryam, agent AG001, create T1 4, assign T1 agent1, status T1 In progress, priority T1 5, missed T1 2, close T1 2024-04-02T09:30]",
+                recorder.events.toString());
+    }
+
+    @Test
+    void testTicketClosed_NeedsAClosingTime() throws IOException {
+        // SET UP:
+        Path file = dir.resolve("journal.txt");
+
+        // LOGIC + ASSERTIONS:
+        try (Journal journal = new Journal(file.toString())) {
+            assertThrows(IllegalArgumentException.class, () -> journal.ticketClosed("T1", null));
+        }
+        assertEquals("", Files.readString(file), "Nothing should be written for a rejected entry");
+    }
+
+    @Test
+    void testReplay_SkipsTruncatedLastLine() throws IOException {
+        // SET UP: a crash cut the closing time of the last entry short
+        Path file = dir.resolve("journal.txt");
+        try (Journal journal = new Journal(file.toString())) {
+            journal.statusChanged("T1", "In progress");
+            journal.priorityChanged("T1", 5);
+        }
+        Files.writeString(file, "CLOSE%%T1%%2024-04-02T0", StandardOpenOption.APPEND);
+        Recorder recorder = new Recorder();
+
+        // LOGIC:
+        int replayed;
+        try (Journal journal = new Journal(file.toString())) {
+            replayed = journal.replay(recorder);
+        }
+
+        // ASSERTIONS:
+        assertEquals(2, replayed);
+        assertEquals("[status T1 In progress, priority T1 5]", recorder.events.toString());
+    }
+
+    @Test
+    void testCompaction_WritesSnapshotAndEmptiesJournal() throws IOException {
+        // SET UP:
+        String file = dir.resolve("journal.txt").toString();
+        Path snapshot = dir.resolve("snapshot.txt");
+        Journal journal = new Journal(file);
+        Thread[] capturedOn = new Thread[1];
+        journal.enableCompaction(3, () -> {
+            capturedOn[0] = Thread.currentThread();
+            return () -> Files.writeString(snapshot, "compacted");
+        }, 0);
+
+        // LOGIC:
+        journal.statusChanged("T1", "Stalled");
+        journal.statusChanged("T2", "Stalled");
+        journal.statusChanged("T3", "Stalled"); // triggers compaction
+        journal.statusChanged("T4", "Stalled");
+        journal.close();
+
+        // ASSERTIONS:
+        assertEquals("compacted", Files.readString(snapshot));
+        assertNotSame(Thread.currentThread(), capturedOn[0], "The writer that triggered compaction should not capture the state");
+        assertFalse(Files.exists(dir.resolve("journal.txt.compacting")));
+        Recorder recorder = new Recorder();
+        try (Journal reopened = new Journal(file)) {
+            reopened.replay(recorder);
+        }
+        assertEquals("[status T4 Stalled]", recorder.events.toString(), "Only entries after the compaction should remain");
+    }
+}
@@ -0,0 +1,76 @@
+package util;
+
+import entities.Ticket;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ConcurrentModificationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LinkedTicketSetTest {
+    private LinkedTicketSet set;
+    private final LocalDateTime date = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    @BeforeEach
+    void setUp() {
+        set = new LinkedTicketSet();
+        for (int i = 1; i <= 5; i++) {
+            set.add(new Ticket("T" + i, "Issue " + i, 3, date, "maryam", "AG001", "In progress"));
+        }
+    }
+
+    @Test
+    void testRemoveKeepsInsertionOrder() {
+        // LOGIC:
+        Ticket middle = set.remove("T3");
+        Ticket first = set.remove("T1");
+        Ticket last = set.remove("T5");
+
+        // ASSERTIONS:
+        assertEquals("T3", middle.getTicketId());
+        assertEquals("T1", first.getTicketId());
+        assertEquals("T5", last.getTicketId());
+        assertNull(set.remove("T3"), "Removing an absent ticket should return null");
+        assertEquals(2, set.size());
+        assertEquals("[T2, T4]", ids());
+        assertEquals("T2", set.first().getTicketId());
+    }
+
+    @Test
+    void testLookupAndDuplicates() {
+        assertEquals("Issue 4", set.get("T4").getIssueDescription());
+        assertNull(set.get("missing"));
+        assertTrue(set.contains("T2"));
+        assertFalse(set.add(new Ticket("T2", "Again", 1, date, "ore", null, "Pending")));
+        assertEquals(5, set.size());
+    }
+
+    @Test
+    void testAddAfterEmptying() {
+        // LOGIC:
+        while (set.removeFirst() != null) {
+        }
+        set.add(new Ticket("T9", "New", 1, date, "ore", null, "Pending"));
+
+        // ASSERTIONS:
+        assertEquals("[T9]", ids());
+        assertEquals(1, set.toArray().size());
+    }
+
+    @Test
+    void testIteratorFailsFast() {
+        assertThrows(ConcurrentModificationException.class, () -> {
+            for (Ticket t : set) {
+                set.remove(t.getTicketId());
+            }
+        });
+    }
+
+    private String ids() {
+        StringBuilder sb = new StringBuilder("[");
+        set.forEach(t -> sb.append(sb.length() > 1 ? ", " : "").append(t.getTicketId()));
+        return sb.append("]").toString();
+    }
+}
@@ -0,0 +1,65 @@
+package util;
+
+import entities.Ticket;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedTicketReaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testReadTickets_MatchesStreamingLoaderInFileOrder() throws IOException {
+        // SET UP: enough rows to span several 1 MB chunks
+        Path file = dir.resolve("tickets.txt");
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file))) {
+            for (int i = 0; i < 40000; i++) {
+                String date = i % 2 == 0 ? "2024-04-01T10:00" : "2025-04-23T17:03:03.685379";
+                writer.print("T" + i + "%%Café issue number " + i + " with some padding text%%" + (i % 5 + 1) + "%%"
+                        + date + "%%user" + (i % 7) + (i % 5 == 0 ? "%%AG001%%Closed%%2024-05-01T12:00" : "%%null%%Pending")
+                        + (i % 3 == 0 ? "\r\n" : "\n"));
+            }
+            writer.println("broken%%line");
+        }
+        DynamicArray<Ticket> expected = new DynamicArray<>();
+        fileUtil.loadTickets(file.toString(), expected::add);
+        DynamicArray<Ticket> actual = new DynamicArray<>();
+
+        // LOGIC:
+        int loaded = MappedTicketReader.readTickets(file.toString(), actual, new ForkJoinPool(4));
+
+        // ASSERTIONS:
+        assertEquals(40000, loaded);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < actual.size(); i++) {
+            Ticket e = expected.get(i);
+            Ticket a = actual.get(i);
+            assertEquals(e.getTicketId(), a.getTicketId());
+            assertEquals(e.getIssueDescription(), a.getIssueDescription());
+            assertEquals(e.getPriorityLevel(), a.getPriorityLevel());
+            assertEquals(e.getCreationDate(), a.getCreationDate());
+            assertEquals(e.getReportingUsername(), a.getReportingUsername());
+            assertEquals(e.getStatus(), a.getStatus());
+            assertEquals(e.getClosedDate(), a.getClosedDate());
+        }
+        assertEquals(LocalDateTime.of(2024, 5, 1, 12, 0), actual.get(0).getClosedDate());
+        assertEquals(LocalDateTime.of(2025, 4, 23, 17, 3, 3, 685379000), actual.get(1).getCreationDate());
+    }
+
+    @Test
+    void testReadTickets_MissingFile() {
+        DynamicArray<Ticket> tickets = new DynamicArray<>();
+        assertEquals(0, MappedTicketReader.readTickets(dir.resolve("missing.txt").toString(), tickets));
+        assertTrue(tickets.isEmpty());
+    }
+}
@@ -0,0 +1,110 @@
+package util;
+
+import entities.Ticket;
+import entities.TicketStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageTest {
+    private DynamicArray<Ticket> tickets;
+    private final LocalDateTime date = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    @BeforeEach
+    void setUp() {
+        tickets = new DynamicArray<>();
+        for (int i = 1; i <= 7; i++) {
+            tickets.add(new Ticket("T" + i, "Issue " + i, 3, date, "maryam", "AG001",
+                    i % 2 == 0 ? "Closed" : "Pending"));
+        }
+    }
+
+    @Test
+    void testSliceWalksEveryPage() {
+        // LOGIC:
+        Page<Ticket> first = Page.slice(tickets, 3, null, Ticket::getTicketId);
+        Page<Ticket> second = Page.slice(tickets, 3, first.getNextToken(), Ticket::getTicketId);
+        Page<Ticket> third = Page.slice(tickets, 3, second.getNextToken(), Ticket::getTicketId);
+
+        // ASSERTIONS:
+        assertEquals("[T1, T2, T3]", ids(first));
+        assertEquals("[T4, T5, T6]", ids(second));
+        assertEquals("[T7]", ids(third));
+        assertTrue(second.hasNext());
+        assertFalse(third.hasNext(), "The last page should not hand out a token");
+    }
+
+    @Test
+    void testExactFitHasNoEmptyLastPage() {
+        Page<Ticket> page = Page.slice(tickets, 7, null, Ticket::getTicketId);
+        assertEquals(7, page.size());
+        assertNull(page.getNextToken());
+    }
+
+    @Test
+    void testFilterSkipsItems() {
+        // LOGIC:
+        Page<Ticket> first = Page.slice(tickets, 2, null, Ticket::getTicketId,
+                t -> t.getTicketStatus() == TicketStatus.CLOSED);
+        Page<Ticket> second = Page.slice(tickets, 2, first.getNextToken(), Ticket::getTicketId,
+                t -> t.getTicketStatus() == TicketStatus.CLOSED);
+
+        // ASSERTIONS:
+        assertEquals("[T2, T4]", ids(first));
+        assertEquals("[T6]", ids(second));
+        assertNull(second.getNextToken(), "No closed ticket follows T6");
+    }
+
+    @Test
+    void testResumesAfterRemovals() {
+        // SET UP:
+        Page<Ticket> first = Page.slice(tickets, 3, null, Ticket::getTicketId);
+
+        // LOGIC: remove tickets already listed, shifting the rest left
+        tickets.removeIf(t -> t.getTicketId().equals("T1") || t.getTicketId().equals("T2"));
+        Page<Ticket> second = Page.slice(tickets, 3, first.getNextToken(), Ticket::getTicketId);
+
+        // ASSERTIONS:
+        assertEquals("[T4, T5, T6]", ids(second), "Nothing should be skipped or repeated");
+    }
+
+    @Test
+    void testRejectsBadInput() {
+        assertThrows(IllegalArgumentException.class, () -> Page.slice(tickets, 0, null, Ticket::getTicketId));
+        assertThrows(IllegalArgumentException.class, () -> Page.slice(tickets, 3, "!!!", Ticket::getTicketId));
+        assertThrows(IllegalArgumentException.class, () -> Page.slice(tickets, 3, "bm9jb2xvbg", Ticket::getTicketId));
+    }
+
+    @Test
+    void testLinkedTicketSetPaging() {
+        // SET UP:
+        LinkedTicketSet set = new LinkedTicketSet();
+        for (Ticket t : tickets) {
+            set.add(t);
+        }
+
+        // LOGIC:
+        Page<Ticket> first = set.page(3, null);
+        set.remove("T3");
+        Page<Ticket> second = set.page(3, first.getNextToken());
+        Page<Ticket> third = set.page(3, second.getNextToken());
+
+        // ASSERTIONS:
+        assertEquals("[T1, T2, T3]", ids(first));
+        assertEquals("[T4, T5, T6]", ids(second), "Removing the last listed ticket should not skip any");
+        assertEquals("[T7]", ids(third));
+        assertNull(third.getNextToken());
+    }
+
+    private static String ids(Page<Ticket> page) {
+        StringBuilder sb = new StringBuilder("[");
+        for (Ticket t : page) {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(t.getTicketId());
+        }
+        return sb.append(']').toString();
+    }
+}
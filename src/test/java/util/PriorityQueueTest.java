@@ -125,6 +125,68 @@ class PriorityQueueTest {
             assertTrue(queue.isEmpty(), "Queue should be empty after clear");
             assertEquals(0, queue.size(), "Queue size should be 0 after clear");
         }
+    
+    @Test
+    void testRemoveById_KeepsHeapOrder() {
+        // SET UP:
+        PriorityQueue queue = new PriorityQueue();
+        LocalDateTime date = LocalDateTime.of(2024, 1, 1, 10, 0);
+        queue.add(new Ticket("1", "P1", 1, date, "user", null, "Pending"));
+        queue.add(new Ticket("2", "P4", 4, date, "user", null, "Pending"));
+        queue.add(new Ticket("3", "P5", 5, date, "user", null, "Pending"));
+        queue.add(new Ticket("4", "P2", 2, date, "user", null, "Pending"));
+
+        // LOGIC:
+        Ticket removed = queue.remove("3");
+
+        // ASSERTIONS:
+        assertEquals("3", removed.getTicketId());
+        assertFalse(queue.contains("3"));
+        assertEquals(3, queue.size());
+        assertEquals("2", queue.remove().getTicketId());
+        assertEquals("4", queue.remove().getTicketId());
+        assertEquals("1", queue.remove().getTicketId());
+        assertNull(queue.remove("3"), "Removing an absent ticket should return null");
+    }
+
+    @Test
+    void testUpdatePriority_MovesTicketToFront() {
+        // SET UP:
+        PriorityQueue queue = new PriorityQueue();
+        LocalDateTime date = LocalDateTime.of(2024, 1, 1, 10, 0);
+        queue.add(new Ticket("1", "P3", 3, date, "user", null, "Pending"));
+        queue.add(new Ticket("2", "P1", 1, date, "user", null, "Pending"));
+
+        // LOGIC:
+        boolean updated = queue.updatePriority("2", 5);
+
+        // ASSERTIONS:
+        assertTrue(updated);
+        assertEquals("2", queue.peek().getTicketId(), "Re-prioritised ticket should move to the head");
+        assertEquals(5, queue.get("2").getPriorityLevel());
+        assertFalse(queue.updatePriority("missing", 2));
+    }
+
+    @Test
+    void testManyTickets_RemovedInPriorityThenInsertionOrder() {
+        // SET UP:
+        PriorityQueue queue = new PriorityQueue(1);
+        LocalDateTime date = LocalDateTime.of(2024, 1, 1, 10, 0);
+        for (int i = 0; i < 500; i++) {
+            queue.add(new Ticket(String.valueOf(i), "Bulk", (i * 7) % 5 + 1, date, "user", null, "Pending"));
+        }
+
+        // LOGIC + ASSERTIONS:
+        Ticket previous = queue.remove();
+        while (!queue.isEmpty()) {
+            Ticket current = queue.remove();
+            assertTrue(previous.getPriorityLevel() >= current.getPriorityLevel());
+            if (previous.getPriorityLevel() == current.getPriorityLevel()) {
+                assertTrue(Integer.parseInt(previous.getTicketId()) < Integer.parseInt(current.getTicketId()));
+            }
+            previous = current;
+        }
     }
+}
 
 
@@ -0,0 +1,108 @@
+package util;
+
+import entities.Ticket;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlaSchedulerTest {
+
+    private final LocalDateTime start = LocalDateTime.of(2024, 3, 1, 9, 0);
+
+    private static Ticket ticket(String id, int priority, LocalDateTime created, String agent) {
+        return new Ticket(id, "Issue " + id, priority, created, "user", agent, agent == null ? "Pending" : "In progress");
+    }
+
+    @Test
+    void testWarningThenBreach() {
+        // SET UP: a priority 5 ticket must be picked up within 15 minutes, warned at 12
+        DynamicArray<SlaScheduler.Event> events = new DynamicArray<>();
+        SlaScheduler sla = new SlaScheduler(SlaPolicy.DEFAULT, Duration.ofSeconds(1), start, events::add);
+        sla.track(ticket("T1", 5, start, null));
+
+        // LOGIC + ASSERTIONS:
+        assertEquals(4, sla.pending());
+        assertEquals(0, sla.tick(start.plusMinutes(11)));
+        assertEquals(1, sla.tick(start.plusMinutes(12)));
+        assertEquals(SlaScheduler.Kind.RESPONSE_WARNING, events.get(0).kind());
+        assertEquals(1, sla.tick(start.plusMinutes(15)));
+        assertEquals(SlaScheduler.Kind.RESPONSE_BREACH, events.get(1).kind());
+        assertTrue(events.get(1).kind().isBreach());
+        assertEquals(start.plusMinutes(15), events.get(1).deadline());
+        assertEquals(2, sla.pending(), "The resolution deadline is still pending");
+    }
+
+    @Test
+    void testAssignAndCancelDropDeadlines() {
+        // SET UP:
+        DynamicArray<SlaScheduler.Event> events = new DynamicArray<>();
+        SlaScheduler sla = new SlaScheduler(SlaPolicy.DEFAULT, Duration.ofSeconds(1), start, events::add);
+        sla.track(ticket("T1", 4, start, null));
+        sla.track(ticket("T2", 4, start, null));
+
+        // LOGIC:
+        sla.assigned("T1");
+        sla.cancel("T2");
+        sla.tick(start.plusDays(1));
+
+        // ASSERTIONS:
+        assertEquals(2, events.size());
+        assertEquals("T1", events.get(0).ticketId());
+        assertEquals(SlaScheduler.Kind.RESOLUTION_WARNING, events.get(0).kind());
+        assertEquals(SlaScheduler.Kind.RESOLUTION_BREACH, events.get(1).kind());
+        assertEquals(0, sla.pending());
+    }
+
+    @Test
+    void testTrackingSkipsPassedWarningsAndClosedTickets() {
+        // SET UP:
+        DynamicArray<SlaScheduler.Event> events = new DynamicArray<>();
+        SlaScheduler sla = new SlaScheduler(SlaPolicy.DEFAULT, Duration.ofSeconds(1), start, events::add);
+        Ticket closed = ticket("T2", 3, start, "agent1");
+        closed.setStatus("Closed");
+
+        // LOGIC:
+        sla.track(ticket("T1", 3, start.minusDays(2), "agent1"));
+        sla.track(closed);
+        sla.tick(start.plusSeconds(1));
+
+        // ASSERTIONS:
+        assertEquals(1, events.size());
+        assertEquals(SlaScheduler.Kind.RESOLUTION_BREACH, events.get(0).kind());
+        assertEquals(0, sla.pending());
+    }
+
+    @Test
+    void testTrackingAgainReplacesDeadlines() {
+        // SET UP:
+        DynamicArray<SlaScheduler.Event> events = new DynamicArray<>();
+        SlaScheduler sla = new SlaScheduler(SlaPolicy.DEFAULT, Duration.ofSeconds(1), start, events::add);
+        Ticket t = ticket("T1", 1, start, null);
+        sla.track(t);
+
+        // LOGIC:
+        t.setPriorityLevel(5);
+        sla.track(t);
+        sla.tick(start.plusMinutes(15));
+
+        // ASSERTIONS:
+        assertEquals(2, events.size());
+        assertEquals(SlaScheduler.Kind.RESPONSE_BREACH, events.get(1).kind());
+        assertEquals(2, sla.pending());
+    }
+
+    @Test
+    void testPolicyValidation() {
+        Duration[] five = {Duration.ofHours(1), Duration.ofHours(1), Duration.ofHours(1), Duration.ofHours(1), Duration.ofHours(1)};
+        Duration[] four = {Duration.ofHours(1), Duration.ofHours(1), Duration.ofHours(1), Duration.ofHours(1)};
+        Duration[] zero = {Duration.ofHours(1), Duration.ZERO, Duration.ofHours(1), Duration.ofHours(1), Duration.ofHours(1)};
+        assertThrows(IllegalArgumentException.class, () -> new SlaPolicy(four, five, 0.8));
+        assertThrows(IllegalArgumentException.class, () -> new SlaPolicy(five, zero, 0.8));
+        assertThrows(IllegalArgumentException.class, () -> new SlaPolicy(five, five, 0));
+        assertEquals(Duration.ofMinutes(30), new SlaPolicy(five, five, 0.5).warningAfter(Duration.ofHours(1)));
+        assertEquals(Duration.ofMinutes(15), SlaPolicy.DEFAULT.responseTarget(5));
+    }
+}
@@ -0,0 +1,47 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringLongMapTest {
+
+    @Test
+    void testPutGetRemove() {
+        StringLongMap map = new StringLongMap();
+
+        map.put("a", 1L << 40);
+        map.put("b", 0);
+        map.put("a", 7);
+
+        assertEquals(2, map.size());
+        assertEquals(7, map.get("a"));
+        assertEquals(0, map.get("b"));
+        assertEquals(StringLongMap.MISSING, map.get("c"));
+        assertTrue(map.containsKey("b"));
+        assertEquals(7, map.remove("a"));
+        assertEquals(StringLongMap.MISSING, map.remove("a"));
+        assertEquals(1, map.size());
+        assertThrows(IllegalArgumentException.class, () -> map.put("c", -1));
+    }
+
+    @Test
+    void testManyKeysWithRemovals() {
+        // SET UP:
+        StringLongMap map = new StringLongMap();
+        for (int i = 0; i < 10_000; i++) {
+            map.put("T" + i, i * 3L);
+        }
+
+        // LOGIC: removing every other key shifts probe runs back
+        for (int i = 0; i < 10_000; i += 2) {
+            assertEquals(i * 3L, map.remove("T" + i));
+        }
+
+        // ASSERTIONS:
+        assertEquals(5_000, map.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i % 2 == 0 ? StringLongMap.MISSING : i * 3L, map.get("T" + i));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package util;
+
+import entities.Ticket;
+import entities.TicketStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TicketArchiveTest {
+
+    @TempDir
+    Path dir;
+
+    private final LocalDateTime date = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    private Ticket ticket(String id, String agent, String status) {
+        return new Ticket(id, "Issue " + id, 3, date, "maryam", agent, status);
+    }
+
+    @Test
+    void testArchiveClosed_MovesOldTicketsOutOfTheStore() throws IOException {
+        // SET UP:
+        TicketStore store = new TicketStore();
+        store.add(ticket("T1", "agent1", "Pending"));
+        store.add(ticket("T2", "agent1", "Pending"));
+        store.add(ticket("T3", "agent2", "Pending"));
+        store.setStatus(store.get("T1"), TicketStatus.CLOSED);
+        store.get("T1").setClosedDate(date.plusDays(1));
+        store.setStatus(store.get("T2"), TicketStatus.CLOSED);
+
+        // LOGIC:
+        int archived;
+        try (TicketArchive archive = new TicketArchive(dir.resolve("archive.txt").toString())) {
+            archived = store.archiveClosed(archive, date.plusDays(2));
+
+            // ASSERTIONS:
+            assertEquals(1, archived);
+            assertNull(store.get("T1"));
+            assertEquals(2, store.size());
+            assertEquals(1, store.getByAgent("agent1").size());
+            assertEquals(1, store.getByStatus(TicketStatus.CLOSED).size());
+            assertNotNull(store.get("T2").getClosedDate(), "Closing a ticket should stamp its closing date");
+
+            Ticket read = archive.read("T1");
+            assertEquals("Issue T1", read.getIssueDescription());
+            assertEquals(date.plusDays(1), read.getClosedDate());
+            assertEquals(TicketStatus.CLOSED, read.getTicketStatus());
+        }
+    }
+
+    @Test
+    void testReopen_RebuildsIndexAndPagesByAgent() throws IOException {
+        // SET UP:
+        String file = dir.resolve("archive.txt").toString();
+        try (TicketArchive archive = new TicketArchive(file)) {
+            for (int i = 0; i < 5; i++) {
+                Ticket t = ticket("T" + i, i % 2 == 0 ? "agent1" : null, "Closed");
+                t.setClosedDate(date);
+                archive.append(t);
+            }
+            assertThrows(IllegalArgumentException.class, () -> archive.append(ticket("T0", null, "Closed")));
+        }
+        // A record cut short by a crash is dropped when the archive is reopened
+        Files.writeString(Path.of(file), "T9%%Half a rec", StandardOpenOption.APPEND);
+
+        // LOGIC:
+        try (TicketArchive archive = new TicketArchive(file)) {
+            DynamicArray<Ticket> page = archive.readByAgent("agent1", 1, 10);
+            archive.append(ticket("T5", "agent1", "Closed"));
+
+            // ASSERTIONS:
+            assertEquals(5 + 1, archive.size());
+            assertEquals(4, archive.countByAgent("agent1"));
+            assertEquals(6, archive.countByReporter("maryam"));
+            assertEquals(2, page.size());
+            assertEquals("T2", page.get(0).getTicketId());
+            assertEquals("T4", page.get(1).getTicketId());
+            assertNull(archive.read("T9"));
+            assertEquals("T5", archive.read("T5").getTicketId());
+            assertEquals(0, archive.readByAgent("agent1", 10, 10).size());
+        }
+    }
+}
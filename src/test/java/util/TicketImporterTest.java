@@ -0,0 +1,114 @@
+package util;
+
+import entities.Ticket;
+import entities.TicketStatus;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TicketImporterTest {
+    private final LocalDateTime now = LocalDateTime.of(2024, 6, 1, 9, 30);
+
+    @Test
+    void testReadCsv() throws IOException {
+        // SET UP:
+        String csv = "Reporter,Priority,Description,Agent\n"
+                + "maryam,3,\"Printer says \"\"low toner\"\", again\",\n"
+                + "\n"
+                + "ore,5,Server down,agent1\n";
+        TicketImporter importer = new TicketImporter(TicketImporter.Format.CSV, now);
+        DynamicArray<Ticket> tickets = new DynamicArray<>();
+
+        // LOGIC:
+        int read = importer.read(new StringReader(csv), tickets::add);
+
+        // ASSERTIONS:
+        assertEquals(2, read);
+        assertTrue(importer.getErrors().isEmpty());
+        Ticket first = tickets.get(0);
+        assertEquals("Printer says \"low toner\", again", first.getIssueDescription());
+        assertEquals("maryam", first.getReportingUsername());
+        assertNull(first.getAllocatedAgentId(), "An empty column should be left unset");
+        assertEquals(TicketStatus.PENDING, first.getTicketStatus());
+        assertEquals(now, first.getCreationDate(), "Tickets without a creation time get the import time");
+        assertEquals("agent1", tickets.get(1).getAllocatedAgentId());
+    }
+
+    @Test
+    void testReadJsonLines() throws IOException {
+        // SET UP:
+        String json = "{\"id\":\"E-1\",\"description\":\"No VPN\",\"priority\":2,\"reporter\":\"maryam\","
+                + "\"created\":\"2024-05-30T08:00\",\"status\":\"In progress\"}\n"
+                + "{\"description\":\"Slow laptop\",\"priority\":1,\"reporter\":\"ore\"}\n";
+        TicketImporter importer = new TicketImporter(TicketImporter.Format.JSON_LINES, now);
+        DynamicArray<Ticket> tickets = new DynamicArray<>();
+
+        // LOGIC:
+        importer.read(new StringReader(json), tickets::add);
+
+        // ASSERTIONS:
+        assertEquals(2, tickets.size());
+        assertEquals("E-1", tickets.get(0).getTicketId());
+        assertEquals(LocalDateTime.of(2024, 5, 30, 8, 0), tickets.get(0).getCreationDate());
+        assertEquals(TicketStatus.IN_PROGRESS, tickets.get(0).getTicketStatus());
+        UUID generated = UUID.fromString(tickets.get(1).getTicketId());
+        assertEquals(4, generated.version());
+        assertEquals(2, generated.variant());
+    }
+
+    @Test
+    void testInvalidRecordsAreReported() throws IOException {
+        // SET UP:
+        String json = "{\"description\":\"Fine\",\"priority\":3,\"reporter\":\"maryam\"}\n"
+                + "{\"description\":\"Too urgent\",\"priority\":9,\"reporter\":\"maryam\"}\n"
+                + "{\"priority\":3,\"reporter\":\"maryam\"}\n"
+                + "not json\n"
+                + "{\"description\":\"Bad%%text\",\"priority\":3,\"reporter\":\"maryam\"}\n"
+                + "{\"description\":\"Odd\",\"priority\":3,\"reporter\":\"maryam\",\"status\":\"Open\"}\n";
+        TicketImporter importer = new TicketImporter(TicketImporter.Format.JSON_LINES, now);
+        DynamicArray<Ticket> tickets = new DynamicArray<>();
+
+        // LOGIC:
+        int read = importer.read(new StringReader(json), tickets::add);
+
+        // ASSERTIONS:
+        assertEquals(1, read);
+        assertEquals(5, importer.getErrors().size());
+        assertTrue(importer.getErrors().get(0).startsWith("Line 2:"));
+        assertTrue(importer.getErrors().get(4).startsWith("Line 6:"));
+    }
+
+    @Test
+    void testCsvNeedsHeader() {
+        TicketImporter importer = new TicketImporter(TicketImporter.Format.CSV, now);
+        assertThrows(IllegalArgumentException.class,
+                () -> importer.read(new StringReader("maryam,3,Printer\n"), t -> fail()));
+    }
+
+    @Test
+    void testGeneratedIdsAreUnique() throws IOException {
+        // SET UP:
+        StringBuilder csv = new StringBuilder("description,priority,reporter\n");
+        for (int i = 0; i < 1000; i++) {
+            csv.append("Issue ").append(i).append(",3,maryam\n");
+        }
+        TicketStore store = new TicketStore();
+
+        // LOGIC:
+        new TicketImporter(TicketImporter.Format.CSV, now).read(new StringReader(csv.toString()), store::add);
+
+        // ASSERTIONS:
+        assertEquals(1000, store.size());
+    }
+
+    @Test
+    void testFormatForFile() {
+        assertEquals(TicketImporter.Format.JSON_LINES, TicketImporter.Format.forFile("gateway.JSONL"));
+        assertEquals(TicketImporter.Format.CSV, TicketImporter.Format.forFile("gateway.csv"));
+    }
+}
@@ -0,0 +1,78 @@
+package util;
+
+import entities.Ticket;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TicketSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testWriteThenRead_RoundTripsEveryField() throws IOException {
+        // SET UP:
+        String uuid = UUID.randomUUID().toString();
+        Ticket[] tickets = {
+                new Ticket("T1", "Can't log in", 5, LocalDateTime.of(2024, 4, 1, 10, 0), "maryam", "AG001", "Closed"),
+                new Ticket(uuid, "Écran noir — laptop", 2, LocalDateTime.of(2025, 4, 23, 17, 3, 3, 685379000), "ore", null, "In progress"),
+        };
+        tickets[0].setClosedDate(LocalDateTime.of(2024, 4, 3, 8, 15));
+        String file = dir.resolve("tickets.bin").toString();
+
+        // LOGIC:
+        TicketSnapshotWriter.write(file, tickets);
+        DynamicArray<Ticket> read = TicketSnapshotReader.readTickets(file);
+
+        // ASSERTIONS:
+        assertEquals(2, read.size());
+        for (int i = 0; i < tickets.length; i++) {
+            assertEquals(tickets[i].getTicketId(), read.get(i).getTicketId());
+            assertEquals(tickets[i].getIssueDescription(), read.get(i).getIssueDescription());
+            assertEquals(tickets[i].getPriorityLevel(), read.get(i).getPriorityLevel());
+            assertEquals(tickets[i].getCreationDate(), read.get(i).getCreationDate());
+            assertEquals(tickets[i].getReportingUsername(), read.get(i).getReportingUsername());
+            assertEquals(tickets[i].getAllocatedAgentId(), read.get(i).getAllocatedAgentId());
+            assertEquals(tickets[i].getStatus(), read.get(i).getStatus());
+            assertEquals(tickets[i].getClosedDate(), read.get(i).getClosedDate());
+        }
+    }
+
+    @Test
+    void testConvert_SnapshotIsSmallerThanText() throws IOException {
+        // SET UP:
+        Path text = dir.resolve("tickets.txt");
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(text))) {
+            for (int i = 0; i < 1000; i++) {
+                writer.println(UUID.randomUUID() + "%%Issue " + i + "%%" + (i % 5 + 1) + "%%2025-04-23T17:03:03.685379%%user"
+                        + (i % 10) + "%%AG00" + (i % 3) + "%%Pending");
+            }
+        }
+        String snapshot = dir.resolve("tickets.bin").toString();
+
+        // LOGIC:
+        int converted = TicketSnapshotConverter.convert(text.toString(), snapshot);
+
+        // ASSERTIONS:
+        assertEquals(1000, converted);
+        assertTrue(Files.size(Path.of(snapshot)) * 2 < Files.size(text));
+        assertEquals(1000, TicketSnapshotReader.readTickets(snapshot).size());
+    }
+
+    @Test
+    void testLoad_RejectsOtherFiles() throws IOException {
+        Path other = dir.resolve("other.bin");
+        Files.writeString(other, "not a snapshot");
+
+        assertThrows(IOException.class, () -> TicketSnapshotReader.load(other.toString(), t -> { }));
+    }
+}
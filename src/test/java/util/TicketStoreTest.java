@@ -0,0 +1,160 @@
+package util;
+
+import entities.Ticket;
+import entities.TicketStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TicketStoreTest {
+    private TicketStore store;
+    private final LocalDateTime date = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    @BeforeEach
+    void setUp() {
+        store = new TicketStore();
+        store.add(new Ticket("1", "A", 3, date, "maryam", null, "Pending"));
+        store.add(new Ticket("2", "B", 4, date, "ore", "AG001", "In progress"));
+        store.add(new Ticket("3", "C", 1, date, "maryam", "AG001", "Pending"));
+    }
+
+    @Test
+    void testLookups() {
+        assertEquals(3, store.size());
+        assertEquals("B", store.get("2").getIssueDescription());
+        assertNull(store.get("missing"));
+        assertEquals(2, store.getByReporter("maryam").size());
+        assertEquals(0, store.getByReporter("nobody").size());
+        assertEquals(2, store.getByAgent("AG001").size());
+        assertEquals(2, store.getByStatus("Pending").size());
+        assertEquals(1, store.unassignedCount());
+    }
+
+    @Test
+    void testAddDuplicateId() {
+        assertFalse(store.add(new Ticket("1", "Again", 2, date, "ore", null, "Pending")));
+        assertEquals(3, store.size());
+        assertEquals(1, store.getByReporter("ore").size());
+    }
+
+    @Test
+    void testAddAllSkipsKnownIds() {
+        // SET UP:
+        DynamicArray<Ticket> batch = new DynamicArray<>();
+        batch.add(new Ticket("4", "D", 2, date, "ore", null, "Pending"));
+        batch.add(new Ticket("2", "Again", 2, date, "ore", null, "Pending"));
+        batch.add(new Ticket("5", "E", 5, date, "maryam", null, "Pending"));
+
+        // LOGIC:
+        DynamicArray<Ticket> added = store.addAll(batch);
+
+        // ASSERTIONS:
+        assertEquals(2, added.size());
+        assertEquals("4", added.get(0).getTicketId());
+        assertEquals("5", added.get(1).getTicketId());
+        assertEquals(5, store.size());
+        assertEquals(2, store.getByReporter("ore").size());
+        assertEquals("5", store.peekUnassigned().getTicketId(), "Imported tickets should be dispatchable");
+    }
+
+    @Test
+    void testSetStatusMovesBetweenIndexes() {
+        Ticket t = store.get("1");
+
+        store.setStatus(t, "Closed");
+
+        assertEquals("Closed", t.getStatus());
+        assertEquals(1, store.getByStatus("Pending").size());
+        assertEquals(1, store.getByStatus("Closed").size());
+    }
+
+    @Test
+    void testSetAllocatedAgentMovesBetweenIndexes() {
+        Ticket t = store.get("1");
+
+        store.setAllocatedAgentId(t, "AG002");
+
+        assertEquals("AG002", t.getAllocatedAgentId());
+        assertEquals(0, store.unassignedCount());
+        assertEquals(1, store.getByAgent("AG002").size());
+
+        store.setAllocatedAgentId(store.get("2"), null);
+        assertEquals(1, store.getByAgent("AG001").size());
+        assertEquals("2", store.peekUnassigned().getTicketId());
+    }
+
+    @Test
+    void testPageByAgent_FiltersByStatusAfterMoves() {
+        // SET UP: six tickets for one agent, every other one closed
+        for (int i = 4; i < 10; i++) {
+            store.add(new Ticket(String.valueOf(i), "T" + i, 2, date, "ore", "agent1", "Pending"));
+        }
+        for (int i = 4; i < 10; i += 2) {
+            store.setStatus(store.get(String.valueOf(i)), TicketStatus.CLOSED);
+        }
+        store.setAllocatedAgentId(store.get("6"), "agent2");
+
+        // LOGIC:
+        Page<Ticket> first = store.pageByAgent("agent1", TicketStatus.CLOSED, 1, null);
+        Page<Ticket> second = store.pageByAgent("agent1", TicketStatus.CLOSED, 1, first.getNextToken());
+
+        // ASSERTIONS:
+        assertEquals("4", first.getItems().get(0).getTicketId());
+        assertEquals("8", second.getItems().get(0).getTicketId());
+        assertNull(second.getNextToken(), "No closed ticket follows the last one");
+        assertEquals(3, store.getByStatus(TicketStatus.CLOSED).size());
+        assertEquals(5, store.getByAgent("agent1").size());
+    }
+
+    @Test
+    void testGetAll_ReturnsCopy() {
+        DynamicArray<Ticket> all = store.getAll();
+
+        store.add(new Ticket("4", "D", 2, date, "ore", null, "Pending"));
+
+        assertEquals(3, all.size());
+        assertEquals(4, store.getAll().size());
+    }
+
+    @Test
+    void testClaimNext_HandsOutHighestPriorityFirst() {
+        // SET UP:
+        store.add(new Ticket("4", "D", 5, date, "ore", null, "Pending"));
+        store.add(new Ticket("5", "E", 2, date, "ore", null, "Pending"));
+
+        // LOGIC:
+        Ticket first = store.claimNext("agent1");
+        Ticket second = store.claimNext("agent2");
+
+        // ASSERTIONS:
+        assertEquals("4", first.getTicketId());
+        assertEquals("agent1", first.getAllocatedAgentId());
+        assertEquals("1", second.getTicketId());
+        assertEquals("5", store.claimNext("agent1").getTicketId());
+        assertNull(store.claimNext("agent1"), "No unassigned tickets should remain");
+        assertEquals(2, store.getByAgent("agent1").size());
+    }
+
+    @Test
+    void testStatusEnumAndInterning() {
+        // SET UP:
+        Ticket t = new Ticket("4", "D", 2, date, new String("maryam"), new String("AG001"), "in-progress");
+
+        // LOGIC:
+        store.add(t);
+
+        // ASSERTIONS:
+        assertEquals(TicketStatus.IN_PROGRESS, t.getTicketStatus());
+        assertEquals("In progress", t.getStatus());
+        assertEquals(2, store.getByStatus(TicketStatus.IN_PROGRESS).size());
+        assertSame(store.get("1").getReportingUsername(), t.getReportingUsername());
+        assertSame(store.get("2").getAllocatedAgentId(), t.getAllocatedAgentId());
+        assertEquals(3, store.getByAgent("AG001").size());
+        assertEquals(TicketStatus.CLOSED, TicketStatus.parse(" CLOSED "));
+        assertThrows(IllegalArgumentException.class, () -> TicketStatus.parse("Open"));
+        assertThrows(IllegalArgumentException.class, () -> store.setStatus(t, "Open"));
+    }
+}
@@ -0,0 +1,91 @@
+package util;
+
+import entities.Ticket;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TicketTableTest {
+    private TicketTable table;
+    private final LocalDateTime date = LocalDateTime.of(2024, 1, 1, 10, 0, 5, 123_456_000);
+    private final String uuid = "3f2b8c1e-9a4d-4e6f-8b7a-1c2d3e4f5a6b";
+
+    @BeforeEach
+    void setUp() {
+        table = new TicketTable(1);
+        table.add(new Ticket(uuid, "A", 3, date, "maryam", null, "Pending"));
+        table.add(new Ticket("T-2", "B", 4, date, "ore", "AG001", "In progress"));
+        table.add(new Ticket("T-3", "C", 5, date.plusMinutes(1), "maryam", null, "Pending"));
+    }
+
+    @Test
+    void testRowRoundTrip() {
+        // LOGIC
+        Ticket first = table.toTicket(table.indexOf(uuid));
+        Ticket second = table.toTicket(table.indexOf("T-2"));
+
+        // ASSERTIONS
+        assertEquals(3, table.size());
+        assertEquals(uuid, first.getTicketId());
+        assertEquals(date, first.getCreationDate());
+        assertNull(first.getAllocatedAgentId());
+        assertEquals("maryam", first.getReportingUsername());
+        assertEquals("T-2", second.getTicketId());
+        assertEquals("AG001", second.getAllocatedAgentId());
+        assertEquals("In progress", second.getStatus());
+        assertEquals(-1, table.indexOf("missing"));
+    }
+
+    @Test
+    void testCursorWalksRows() {
+        // SET UP
+        TicketTable.Row row = table.cursor();
+        int total = 0;
+
+        // LOGIC
+        for (int i = 0; i < table.size(); i++) {
+            total += row.moveTo(i).getPriorityLevel();
+        }
+
+        // ASSERTIONS
+        assertEquals(12, total);
+        assertThrows(IndexOutOfBoundsException.class, () -> row.moveTo(3));
+    }
+
+    @Test
+    void testScans() {
+        // SET UP
+        DynamicArray<String> agentTickets = new DynamicArray<>();
+
+        // LOGIC
+        table.forEachRowOfAgent("AG001", r -> agentTickets.add(table.view(r).getTicketId()));
+
+        // ASSERTIONS
+        assertEquals(2, table.countByStatus("Pending"));
+        assertEquals(0, table.countByStatus("Closed"));
+        assertEquals(1, agentTickets.size());
+        assertEquals("T-2", agentTickets.get(0));
+        assertEquals(table.indexOf("T-3"), table.topUnassigned());
+    }
+
+    @Test
+    void testUpdates() {
+        // SET UP
+        int row = table.indexOf("T-3");
+
+        // LOGIC
+        table.setAgentId(row, "AG002");
+        table.setStatus(row, "Closed");
+
+        // ASSERTIONS
+        assertEquals("AG002", table.getAgentId(row));
+        assertEquals(1, table.countByStatus("Closed"));
+        assertEquals(table.indexOf(uuid), table.topUnassigned());
+        assertThrows(IllegalArgumentException.class, () -> table.setPriority(row, 6));
+        assertThrows(IllegalArgumentException.class,
+                () -> table.add(new Ticket("T-2", "Again", 1, date, "ore", null, "Pending")));
+    }
+}
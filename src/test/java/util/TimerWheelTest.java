@@ -0,0 +1,93 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+
+    @Test
+    void testTimersFireAtTheirDeadline() {
+        // SET UP:
+        TimerWheel<String> wheel = new TimerWheel<>(100);
+        wheel.schedule("soon", 101);
+        wheel.schedule("later", 170);
+        wheel.schedule("much later", 100 + 64 * 64 * 3);
+        DynamicArray<String> fired = new DynamicArray<>();
+
+        // LOGIC + ASSERTIONS:
+        assertEquals(1, wheel.advance(169, fired));
+        assertEquals("[soon]", fired.toString());
+        assertEquals(1, wheel.advance(170, fired));
+        assertEquals("[soon, later]", fired.toString());
+        assertEquals(0, wheel.advance(100 + 64 * 64 * 3 - 1, fired));
+        assertEquals(1, wheel.advance(100 + 64 * 64 * 3, fired));
+        assertEquals(0, wheel.size());
+        assertEquals(100 + 64 * 64 * 3, wheel.now());
+    }
+
+    @Test
+    void testPastDeadlinesFireAtTheNextTick() {
+        // SET UP:
+        TimerWheel<String> wheel = new TimerWheel<>(1_000);
+        wheel.schedule("overdue", 10);
+        DynamicArray<String> fired = new DynamicArray<>();
+
+        // LOGIC + ASSERTIONS:
+        assertEquals(0, wheel.advance(1_000, fired));
+        assertEquals(1, wheel.advance(1_001, fired));
+        assertEquals("[overdue]", fired.toString());
+    }
+
+    @Test
+    void testCancel() {
+        // SET UP:
+        TimerWheel<String> wheel = new TimerWheel<>(0);
+        TimerWheel.Timer<String> a = wheel.schedule("a", 5_000);
+        TimerWheel.Timer<String> b = wheel.schedule("b", 5_000);
+        DynamicArray<String> fired = new DynamicArray<>();
+
+        // LOGIC:
+        assertTrue(wheel.cancel(a));
+        assertFalse(wheel.cancel(a));
+        wheel.advance(10_000, fired);
+
+        // ASSERTIONS:
+        assertEquals("[b]", fired.toString());
+        assertFalse(a.isPending());
+        assertFalse(b.isPending());
+        assertFalse(wheel.cancel(b), "A fired timer cannot be cancelled");
+    }
+
+    @Test
+    void testRandomDeadlinesFireInOrder() {
+        // SET UP: deadlines spread over several levels, moved to in uneven steps
+        TimerWheel<Long> wheel = new TimerWheel<>(12_345);
+        Random random = new Random(7);
+        for (int i = 0; i < 5_000; i++) {
+            long deadline = 12_346 + (long) (random.nextDouble() * random.nextDouble() * 50_000_000L);
+            wheel.schedule(deadline, deadline);
+        }
+        DynamicArray<Long> fired = new DynamicArray<>();
+
+        // LOGIC:
+        long now = 12_345;
+        while (wheel.size() > 0) {
+            now += 1 + random.nextInt(200_000);
+            int before = fired.size();
+            wheel.advance(now, fired);
+            for (int i = before; i < fired.size(); i++) {
+                assertTrue(fired.get(i) <= now, "A timer fired early");
+                assertTrue(fired.get(i) > now - 200_001, "A timer fired late");
+            }
+        }
+
+        // ASSERTIONS:
+        assertEquals(5_000, fired.size());
+        for (int i = 1; i < fired.size(); i++) {
+            assertTrue(fired.get(i - 1) <= fired.get(i), "Timers should fire in deadline order");
+        }
+    }
+}